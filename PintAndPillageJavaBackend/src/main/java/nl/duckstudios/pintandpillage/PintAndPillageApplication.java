@@ -2,8 +2,10 @@ package nl.duckstudios.pintandpillage;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PintAndPillageApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,28 @@
+package nl.duckstudios.pintandpillage.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * The scheduled jobs, like resolving travels, run on the default task scheduler. Waking up villages for their owners
+ * gets a scheduler of its own, so many connected players can't hold up the jobs.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler villageEventScheduler(@Value("${events.scheduler-threads:2}") int threads) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(threads);
+        scheduler.setThreadNamePrefix("village-events-");
+        return scheduler;
+    }
+}
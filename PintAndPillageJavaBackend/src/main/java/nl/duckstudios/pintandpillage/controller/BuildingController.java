@@ -1,5 +1,6 @@
 package nl.duckstudios.pintandpillage.controller;
 
+import nl.duckstudios.pintandpillage.dao.VillageLocks;
 import nl.duckstudios.pintandpillage.entity.User;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.entity.buildings.Building;
@@ -10,8 +11,6 @@ import nl.duckstudios.pintandpillage.service.AuthenticationService;
 import nl.duckstudios.pintandpillage.service.BuildingService;
 import nl.duckstudios.pintandpillage.service.VillageService;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
-import org.springframework.http.HttpStatus;
 
 @RestController
 @RequestMapping("api/building")
@@ -22,60 +21,63 @@ public class BuildingController {
     private final AuthenticationService authenticationService;
     private final AccountService accountService;
     private final BuildingFactory buildingFactory;
+    private final VillageLocks villageLocks;
 
     public BuildingController(VillageService villageService,
                               BuildingService buildingService,
                               AuthenticationService authenticationService,
                               AccountService accountService,
-                              BuildingFactory buildingFactory) {
+                              BuildingFactory buildingFactory,
+                              VillageLocks villageLocks) {
         this.villageService = villageService;
         this.buildingService = buildingService;
         this.authenticationService = authenticationService;
         this.accountService = accountService;
         this.buildingFactory = buildingFactory;
+        this.villageLocks = villageLocks;
     }
 
     @RequestMapping(value = "/build", method = RequestMethod.POST)
     @ResponseBody
     public Village createBuilding(@RequestBody BuildingCreateData buildingCreateData) {
         User user = this.authenticationService.getAuthenticatedUser();
-        Village village = this.villageService.getVillage(buildingCreateData.villageId);
+        return this.villageLocks.withVillages(() -> {
+            Village village = this.villageService.getVillage(buildingCreateData.villageId);
 
-        this.accountService.checkIsCorrectUser(user.getId(), village);
-        Building building = buildingFactory.getBuilding(buildingCreateData.buildingType, buildingCreateData.coord);
+            this.accountService.checkIsCorrectUser(user.getId(), village);
+            Building building = buildingFactory.getBuilding(buildingCreateData.buildingType, buildingCreateData.coord);
 
-        return this.villageService.createBuilding(village, building);
+            return this.villageService.createBuilding(village, building);
+        }, buildingCreateData.villageId);
     }
 
     @RequestMapping(value = "/levelup/{id}", method = RequestMethod.POST)
     @ResponseBody
     public Village levelUpBuilding(@PathVariable long id) {
         User user = this.authenticationService.getAuthenticatedUser();
-        Building building = this.buildingService.getBuilding(id);
-        Village village = building.getVillage();
+        long villageId = this.buildingService.getVillageId(id);
+        return this.villageLocks.withVillages(() -> {
+            Village village = this.villageService.getVillage(villageId);
 
-        this.accountService.checkIsCorrectUser(user.getId(), village);
+            this.accountService.checkIsCorrectUser(user.getId(), village);
 
-        building.levelUp();
-        this.villageService.update(village);
-        return village;
+            this.buildingService.getBuilding(village, id).levelUp();
+            this.villageService.update(village);
+            return village;
+        }, villageId);
     }
 
     @RequestMapping(value = "/remove/{id}", method = RequestMethod.POST)
     @ResponseBody
     public Village removeBuilding(@PathVariable long id) {
         User user = this.authenticationService.getAuthenticatedUser();
-        Building building = this.buildingService.getBuilding(id);
-        if (building == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown building id"); // REFACTOR (ITSTEN H2): Provide clear validation when building does not exist.
-        }
-        Village village = building.getVillage();
-        if (village == null) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Building is not placed in a village"); // REFACTOR (ITSTEN H2): Guard against orphaned buildings in demolition.
-        }
+        long villageId = this.buildingService.getVillageId(id); // REFACTOR (ITSTEN H2): Provide clear validation when building does not exist or is not placed.
+        return this.villageLocks.withVillages(() -> {
+            Village village = this.villageService.getVillage(villageId);
 
-        this.accountService.checkIsCorrectUser(user.getId(), village);
+            this.accountService.checkIsCorrectUser(user.getId(), village);
 
-        return this.villageService.demolishBuilding(village, id); // REFACTOR (ITSTEN H2): Expose demolition through controller without resource refund.
+            return this.villageService.demolishBuilding(village, id); // REFACTOR (ITSTEN H2): Expose demolition through controller without resource refund.
+        }, villageId);
     }
 }
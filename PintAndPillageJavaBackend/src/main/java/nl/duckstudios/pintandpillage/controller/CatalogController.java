@@ -0,0 +1,27 @@
+package nl.duckstudios.pintandpillage.controller;
+
+import nl.duckstudios.pintandpillage.helper.GameCatalog;
+import nl.duckstudios.pintandpillage.model.GameCatalogData;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("api/catalog")
+public class CatalogController {
+
+    private static final GameCatalogData CATALOG = new GameCatalogData(GameCatalog.getBuildableBuildings(),
+            GameCatalog.getBuildPositions(), GameCatalog.getResearchTemplates());
+
+    @RequestMapping(method = RequestMethod.GET)
+    public ResponseEntity<GameCatalogData> getCatalog() {
+        // The catalog only changes with a new release, so clients can keep it for a day.
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS))
+                .body(CATALOG);
+    }
+}
@@ -2,12 +2,16 @@ package nl.duckstudios.pintandpillage.controller;
 
 import nl.duckstudios.pintandpillage.Exceptions.AttackingConditionsNotMetException;
 import nl.duckstudios.pintandpillage.dao.TravelDao;
-import nl.duckstudios.pintandpillage.entity.Coord;
+import nl.duckstudios.pintandpillage.dao.VillageLocks;
 import nl.duckstudios.pintandpillage.entity.User;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.entity.VillageUnit;
 import nl.duckstudios.pintandpillage.entity.travels.AttackCombatTravel;
+import nl.duckstudios.pintandpillage.model.AttackSimulation;
+import nl.duckstudios.pintandpillage.model.AttackSimulationData;
 import nl.duckstudios.pintandpillage.model.AttackVillageData;
+import nl.duckstudios.pintandpillage.model.VillageEvent;
+import nl.duckstudios.pintandpillage.model.VillageEventType;
 import nl.duckstudios.pintandpillage.service.*;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,14 +30,18 @@ public class CombatController {
 
     private final TravelDao travelDao;
     private final DistanceService distanceService;
+    private final VillageLocks villageLocks;
+    private final VillageEventService villageEventService;
 
-    public CombatController(AuthenticationService authenticationService, AccountService accountService, VillageService villageService, CombatService combatService, TravelDao travelDao, DistanceService distanceService) {
+    public CombatController(AuthenticationService authenticationService, AccountService accountService, VillageService villageService, CombatService combatService, TravelDao travelDao, DistanceService distanceService, VillageLocks villageLocks, VillageEventService villageEventService) {
         this.authenticationService = authenticationService;
         this.accountService = accountService;
         this.villageService = villageService;
         this.combatService = combatService;
         this.travelDao = travelDao;
         this.distanceService = distanceService;
+        this.villageLocks = villageLocks;
+        this.villageEventService = villageEventService;
     }
 
     @RequestMapping(method = RequestMethod.POST)
@@ -45,30 +53,54 @@ public class CombatController {
 
         User user = this.authenticationService.getAuthenticatedUser();
 
-        Village attackingVillage = this.villageService.getVillage(data.fromVillageId);
-        this.accountService.checkIsCorrectUser(user.getId(), attackingVillage);
+        return this.villageLocks.withVillages(() -> {
+            Village attackingVillage = this.villageService.getVillage(data.fromVillageId);
+            this.accountService.checkIsCorrectUser(user.getId(), attackingVillage);
 
-        Village defendingVillage = this.villageService.getVillage(data.toVillageId);
+            Village defendingVillage = this.villageService.getVillage(data.toVillageId);
 
-        List<VillageUnit> attackingUnits = this.combatService.convertToVillageUnits(data);
+            List<VillageUnit> attackingUnits = this.combatService.convertToVillageUnits(data);
 
-        this.combatService.checkHasEnoughUnitsToAttack(attackingUnits, attackingVillage);
-        this.combatService.checkHasEnoughShipsToSendUnits(attackingUnits);
+            this.combatService.checkHasEnoughUnitsToAttack(attackingUnits, attackingVillage);
+            this.combatService.checkHasEnoughShipsToSendUnits(attackingUnits);
 
-        AttackCombatTravel travel = this.CreateCombatTravel(attackingUnits, attackingVillage, defendingVillage);
+            AttackCombatTravel travel = this.CreateCombatTravel(attackingUnits, attackingVillage, defendingVillage);
 
-        this.villageService.update(attackingVillage);
-        this.travelDao.insertAttack(travel);
+            this.villageService.update(attackingVillage);
+            this.travelDao.insertAttack(travel);
+            this.villageEventService.publish(defendingVillage, new VillageEvent(defendingVillage.getVillageId(),
+                    VillageEventType.ATTACK_INCOMING, "Incoming attack from " + attackingVillage.getName(),
+                    travel.getTimeOfArrival()));
 
+            return attackingVillage;
+        }, data.fromVillageId, data.toVillageId);
+    }
+
+    @RequestMapping(value = "simulate", method = RequestMethod.POST)
+    @ResponseBody
+    public List<AttackSimulation> simulateAttack(@RequestBody AttackSimulationData data) {
+        if (data.fromVillageId == data.toVillageId) {
+            throw new AttackingConditionsNotMetException("You should not attack yourself...");
+        }
+
+        User user = this.authenticationService.getAuthenticatedUser();
+
+        // Reading the villages writes their state transitions, so they are read under the locks like any change.
+        return this.villageLocks.withVillages(() -> {
+            Village attackingVillage = this.villageService.getVillage(data.fromVillageId);
+            this.accountService.checkIsCorrectUser(user.getId(), attackingVillage);
+
+            Village defendingVillage = this.villageService.getVillage(data.toVillageId);
 
-        return attackingVillage;
+            return this.combatService.simulateAttacks(data.unitMixes, attackingVillage, defendingVillage);
+        }, data.fromVillageId, data.toVillageId);
     }
 
     private AttackCombatTravel CreateCombatTravel(List<VillageUnit> attackingUnits,
                                                   Village attackingVillage, Village defendingVillage) {
         int slowestUnitSpeed = attackingUnits.stream().mapToInt(a -> a.getUnit().getSpeed()).min().orElse(-1);
-        int distanceBetweenVillages = this.distanceService.calculateDistance(new Coord(attackingVillage.getPositionX(), attackingVillage.getPositionY()),
-                new Coord(defendingVillage.getPositionX(), defendingVillage.getPositionY()));
+        int distanceBetweenVillages = this.distanceService.calculateDistance(attackingVillage.getPositionX(), attackingVillage.getPositionY(),
+                defendingVillage.getPositionX(), defendingVillage.getPositionY());
 
         long travelTimeSeconds = (long) distanceBetweenVillages * (1000 / slowestUnitSpeed);
         LocalTime travelTime = LocalTime.of(0, 0, 0).plusSeconds(travelTimeSeconds);
@@ -1,5 +1,6 @@
 package nl.duckstudios.pintandpillage.controller;
 
+import nl.duckstudios.pintandpillage.dao.VillageLocks;
 import nl.duckstudios.pintandpillage.entity.User;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.entity.buildings.ProductionBuilding;
@@ -22,34 +23,39 @@ public class ProductionController {
     private final AccountService accountService;
 
     private final UnitFactory unitFactory;
+    private final VillageLocks villageLocks;
 
     public ProductionController(VillageService villageService, BuildingService buildingService,
                                 AuthenticationService authenticationService,
                                 AccountService accountService,
-                                UnitFactory unitFactory) {
+                                UnitFactory unitFactory,
+                                VillageLocks villageLocks) {
         this.villageService = villageService;
         this.buildingService = buildingService;
         this.authenticationService = authenticationService;
         this.accountService = accountService;
         this.unitFactory = unitFactory;
+        this.villageLocks = villageLocks;
     }
 
     @RequestMapping(value = "train", method = RequestMethod.POST)
     @ResponseBody
     public Village trainUnitsInBuilding(@RequestBody UnitCreateData unitCreateData) {
         User user = this.authenticationService.getAuthenticatedUser();
-        ProductionBuilding productionBuilding = (ProductionBuilding) this.buildingService.getBuilding(unitCreateData.productionBuildingId);
-        Village village = productionBuilding.getVillage();
+        long villageId = this.buildingService.getVillageId(unitCreateData.productionBuildingId);
+        return this.villageLocks.withVillages(() -> {
+            Village village = this.villageService.getVillage(villageId);
 
+            this.accountService.checkIsCorrectUser(user.getId(), village);
 
-        this.accountService.checkIsCorrectUser(user.getId(), village);
+            ProductionBuilding productionBuilding = (ProductionBuilding) this.buildingService.getBuilding(village, unitCreateData.productionBuildingId);
+            Unit unit = this.unitFactory.getUnit(unitCreateData.unitType);
 
-        Unit unit = this.unitFactory.getUnit(unitCreateData.unitType);
+            productionBuilding.produceUnit(unit, unitCreateData.amount);
 
-        productionBuilding.produceUnit(unit, unitCreateData.amount);
+            this.villageService.update(village);
 
-        this.villageService.update(productionBuilding.getVillage());
-
-        return productionBuilding.getVillage();
+            return village;
+        }, villageId);
     }
 }
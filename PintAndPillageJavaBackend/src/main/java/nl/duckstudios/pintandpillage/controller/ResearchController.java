@@ -1,5 +1,6 @@
 package nl.duckstudios.pintandpillage.controller;
 
+import nl.duckstudios.pintandpillage.dao.VillageLocks;
 import nl.duckstudios.pintandpillage.entity.User;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.entity.buildings.ResearchBuilding;
@@ -22,35 +23,40 @@ public class ResearchController {
     private final AccountService accountService;
 
     private final ResearchFactory researchFactory;
+    private final VillageLocks villageLocks;
 
     public ResearchController(VillageService villageService, BuildingService buildingService,
                               AuthenticationService authenticationService,
                               AccountService accountService,
-                              ResearchFactory researchFactory) {
+                              ResearchFactory researchFactory,
+                              VillageLocks villageLocks) {
         this.villageService = villageService;
         this.buildingService = buildingService;
         this.authenticationService = authenticationService;
         this.accountService = accountService;
         this.researchFactory = researchFactory;
+        this.villageLocks = villageLocks;
     }
 
     @RequestMapping(method = RequestMethod.POST)
     @ResponseBody
     public Village startResearch(@RequestBody ResearchStartData researchStartData) {
         User user = this.authenticationService.getAuthenticatedUser();
-        ResearchBuilding researchBuilding = (ResearchBuilding) this.buildingService.getBuilding(researchStartData.researchBuildingId);
-        Village village = researchBuilding.getVillage();
+        long villageId = this.buildingService.getVillageId(researchStartData.researchBuildingId);
+        return this.villageLocks.withVillages(() -> {
+            Village village = this.villageService.getVillage(villageId);
 
+            this.accountService.checkIsCorrectUser(user.getId(), village);
 
-        this.accountService.checkIsCorrectUser(user.getId(), village);
+            ResearchBuilding researchBuilding = (ResearchBuilding) this.buildingService.getBuilding(village, researchStartData.researchBuildingId);
+            Research research = this.getResearchData(village, researchStartData);
 
-        Research research = this.getResearchData(village, researchStartData);
+            researchBuilding.startResearch(research);
 
-        researchBuilding.startResearch(research);
+            this.villageService.update(village);
 
-        this.villageService.update(village);
-
-        return village;
+            return village;
+        }, villageId);
     }
 
     private Research getResearchData(Village village, ResearchStartData researchStartData) {
@@ -2,20 +2,33 @@ package nl.duckstudios.pintandpillage.controller;
 
 import nl.duckstudios.pintandpillage.Exceptions.SettleConditionsNotMetException;
 import nl.duckstudios.pintandpillage.dao.VillageDAO;
+import nl.duckstudios.pintandpillage.dao.VillageLocks;
 import nl.duckstudios.pintandpillage.entity.Coord;
 import nl.duckstudios.pintandpillage.entity.User;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.entity.VillageUnit;
 import nl.duckstudios.pintandpillage.helper.VillageFactory;
+import nl.duckstudios.pintandpillage.model.LogPage;
+import nl.duckstudios.pintandpillage.model.LogTypes;
 import nl.duckstudios.pintandpillage.model.NewVillageData;
 import nl.duckstudios.pintandpillage.model.UnitType;
+import nl.duckstudios.pintandpillage.model.VillageEvent;
+import nl.duckstudios.pintandpillage.model.VillageEventType;
 import nl.duckstudios.pintandpillage.model.VillageNameChangeData;
+import nl.duckstudios.pintandpillage.model.VillageWriteStats;
 import nl.duckstudios.pintandpillage.service.AccountService;
 import nl.duckstudios.pintandpillage.service.AuthenticationService;
+import nl.duckstudios.pintandpillage.service.VillageEventService;
 import nl.duckstudios.pintandpillage.service.VillageService;
 import nl.duckstudios.pintandpillage.service.WorldService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -23,6 +36,9 @@ import java.util.List;
 @RequestMapping("api/village")
 public class VillageController {
 
+    private static final int MAX_LOG_PAGE_SIZE = 100;
+    private static final int MAX_SPAWN_ATTEMPTS = 3;
+
     private final VillageFactory villageFactory;
     private final VillageDAO villageDAO;
     private final AuthenticationService authenticationService;
@@ -30,41 +46,82 @@ public class VillageController {
     private final VillageService villageService;
 
     private final WorldService worldService;
+    private final VillageLocks villageLocks;
+    private final VillageEventService villageEventService;
 
     public VillageController(VillageFactory villageFactory, VillageDAO villageDAO,
                              AuthenticationService authenticationService,
                              AccountService accountService,
                              VillageService villageService,
-                             WorldService worldService) {
+                             WorldService worldService,
+                             VillageLocks villageLocks,
+                             VillageEventService villageEventService) {
         this.villageFactory = villageFactory;
         this.villageDAO = villageDAO;
         this.authenticationService = authenticationService;
         this.accountService = accountService;
         this.villageService = villageService;
         this.worldService = worldService;
+        this.villageLocks = villageLocks;
+        this.villageEventService = villageEventService;
     }
 
     @RequestMapping(method = RequestMethod.POST)
     @ResponseBody
     public Village createVillage() {
         User user = this.authenticationService.getAuthenticatedUser();
-        Coord coord = this.worldService.getWorldMap().findEmptySpot();
-        Village village = this.villageFactory.createBasicVillage(user, coord);
-        villageDAO.save(village);
-        return village;
+        for (int attempt = 1; attempt <= MAX_SPAWN_ATTEMPTS; attempt++) {
+            Coord coord = this.worldService.reserveSpawnSpot();
+            Village village;
+            try {
+                village = this.villageFactory.createBasicVillage(user, coord);
+                villageDAO.save(village);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance founded a village on the spot before this one heard of it.
+                this.worldService.releaseSpot(coord);
+                continue;
+            } catch (RuntimeException e) {
+                this.worldService.releaseSpot(coord);
+                throw e;
+            }
+            this.worldService.updateVillage(village);
+            this.villageEventService.publish(village, this.createFoundedEvent(village));
+            return village;
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "No free spot for a new village was found, please try again");
     }
 
     @RequestMapping(value = "/{id}", method = RequestMethod.GET)
     @ResponseBody
     public Village getVillage(@PathVariable long id) {
         User user = this.authenticationService.getAuthenticatedUser();
-        Village village = this.villageService.getVillage(id);
+        // Reading stores the constructions that finished since the last read, so it is a change as well.
+        Village village = this.villageLocks.withVillages(() -> this.villageService.getVillage(id), id);
 
         this.accountService.checkIsCorrectUser(user.getId(), village);
 
         return village;
     }
 
+    @RequestMapping(value = "events", method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getEvents() {
+        User user = this.authenticationService.getAuthenticatedUser();
+        return this.villageEventService.subscribe(user.getId());
+    }
+
+    @RequestMapping(value = "/{id}/logs", method = RequestMethod.GET)
+    @ResponseBody
+    public LogPage getLogs(@PathVariable long id,
+                           @RequestParam(defaultValue = "COMBAT_LOG") LogTypes type,
+                           @RequestParam(required = false) String cursor,
+                           @RequestParam(defaultValue = "20") int size) {
+        User user = this.authenticationService.getAuthenticatedUser();
+        // Only the owner is needed, loading the village would bring it up to date and write it.
+        this.accountService.checkIsCorrectUser(user.getId(), this.villageDAO.getOwnerId(id));
+
+        return this.villageService.getLogPage(id, type, cursor, Math.max(1, Math.min(size, MAX_LOG_PAGE_SIZE)));
+    }
+
     @RequestMapping(method = RequestMethod.GET)
     @ResponseBody
     public List<Village> getVillagesFromUser() {
@@ -80,43 +137,69 @@ public class VillageController {
         return villages;
     }
 
+    @RequestMapping(value = "writestats", method = RequestMethod.GET)
+    @ResponseBody
+    public VillageWriteStats getWriteStats() {
+        return new VillageWriteStats(this.villageService.getAvoidedWrites());
+    }
+
     @RequestMapping(value = "changename/{id}", method = RequestMethod.POST)
     @ResponseBody
     public Village changeVillageName(@PathVariable long id, @RequestBody VillageNameChangeData villageNameChangeData) {
         User user = this.authenticationService.getAuthenticatedUser();
-        Village village = this.villageService.getVillage(id);
+        return this.villageLocks.withVillages(() -> {
+            Village village = this.villageService.getVillage(id);
 
-        this.accountService.checkIsCorrectUser(user.getId(), village);
+            this.accountService.checkIsCorrectUser(user.getId(), village);
 
-        village.setName(villageNameChangeData.newName);
+            village.setName(villageNameChangeData.newName);
 
-        this.villageService.update(village);
-        return village;
+            this.villageService.update(village);
+            return village;
+        }, id);
     }
 
     @RequestMapping(value = "startNew", method = RequestMethod.POST)
     @ResponseBody
     public Village startNewVillage(@RequestBody NewVillageData newVillageData) {
         User user = this.authenticationService.getAuthenticatedUser();
-        Village village = this.villageService.getVillage(newVillageData.villageId);
-
-        this.accountService.checkIsCorrectUser(user.getId(), village);
-
-        this.villageService.checkIsValidCreatingSpot(village, newVillageData.newPosition);
-
-        int amountOfJarlsNeeded = this.villageService.getListOfVillagesFromUser(user.getId()).size();
-        VillageUnit jarl = village.getUnitInVillage(UnitType.Jarl);
-
-        if (jarl == null || jarl.getAmount() < amountOfJarlsNeeded) {
-            throw new SettleConditionsNotMetException("Not enough jarls to create this settlement");
-        }
-
-        jarl.setAmount(jarl.getAmount() - amountOfJarlsNeeded);
-
-        Village newVillage = this.villageFactory.createBasicVillage(user, newVillageData.newPosition);
-
-        this.villageService.update(newVillage);
-        return newVillage;
+        return this.villageLocks.withVillages(() -> {
+            Village village = this.villageService.getVillage(newVillageData.villageId);
+
+            this.accountService.checkIsCorrectUser(user.getId(), village);
+
+            this.villageService.checkIsValidCreatingSpot(village, newVillageData.newPosition);
+
+            int amountOfJarlsNeeded = this.villageService.getListOfVillagesFromUser(user.getId()).size();
+            VillageUnit jarl = village.getUnitInVillage(UnitType.Jarl);
+
+            if (jarl == null || jarl.getAmount() < amountOfJarlsNeeded) {
+                throw new SettleConditionsNotMetException("Not enough jarls to create this settlement");
+            }
+
+            if (!this.worldService.reserveSpot(newVillageData.newPosition)) {
+                throw new SettleConditionsNotMetException("This spot is already being settled");
+            }
+
+            Village newVillage;
+            try {
+                jarl.setAmount(jarl.getAmount() - amountOfJarlsNeeded);
+                newVillage = this.villageFactory.createBasicVillage(user, newVillageData.newPosition);
+                this.villageService.update(newVillage);
+            } catch (DataIntegrityViolationException e) {
+                this.worldService.releaseSpot(newVillageData.newPosition);
+                throw new SettleConditionsNotMetException("There already is a village on this spot");
+            } catch (RuntimeException e) {
+                this.worldService.releaseSpot(newVillageData.newPosition);
+                throw e;
+            }
+            this.villageEventService.publish(newVillage, this.createFoundedEvent(newVillage));
+            return newVillage;
+        }, newVillageData.villageId);
     }
 
+    private VillageEvent createFoundedEvent(Village village) {
+        return new VillageEvent(village.getVillageId(), VillageEventType.VILLAGE_CREATED,
+                village.getName() + " was founded", LocalDateTime.now());
+    }
 }
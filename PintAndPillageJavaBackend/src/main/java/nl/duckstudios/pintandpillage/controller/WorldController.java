@@ -1,14 +1,28 @@
 package nl.duckstudios.pintandpillage.controller;
 
+import nl.duckstudios.pintandpillage.dao.VillageLocks;
+import nl.duckstudios.pintandpillage.entity.Coord;
 import nl.duckstudios.pintandpillage.entity.User;
 import nl.duckstudios.pintandpillage.entity.WorldMap;
+import nl.duckstudios.pintandpillage.helper.DiscOffsetTable;
+import nl.duckstudios.pintandpillage.model.EncodedWorldMap;
+import nl.duckstudios.pintandpillage.model.HighscorePage;
+import nl.duckstudios.pintandpillage.model.NearbyTile;
+import nl.duckstudios.pintandpillage.model.NearbyVillage;
 import nl.duckstudios.pintandpillage.model.SettleableSpots;
+import nl.duckstudios.pintandpillage.model.TerrainEncoding;
 import nl.duckstudios.pintandpillage.model.UserHighscore;
+import nl.duckstudios.pintandpillage.model.WorldChunk;
+import nl.duckstudios.pintandpillage.model.WorldInfo;
 import nl.duckstudios.pintandpillage.service.AuthenticationService;
 import nl.duckstudios.pintandpillage.service.HighscoreService;
 import nl.duckstudios.pintandpillage.service.VillageService;
 import nl.duckstudios.pintandpillage.service.WorldService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -16,18 +30,23 @@ import java.util.List;
 @RequestMapping("api/world")
 public class WorldController {
 
+    private static final int MAX_HIGHSCORE_PAGE_SIZE = 100;
+
     private final WorldService worldService;
     private final VillageService villageService;
 
     private final AuthenticationService authenticationService;
 
     private final HighscoreService highscoreService;
+    private final VillageLocks villageLocks;
 
-    public WorldController(WorldService worldService, VillageService villageService, AuthenticationService authenticationService, HighscoreService highscoreService) {
+    public WorldController(WorldService worldService, VillageService villageService, AuthenticationService authenticationService,
+                           HighscoreService highscoreService, VillageLocks villageLocks) {
         this.worldService = worldService;
         this.villageService = villageService;
         this.authenticationService = authenticationService;
         this.highscoreService = highscoreService;
+        this.villageLocks = villageLocks;
     }
 
     @RequestMapping(method = RequestMethod.GET)
@@ -36,12 +55,64 @@ public class WorldController {
         return this.worldService.getWorldMap();
     }
 
+    @RequestMapping(method = RequestMethod.GET, params = "encoding")
+    @ResponseBody
+    public EncodedWorldMap getEncodedWorld(@RequestParam String encoding) {
+        TerrainEncoding terrainEncoding;
+        try {
+            terrainEncoding = TerrainEncoding.valueOf(encoding);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown world encoding " + encoding);
+        }
+        return this.worldService.getEncodedWorldMap(terrainEncoding);
+    }
+
+    @RequestMapping(value = "info", method = RequestMethod.GET)
+    @ResponseBody
+    public WorldInfo getWorldInfo() {
+        return this.worldService.getWorldInfo();
+    }
+
+    @RequestMapping(value = "chunk/{chunkX}/{chunkY}", method = RequestMethod.GET)
+    public ResponseEntity<WorldChunk> getChunk(@PathVariable int chunkX, @PathVariable int chunkY, WebRequest request) {
+        String eTag = this.worldService.getChunkETag(chunkX, chunkY);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        WorldChunk chunk = this.worldService.getChunk(chunkX, chunkY);
+        return ResponseEntity.ok()
+                .eTag(this.worldService.getChunkETag(chunk))
+                .body(chunk);
+    }
+
+    @RequestMapping(value = "nearby/villages", method = RequestMethod.GET)
+    @ResponseBody
+    public List<NearbyVillage> getNearbyVillages(@RequestParam int x, @RequestParam int y, @RequestParam int radius) {
+        this.checkIsValidRadius(radius);
+        return this.worldService.getVillagesWithinDistance(new Coord(x, y), radius);
+    }
+
+    @RequestMapping(value = "nearby/tiles", method = RequestMethod.GET)
+    @ResponseBody
+    public List<NearbyTile> getNearbyTiles(@RequestParam int x, @RequestParam int y, @RequestParam int radius) {
+        this.checkIsValidRadius(radius);
+        return this.worldService.getTilesWithinDistance(new Coord(x, y), radius);
+    }
+
+    private void checkIsValidRadius(int radius) {
+        if (radius < 0 || radius > DiscOffsetTable.MAX_RADIUS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The radius must be between 0 and " + DiscOffsetTable.MAX_RADIUS);
+        }
+    }
+
     @RequestMapping(value = "settlespots/{id}", method = RequestMethod.GET)
     @ResponseBody
     public SettleableSpots getSettleableSpots(@PathVariable long id) {
         User user = this.authenticationService.getAuthenticatedUser();
 
-        return this.worldService.getSettleableSpots(id, user);
+        // Reading the village writes its state transitions, so it is read under its lock like any change.
+        return this.villageLocks.withVillages(() -> this.worldService.getSettleableSpots(id, user), id);
     }
 
     @RequestMapping(value = "highscore", method = RequestMethod.GET)
@@ -49,4 +120,21 @@ public class WorldController {
     public List<UserHighscore> getHighscore() {
         return this.highscoreService.getHighscore();
     }
+
+    @RequestMapping(value = "highscore/page", method = RequestMethod.GET)
+    @ResponseBody
+    public HighscorePage getHighscorePage(@RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "25") int size) {
+        if (page < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The page can not be negative");
+        }
+        return this.highscoreService.getHighscorePage(page, Math.max(1, Math.min(size, MAX_HIGHSCORE_PAGE_SIZE)));
+    }
+
+    @RequestMapping(value = "highscore/me", method = RequestMethod.GET)
+    @ResponseBody
+    public UserHighscore getOwnHighscore() {
+        User user = this.authenticationService.getAuthenticatedUser();
+        return this.highscoreService.getHighscore(user.getId());
+    }
 }
@@ -0,0 +1,22 @@
+package nl.duckstudios.pintandpillage.dao;
+
+import nl.duckstudios.pintandpillage.entity.logs.LogLine;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface LogRepository extends JpaRepository<LogLine, Long> {
+
+    List<LogLine> findByVillageVillageIdAndTypeOrderByDateDescIdDesc(long villageId, String type, Pageable pageable);
+
+    @Query("select l from Logs l where l.village.villageId = :villageId and l.type = :type " +
+            "and (l.date < :date or (l.date = :date and l.id < :id)) order by l.date desc, l.id desc")
+    List<LogLine> findPageBefore(@Param("villageId") long villageId, @Param("type") String type,
+                                 @Param("date") LocalDateTime date, @Param("id") long id, Pageable pageable);
+}
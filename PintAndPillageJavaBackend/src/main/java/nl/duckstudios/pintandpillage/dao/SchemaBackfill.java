@@ -0,0 +1,100 @@
+package nl.duckstudios.pintandpillage.dao;
+
+import nl.duckstudios.pintandpillage.model.ResourceType;
+import nl.duckstudios.pintandpillage.model.UnitType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Copies data that moved to new columns out of the tables it was stored in before. The schema update only adds the
+ * new columns, so this runs right after it, before anything loads an entity. Every backfill only touches rows whose
+ * new columns are still empty and can run on every start. Columns that are not mapped anymore are dropped.
+ */
+@Component
+public class SchemaBackfill {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Taking the entity manager factory makes sure the schema update has run first.
+    public SchemaBackfill(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        this.backfillResources("villages", "village_id", "village_village_resources",
+                "village_village_id", "village_resources_key", "village_resources");
+        this.backfillResources("research", "id", "research_resources_required_to_research",
+                "research_id", "resources_required_to_research_key", "resources_required_to_research");
+        this.backfillUnitTypes("village_unit", "unit_id");
+        this.backfillUnitTypes("production_items", "unit_to_produce_id");
+        this.dropUnmappedColumn("villages", "village_points_cached");
+    }
+
+    /**
+     * Drops a column no entity maps anymore. The schema update leaves it in place, and its not null constraint would
+     * make every insert fail.
+     */
+    void dropUnmappedColumn(String table, String column) {
+        this.jdbcTemplate.execute("alter table if exists " + table + " drop column if exists " + column);
+    }
+
+    /**
+     * Fills the resource vector columns of the table from the resource map that was stored as an element collection.
+     */
+    int backfillResources(String table, String idColumn, String collectionTable, String joinColumn,
+                          String keyColumn, String valueColumn) {
+        if (!this.isExistingTable(collectionTable)) {
+            return 0;
+        }
+
+        String resources = "from " + collectionTable + " r where r." + joinColumn + " = t." + idColumn;
+        StringBuilder sql = new StringBuilder("update " + table + " t set ");
+        StringBuilder storedTypes = new StringBuilder("(select coalesce(sum(case r." + keyColumn);
+        for (ResourceType type : ResourceType.values()) {
+            sql.append(type.name().toLowerCase()).append(" = coalesce((select r.").append(valueColumn).append(' ')
+                    .append(resources).append(" and r.").append(keyColumn).append(" = '").append(type.name())
+                    .append("'), 0), ");
+            storedTypes.append(" when '").append(type.name()).append("' then ").append(1 << type.ordinal());
+        }
+        storedTypes.append(" else 0 end), 0) ").append(resources).append(')');
+        sql.append("stored_types = ").append(storedTypes)
+                .append(" where t.stored_types is null and exists (select 1 ").append(resources).append(')');
+
+        return this.jdbcTemplate.update(sql.toString());
+    }
+
+    /**
+     * Fills the unit type column of the table from the unit row it referred to when units were stored as entities.
+     * That row kept the type as the ordinal of the unit name.
+     */
+    int backfillUnitTypes(String table, String unitColumn) {
+        if (!this.isExistingTable("unit") || !this.isExistingColumn(table, unitColumn)) {
+            return 0;
+        }
+
+        StringBuilder sql = new StringBuilder("update " + table + " t set unit_type = case u.unit_name");
+        for (UnitType type : UnitType.values()) {
+            sql.append(" when ").append(type.ordinal()).append(" then '").append(type.name()).append('\'');
+        }
+        sql.append(" end from unit u where u.id = t.").append(unitColumn).append(" and t.unit_type is null");
+
+        return this.jdbcTemplate.update(sql.toString());
+    }
+
+    private boolean isExistingColumn(String table, String column) {
+        Integer columns = this.jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.columns where table_name = ? and column_name = ?",
+                Integer.class, table, column);
+        return columns != null && columns > 0;
+    }
+
+    private boolean isExistingTable(String table) {
+        Integer tables = this.jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where table_name = ?", Integer.class, table);
+        return tables != null && tables > 0;
+    }
+}
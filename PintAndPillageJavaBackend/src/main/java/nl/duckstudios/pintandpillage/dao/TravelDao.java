@@ -1,13 +1,25 @@
 package nl.duckstudios.pintandpillage.dao;
 
 import nl.duckstudios.pintandpillage.entity.travels.AttackCombatTravel;
+import nl.duckstudios.pintandpillage.entity.travels.CombatTravel;
+import nl.duckstudios.pintandpillage.entity.travels.Travel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
 
 @Component
 public class TravelDao {
 
     private final TravelRepository travelRepository;
 
+    @Value("${travels.lease-seconds:60}")
+    private int leaseSeconds = 60;
+
     public TravelDao(TravelRepository travelRepository) {
         this.travelRepository = travelRepository;
     }
@@ -17,4 +29,44 @@ public class TravelDao {
         this.travelRepository.save(travel);
     }
 
+    /**
+     * Claims travels that arrived at the given time and are not claimed by another instance yet, earliest arrival
+     * first. The claim is committed right away and expires after the lease, so the travels of an instance that went
+     * down during resolving are picked up again by another one.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Long> claimArrivedTravels(LocalDateTime time, int amount) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = this.travelRepository.lockUnclaimedArrivedIds(time, now, amount).stream()
+                .map(Number::longValue)
+                .toList();
+        if (!ids.isEmpty()) {
+            this.travelRepository.claim(ids, now.plusSeconds(this.leaseSeconds));
+        }
+        return ids;
+    }
+
+    /**
+     * Hands a claimed travel back right away, so it is picked up again on the next run instead of after the lease.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void releaseClaim(long id) {
+        this.travelRepository.releaseClaim(id);
+    }
+
+    public List<CombatTravel> getTravels(List<Long> ids) {
+        return this.travelRepository.findAllById(ids).stream()
+                .filter(CombatTravel.class::isInstance)
+                .map(CombatTravel.class::cast)
+                .sorted(Comparator.comparing(Travel::getTimeOfArrival))
+                .toList();
+    }
+
+    public CombatTravel getTravel(long id) {
+        return this.travelRepository.findById(id)
+                .filter(CombatTravel.class::isInstance)
+                .map(CombatTravel.class::cast)
+                .orElse(null);
+    }
+
 }
@@ -2,9 +2,32 @@ package nl.duckstudios.pintandpillage.dao;
 
 import nl.duckstudios.pintandpillage.entity.travels.Travel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface TravelRepository extends JpaRepository<Travel, Long> {
     void deleteById(long id);
+
+    // Rows locked by another instance are skipped instead of waited for, so instances never claim the same travel.
+    @Query(value = "select t.id from travel t " +
+            "where t.dtype in ('AttackCombatTravel', 'ReturningCombatTravel') and t.time_of_arrival <= :time " +
+            "and (t.claimed_until is null or t.claimed_until < :now) " +
+            "order by t.time_of_arrival, t.id limit :amount for update skip locked", nativeQuery = true)
+    List<Number> lockUnclaimedArrivedIds(@Param("time") LocalDateTime time, @Param("now") LocalDateTime now,
+                                         @Param("amount") int amount);
+
+    @Modifying
+    @Query("update Travel t set t.claimedUntil = :claimedUntil where t.id in :ids")
+    void claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    @Modifying
+    @Query("update Travel t set t.claimedUntil = null where t.id = :id")
+    void releaseClaim(@Param("id") long id);
 }
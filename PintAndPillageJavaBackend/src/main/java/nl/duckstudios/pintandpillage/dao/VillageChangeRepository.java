@@ -0,0 +1,23 @@
+package nl.duckstudios.pintandpillage.dao;
+
+import nl.duckstudios.pintandpillage.entity.events.VillageChangeRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface VillageChangeRepository extends JpaRepository<VillageChangeRecord, Long> {
+
+    List<VillageChangeRecord> findByCreatedAtAfterAndInstanceIdNotOrderById(LocalDateTime createdAfter, String instanceId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from VillageChangeRecord r where r.createdAt < :createdBefore")
+    int deleteCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore);
+}
@@ -1,22 +1,40 @@
 package nl.duckstudios.pintandpillage.dao;
 
 import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.model.WorldVillage;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
+import javax.persistence.LockModeType;
 import java.util.List;
 
 @Component
 public class VillageDAO {
 
     private final VillageRepository villageRepository;
+    private final EntityManager entityManager;
 
-    public VillageDAO(VillageRepository villageRepository) {
+    public VillageDAO(VillageRepository villageRepository, EntityManager entityManager) {
         this.villageRepository = villageRepository;
+        this.entityManager = entityManager;
     }
 
+    /**
+     * Saves the village and raises its version, also when only its units, buildings or travels changed. Those
+     * collections are owned by the other side, so changing them would not touch the village row, and a concurrent
+     * write to the same units would not be noticed.
+     */
+    @Transactional
     public Village save(Village village) {
-        return this.villageRepository.save(village);
+        if (village.getVillageId() == 0) {
+            // Inserted right away, so a spot that another instance took fails here instead of at the commit.
+            return this.villageRepository.saveAndFlush(village);
+        }
+        Village savedVillage = this.villageRepository.save(village);
+        this.entityManager.lock(savedVillage, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        return savedVillage;
     }
 
     public Village getVillage(long id) {
@@ -24,12 +42,24 @@ public class VillageDAO {
                 .orElseThrow(EntityNotFoundException::new);
     }
 
+    /**
+     * Returns the id of the user owning the village, without loading the village itself.
+     */
+    public long getOwnerId(long id) {
+        return this.villageRepository.findUserIdByVillageId(id)
+                .orElseThrow(EntityNotFoundException::new);
+    }
+
     public List<Village> getVillages(long id) {
         return this.villageRepository.findByUserId(id);
     }
 
-    public List<Village> getVillages() {
-        return this.villageRepository.findAll();
+    public List<WorldVillage> getWorldVillages() {
+        return this.villageRepository.findWorldVillages();
+    }
+
+    public WorldVillage getWorldVillage(long id) {
+        return this.villageRepository.findWorldVillage(id).orElse(null);
     }
 
     // ✅ Nieuwe methode zodat Seeder kan checken of een user villages heeft
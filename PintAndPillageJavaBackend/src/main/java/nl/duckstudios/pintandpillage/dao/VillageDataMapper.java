@@ -3,26 +3,49 @@ package nl.duckstudios.pintandpillage.dao;
 import nl.duckstudios.pintandpillage.entity.Coord;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.entity.buildings.Building;
+import nl.duckstudios.pintandpillage.entity.logs.LogLine;
+import nl.duckstudios.pintandpillage.model.LogPage;
+import nl.duckstudios.pintandpillage.model.LogTypes;
+import nl.duckstudios.pintandpillage.model.VillageChange;
+import nl.duckstudios.pintandpillage.model.VillageEvent;
 import nl.duckstudios.pintandpillage.model.WorldVillage;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class VillageDataMapper {
 
     private final VillageDAO villageDAO;
+    private final VillageLogStore villageLogStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicLong avoidedWrites = new AtomicLong();
 
-    public VillageDataMapper(VillageDAO villageDAO) {
+    public VillageDataMapper(VillageDAO villageDAO, VillageLogStore villageLogStore,
+                             ApplicationEventPublisher eventPublisher) {
         this.villageDAO = villageDAO;
+        this.villageLogStore = villageLogStore;
+        this.eventPublisher = eventPublisher;
     }
 
     public Village getVillage(long id) {
         Village village = villageDAO.getVillage(id);
         village.updateVillageState();
 
-        return this.villageDAO.save(village);
+        // Collected resources, morale and production progress are derived from the stored timestamps again on
+        // the next read, so only a real state transition has to be written.
+        if (!village.hasStateTransitioned()) {
+            this.avoidedWrites.incrementAndGet();
+            return this.withRecentLogs(village);
+        }
+        village.clearStateTransitioned();
+        return this.save(village);
+    }
+
+    public long getAvoidedWrites() {
+        return this.avoidedWrites.get();
     }
 
     public List<Village> getVillages(long id) {
@@ -34,34 +57,61 @@ public class VillageDataMapper {
         building.levelUp();
         village.createBuilding(building);
         village.updateVillageState();
-        return villageDAO.save(village);
+        return this.save(village);
     }
 
     public Village demolishBuilding(Village village, long buildingId) {
         if (!village.demolishBuilding(buildingId)) {
             return village;
         }
-        return villageDAO.save(village); // REFACTOR (ITSTEN H2): Persist demolition without reintroducing resource refunds.
+        return this.save(village); // REFACTOR (ITSTEN H2): Persist demolition without reintroducing resource refunds.
     }
 
     public void update(Village village) {
-        this.villageDAO.save(village);
+        this.save(village);
     }
 
-    public List<WorldVillage> getWorldVillages() {
-        List<Village> allVillages = this.villageDAO.getVillages();
-        List<WorldVillage> worldVillages = new ArrayList<>();
-        for (Village village : allVillages) {
-            worldVillages.add(new WorldVillage(
-                    village.getVillageId(),
-                    village.getUser().getUsername(),
-                    new Coord(village.getPositionX(), village.getPositionY()),
-                    village.getName(),
-                    village.getUser().getId(),
-                    village.getVillagePoints()
-            ));
+    public LogPage getLogPage(long villageId, LogTypes type, String cursor, int size) {
+        return this.villageLogStore.getPage(villageId, type, cursor, size);
+    }
+
+    private Village save(Village village) {
+        List<LogLine> newLogLines = village.takePendingLogLines();
+        List<VillageEvent> events = village.takePendingEvents();
+        Village savedVillage = this.villageDAO.save(village);
+        this.villageLogStore.append(newLogLines);
+        if (savedVillage.getUser() != null) {
+            this.eventPublisher.publishEvent(new VillageChange(savedVillage.getVillageId(), savedVillage.getUser().getId(),
+                    events, savedVillage.getNextTransitionTime()));
         }
+        return this.withRecentLogs(savedVillage);
+    }
+
+    private Village withRecentLogs(Village village) {
+        village.setVillageLog(this.villageLogStore.getRecent(village.getVillageId(), LogTypes.VILLAGE_LOG));
+        village.setCombatLog(this.villageLogStore.getRecent(village.getVillageId(), LogTypes.COMBAT_LOG));
+        return village;
+    }
+
+    /**
+     * Reads the world map fields of every village in one query, without loading the villages themselves.
+     */
+    public List<WorldVillage> getWorldVillages() {
+        return this.villageDAO.getWorldVillages();
+    }
+
+    public WorldVillage getWorldVillage(long id) {
+        return this.villageDAO.getWorldVillage(id);
+    }
 
-        return worldVillages;
+    public WorldVillage toWorldVillage(Village village) {
+        return new WorldVillage(
+                village.getVillageId(),
+                village.getUser().getUsername(),
+                new Coord(village.getPositionX(), village.getPositionY()),
+                village.getName(),
+                village.getUser().getId(),
+                village.getVillagePoints()
+        );
     }
 }
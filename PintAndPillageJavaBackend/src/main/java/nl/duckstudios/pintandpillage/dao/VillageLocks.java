@@ -0,0 +1,74 @@
+package nl.duckstudios.pintandpillage.dao;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.persistence.EntityManager;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs changes to villages one at a time per village. Every village id maps onto one of a fixed set of locks, so
+ * requests for the same village wait for each other while other villages go ahead in parallel. Changes that still
+ * collide with a write from elsewhere, like another instance or the travel scheduler, fail on the version of the
+ * village and are run again on freshly loaded villages.
+ * <p>
+ * Every attempt runs in a transaction of its own and starts with an empty persistence context, so villages that were
+ * loaded before the lock was taken, like the ones of the authenticated user, are read again under the lock instead of
+ * being reused. Entities loaded before the change are detached by it, so only their ids should be used inside the
+ * change. An attempt that fails is rolled back as a whole, so the next attempt never builds on half of a change.
+ */
+@Component
+public class VillageLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int maxAttempts;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public VillageLocks(EntityManager entityManager, TransactionTemplate transactionTemplate,
+                        @Value("${villages.lock-stripes:64}") int stripes,
+                        @Value("${villages.max-attempts:3}") int maxAttempts) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withVillages(Supplier<T> change, long... villageIds) {
+        // Locks are always taken in the same order, so two changes on the same pair of villages can't deadlock.
+        int[] stripeIndexes = Arrays.stream(villageIds)
+                .mapToInt(id -> Math.floorMod(Long.hashCode(id), this.stripes.length))
+                .distinct()
+                .sorted()
+                .toArray();
+
+        for (int attempt = 1; ; attempt++) {
+            for (int stripeIndex : stripeIndexes) {
+                this.stripes[stripeIndex].lock();
+            }
+            try {
+                return this.transactionTemplate.execute(status -> {
+                    this.entityManager.clear();
+                    return change.get();
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= this.maxAttempts) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "The village was changed at the same time, please try again");
+                }
+            } finally {
+                for (int i = stripeIndexes.length - 1; i >= 0; i--) {
+                    this.stripes[stripeIndexes[i]].unlock();
+                }
+            }
+        }
+    }
+}
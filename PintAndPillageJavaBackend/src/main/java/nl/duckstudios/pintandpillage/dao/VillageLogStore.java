@@ -0,0 +1,159 @@
+package nl.duckstudios.pintandpillage.dao;
+
+import nl.duckstudios.pintandpillage.entity.logs.LogLine;
+import nl.duckstudios.pintandpillage.helper.RingBuffer;
+import nl.duckstudios.pintandpillage.model.LogEntry;
+import nl.duckstudios.pintandpillage.model.LogPage;
+import nl.duckstudios.pintandpillage.model.LogTypes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only store of the village and combat logs. The latest lines of recently viewed villages are kept in a ring
+ * buffer, older lines are read page by page from the logs table.
+ * <p>
+ * The buffers only see the lines appended on this instance. Lines written by other instances show up once a buffer
+ * expires after logs.recent-seconds and is read from the table again. Villages that are not viewed for a while are
+ * dropped once more than logs.cached-villages buffers are kept.
+ */
+@Component
+public class VillageLogStore {
+
+    private static final String CURSOR_SEPARATOR = "_";
+
+    private final LogRepository logRepository;
+    private final Map<String, RecentLogs> recentLogs = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RecentLogs> eldest) {
+            return this.size() > cachedVillages * LogTypes.values().length;
+        }
+    };
+
+    @Value("${logs.retention:3}")
+    private int retention = 3;
+
+    @Value("${logs.recent-seconds:5}")
+    private long recentSeconds = 5;
+
+    @Value("${logs.cached-villages:1000}")
+    private int cachedVillages = 1000;
+
+    public VillageLogStore(LogRepository logRepository) {
+        this.logRepository = logRepository;
+    }
+
+    public void append(List<LogLine> logLines) {
+        if (logLines.isEmpty()) {
+            return;
+        }
+        this.logRepository.saveAll(logLines);
+        List<LogEntry> entries = logLines.stream()
+                .map(LogEntry::new)
+                .collect(Collectors.toList());
+        List<Long> villageIds = logLines.stream()
+                .map(logLine -> logLine.getVillage().getVillageId())
+                .collect(Collectors.toList());
+
+        // Lines of a rolled back save never reach the buffers.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addToBuffers(villageIds, entries);
+                }
+            });
+        } else {
+            this.addToBuffers(villageIds, entries);
+        }
+    }
+
+    /**
+     * Lists the latest lines of a village from oldest to newest, at most the retention amount.
+     */
+    public List<LogEntry> getRecent(long villageId, LogTypes type) {
+        String key = this.getKey(villageId, type.name());
+        synchronized (this.recentLogs) {
+            RecentLogs buffer = this.recentLogs.get(key);
+            if (buffer != null && !buffer.isExpired()) {
+                return buffer.lines.toList();
+            }
+        }
+
+        RecentLogs buffer = new RecentLogs(this.retention, System.nanoTime() + this.recentSeconds * 1_000_000_000L);
+        List<LogLine> stored = this.logRepository.findByVillageVillageIdAndTypeOrderByDateDescIdDesc(
+                villageId, type.name(), PageRequest.of(0, this.retention));
+        Collections.reverse(stored);
+        stored.forEach(logLine -> buffer.lines.add(new LogEntry(logLine)));
+        synchronized (this.recentLogs) {
+            this.recentLogs.put(key, buffer);
+        }
+        return buffer.lines.toList();
+    }
+
+    public LogPage getPage(long villageId, LogTypes type, String cursor, int size) {
+        PageRequest page = PageRequest.of(0, size);
+        List<LogLine> logLines;
+        if (cursor == null || cursor.isEmpty()) {
+            logLines = this.logRepository.findByVillageVillageIdAndTypeOrderByDateDescIdDesc(villageId, type.name(), page);
+        } else {
+            String[] parts = cursor.split(CURSOR_SEPARATOR);
+            try {
+                logLines = this.logRepository.findPageBefore(villageId, type.name(),
+                        LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]), page);
+            } catch (DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid log cursor");
+            }
+        }
+
+        String nextCursor = null;
+        if (logLines.size() == size) {
+            LogLine last = logLines.get(logLines.size() - 1);
+            nextCursor = last.getDate() + CURSOR_SEPARATOR + last.getId();
+        }
+        return new LogPage(logLines.stream().map(LogEntry::new).collect(Collectors.toList()), nextCursor);
+    }
+
+    // Only buffers that are already kept get the new lines, a village without one reads them from the table.
+    private void addToBuffers(List<Long> villageIds, List<LogEntry> entries) {
+        synchronized (this.recentLogs) {
+            for (int i = 0; i < entries.size(); i++) {
+                LogEntry entry = entries.get(i);
+                RecentLogs buffer = this.recentLogs.get(this.getKey(villageIds.get(i), entry.type));
+                if (buffer != null) {
+                    buffer.lines.add(entry);
+                }
+            }
+        }
+    }
+
+    private String getKey(long villageId, String type) {
+        return villageId + CURSOR_SEPARATOR + type;
+    }
+
+    private static class RecentLogs {
+        private final RingBuffer<LogEntry> lines;
+        private final long expiresAt;
+
+        private RecentLogs(int retention, long expiresAt) {
+            this.lines = new RingBuffer<>(retention);
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - this.expiresAt >= 0;
+        }
+    }
+}
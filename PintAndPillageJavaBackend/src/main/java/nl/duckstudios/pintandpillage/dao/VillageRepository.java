@@ -1,13 +1,28 @@
 package nl.duckstudios.pintandpillage.dao;
 
 import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.model.WorldVillage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface VillageRepository extends JpaRepository<Village, Long> {
     List<Village> findByUserId(long id);
 
+    @Query("select new nl.duckstudios.pintandpillage.model.WorldVillage(v.villageId, u.username, v.positionX, " +
+            "v.positionY, v.name, u.id, v.villagePoints) from Village v join v.user u")
+    List<WorldVillage> findWorldVillages();
+
+    @Query("select new nl.duckstudios.pintandpillage.model.WorldVillage(v.villageId, u.username, v.positionX, " +
+            "v.positionY, v.name, u.id, v.villagePoints) from Village v join v.user u where v.villageId = :id")
+    Optional<WorldVillage> findWorldVillage(@Param("id") long id);
+
+    @Query("select v.user.id from Village v where v.villageId = :id")
+    Optional<Long> findUserIdByVillageId(@Param("id") long id);
+
 }
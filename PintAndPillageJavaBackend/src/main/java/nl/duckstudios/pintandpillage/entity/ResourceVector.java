@@ -0,0 +1,201 @@
+package nl.duckstudios.pintandpillage.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import nl.duckstudios.pintandpillage.model.ResourceType;
+
+import javax.persistence.Access;
+import javax.persistence.AccessType;
+import javax.persistence.Embeddable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An amount for every resource type, indexed by the ordinal of the type. Only the types that were given an amount
+ * are part of the vector, so it serializes to the same map of resource names as before.
+ */
+@Embeddable
+@Access(AccessType.PROPERTY)
+public class ResourceVector {
+
+    private static final ResourceType[] TYPES = ResourceType.values();
+
+    private final int[] amounts = new int[TYPES.length];
+    // Bit per ordinal of the types that are part of this vector.
+    private int storedTypes;
+    // Shared vectors, like the cost of a unit, are handed out read only.
+    private boolean readOnly;
+
+    public ResourceVector() {
+    }
+
+    @JsonCreator
+    public static ResourceVector of(Map<String, Integer> resources) {
+        ResourceVector vector = new ResourceVector();
+        resources.forEach((type, amount) -> vector.set(ResourceType.valueOf(type), amount));
+        return vector;
+    }
+
+    public ResourceVector with(ResourceType type, int amount) {
+        this.set(type, amount);
+        return this;
+    }
+
+    public int get(ResourceType type) {
+        return this.amounts[type.ordinal()];
+    }
+
+    public void set(ResourceType type, int amount) {
+        this.checkWritable();
+        this.amounts[type.ordinal()] = amount;
+        this.storedTypes |= 1 << type.ordinal();
+    }
+
+    public boolean contains(ResourceType type) {
+        return (this.storedTypes & (1 << type.ordinal())) != 0;
+    }
+
+    public int amountOfTypes() {
+        return Integer.bitCount(this.storedTypes);
+    }
+
+    /**
+     * Checks that every resource of the cost is available more than the given number of times.
+     */
+    public boolean hasMoreThan(ResourceVector cost, int times) {
+        for (int i = 0; i < this.amounts.length; i++) {
+            if ((cost.storedTypes & (1 << i)) != 0 && this.amounts[i] <= cost.amounts[i] * times) return false;
+        }
+        return true;
+    }
+
+    public ResourceVector minus(ResourceVector other) {
+        ResourceVector result = this.copy();
+        for (int i = 0; i < this.amounts.length; i++) {
+            result.amounts[i] -= other.amounts[i];
+        }
+        result.storedTypes |= other.storedTypes;
+        return result;
+    }
+
+    /**
+     * Adds the other amounts, without going over the capacity for types that still have room left.
+     */
+    public ResourceVector plus(ResourceVector other, int capacity) {
+        ResourceVector result = this.copy();
+        for (int i = 0; i < this.amounts.length; i++) {
+            int capacityLeft = Math.max(0, capacity - this.amounts[i]);
+            result.amounts[i] += Math.min(capacityLeft, Math.max(0, other.amounts[i]));
+        }
+        result.storedTypes |= other.storedTypes;
+        return result;
+    }
+
+    public ResourceVector dividedBy(int divisor) {
+        ResourceVector result = this.copy();
+        for (int i = 0; i < this.amounts.length; i++) {
+            result.amounts[i] /= divisor;
+        }
+        return result;
+    }
+
+    public ResourceVector copy() {
+        ResourceVector copy = new ResourceVector();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Returns a copy that throws when it is changed. Copies of it and the results of calculating with it can be
+     * changed again.
+     */
+    public ResourceVector readOnlyCopy() {
+        ResourceVector copy = this.copy();
+        copy.readOnly = true;
+        return copy;
+    }
+
+    public void copyFrom(ResourceVector other) {
+        this.checkWritable();
+        System.arraycopy(other.amounts, 0, this.amounts, 0, this.amounts.length);
+        this.storedTypes = other.storedTypes;
+    }
+
+    @JsonValue
+    public Map<String, Integer> toMap() {
+        Map<String, Integer> map = new LinkedHashMap<>();
+        for (ResourceType type : TYPES) {
+            if (this.contains(type)) {
+                map.put(type.name(), this.get(type));
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return this.toMap().toString();
+    }
+
+    // The properties below map the vector onto one column per resource type.
+
+    public int getWood() {
+        return this.amounts[ResourceType.Wood.ordinal()];
+    }
+
+    public void setWood(int wood) {
+        this.checkWritable();
+        this.amounts[ResourceType.Wood.ordinal()] = wood;
+    }
+
+    public int getStone() {
+        return this.amounts[ResourceType.Stone.ordinal()];
+    }
+
+    public void setStone(int stone) {
+        this.checkWritable();
+        this.amounts[ResourceType.Stone.ordinal()] = stone;
+    }
+
+    public int getHop() {
+        return this.amounts[ResourceType.Hop.ordinal()];
+    }
+
+    public void setHop(int hop) {
+        this.checkWritable();
+        this.amounts[ResourceType.Hop.ordinal()] = hop;
+    }
+
+    public int getBeer() {
+        return this.amounts[ResourceType.Beer.ordinal()];
+    }
+
+    public void setBeer(int beer) {
+        this.checkWritable();
+        this.amounts[ResourceType.Beer.ordinal()] = beer;
+    }
+
+    public int getCharcoal() {
+        return this.amounts[ResourceType.Charcoal.ordinal()];
+    }
+
+    public void setCharcoal(int charcoal) {
+        this.checkWritable();
+        this.amounts[ResourceType.Charcoal.ordinal()] = charcoal;
+    }
+
+    public int getStoredTypes() {
+        return this.storedTypes;
+    }
+
+    public void setStoredTypes(int storedTypes) {
+        this.checkWritable();
+        this.storedTypes = storedTypes;
+    }
+
+    private void checkWritable() {
+        if (this.readOnly) {
+            throw new UnsupportedOperationException("This resource vector is read only");
+        }
+    }
+}
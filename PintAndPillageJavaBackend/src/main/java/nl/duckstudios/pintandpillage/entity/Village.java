@@ -1,5 +1,6 @@
 package nl.duckstudios.pintandpillage.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -13,18 +14,25 @@ import nl.duckstudios.pintandpillage.entity.production.Unit;
 import nl.duckstudios.pintandpillage.entity.researching.*;
 import nl.duckstudios.pintandpillage.entity.travels.AttackCombatTravel;
 import nl.duckstudios.pintandpillage.entity.travels.ReturningCombatTravel;
+import nl.duckstudios.pintandpillage.helper.CombatEngine;
+import nl.duckstudios.pintandpillage.helper.GameCatalog;
+import nl.duckstudios.pintandpillage.helper.ResourceLedger;
 import nl.duckstudios.pintandpillage.model.BuildPosition;
+import nl.duckstudios.pintandpillage.model.LogEntry;
 import nl.duckstudios.pintandpillage.model.ResearchType;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 import nl.duckstudios.pintandpillage.model.UnitType;
-import org.hibernate.annotations.Where;
+import nl.duckstudios.pintandpillage.model.VillageEvent;
+import nl.duckstudios.pintandpillage.model.VillageEventType;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.*;
 
 @Entity
-@Table(name = "Villages")
+// Instances reserve spawn spots on their own, the database makes sure two villages never end up on one tile.
+@Table(name = "Villages", uniqueConstraints = @UniqueConstraint(name = "uk_villages_position",
+        columnNames = {"position_x", "position_y"}))
 public class Village {
 
     @Getter
@@ -33,6 +41,12 @@ public class Village {
     @GeneratedValue(strategy = GenerationType.AUTO)
     private long villageId;
 
+    // Rows written before versioning start at 0.
+    @Version
+    @JsonIgnore
+    @Column(columnDefinition = "bigint default 0 not null")
+    private long version;
+
     @Getter
     @Setter
     private String name;
@@ -64,10 +78,6 @@ public class Village {
     @Setter
     private int villagePoints = 100;
 
-    @Getter
-    @Setter
-    private int villagePointsCached;
-
     @Getter
     @Setter
     private int population = 0;
@@ -85,35 +95,30 @@ public class Village {
     private int resourceLimit = 0;
 
     @Getter
-    @Setter
     @OneToMany(mappedBy = "village")
     @JsonManagedReference
     private List<Research> completedResearches = new ArrayList<>();
 
-    @Getter
-    @Setter
     @Transient
-    @JsonSerialize
-    @JsonDeserialize
     private List<Research> availableResearches;
 
-    @Setter
     @Getter
     @OneToMany(mappedBy = "village", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     private Set<VillageUnit> unitsInVillage = new HashSet<>();
 
+    // The units in the village by type, built from unitsInVillage the first time a unit is looked up.
+    @Transient
+    private EnumMap<UnitType, VillageUnit> unitIndex;
 
-    @Getter
-    @Setter
-    @ElementCollection
-    private Map<String, Integer> villageResources = new HashMap<>() {
-        {
-            put(ResourceType.Stone.name(), 500);
-            put(ResourceType.Wood.name(), 500);
-            put(ResourceType.Beer.name(), 500);
-        }
-    };
+    // The amounts stored at resourcesUpdatedAt, the current amounts follow from the production since then.
+    @Embedded
+    private ResourceVector villageResources = new ResourceVector()
+            .with(ResourceType.Stone, 500)
+            .with(ResourceType.Wood, 500)
+            .with(ResourceType.Beer, 500);
+
+    private LocalDateTime resourcesUpdatedAt = LocalDateTime.now();
 
     @Getter
     @Setter
@@ -126,15 +131,6 @@ public class Village {
     @JsonManagedReference
     private Set<Building> buildings;
 
-    @Transient
-    @Getter
-    @Setter
-    private BuildPosition[] validBuildPositions;
-
-    @Transient
-    @Getter
-    @Setter
-    private List<Building> buildingsThatCanBeBuild;
 
     @Getter
     @Setter
@@ -158,37 +154,179 @@ public class Village {
     @Setter
     private int totalDefence;
 
+    // The latest log lines, filled in from the log store. Lines added here are written once the village is saved.
     @Getter
     @Setter
-    @OneToMany(mappedBy = "village", cascade = CascadeType.ALL, orphanRemoval = true)
-    @Where(clause = "type = 'VILLAGE_LOG'")
-    @JsonManagedReference
-    private List<LogLine> villageLog = new ArrayList<>();
+    @Transient
+    private List<LogEntry> villageLog = new ArrayList<>();
 
     @Getter
     @Setter
-    @OneToMany(mappedBy = "village", cascade = CascadeType.ALL, orphanRemoval = true)
-    @Where(clause = "type = 'COMBAT_LOG'")
-    @JsonManagedReference
-    private List<LogLine> combatLog = new ArrayList<>();
+    @Transient
+    private List<LogEntry> combatLog = new ArrayList<>();
+
+    @Transient
+    private List<LogLine> pendingLogLines = new ArrayList<>();
+
+    @Transient
+    private List<VillageEvent> pendingEvents = new ArrayList<>();
+
+    // Every derived value remembers the versions of its inputs it was calculated from and is only
+    // recalculated once one of them moved on.
+    @Transient
+    private long buildingsVersion;
+    @Transient
+    private long unitsVersion;
+    @Transient
+    private long researchVersion;
+    @Transient
+    private long buildingStatsCalculatedAt = -1;
+    @Transient
+    private long resourceLedgerCalculatedAt = -1;
+    @Transient
+    private ResourceLedger resourceLedger;
+    @Transient
+    private long researchesCalculatedAt = -1;
+    @Transient
+    private long defenceCalculatedAtUnits = -1;
+    @Transient
+    private long defenceCalculatedAtResearch = -1;
+    // Set when something happened that can not be derived again from the stored state, like a finished
+    // construction or produced units, so the village has to be saved.
+    @Transient
+    private boolean stateTransitioned;
 
 
     public Village() {
         this.buildings = new HashSet<>();
-        this.createValidBuildingPositions();
-        this.createBuildableBuildingsList();
         this.updateVillageState();
-        this.unitsInVillage = new HashSet<>();
-        this.setAvailableResearches();
+    }
+
+    @PostLoad
+    private void afterLoad() {
+        if (this.villageResources == null) {
+            // Every village is stored with resources, so these were never copied over from the old resource table.
+            throw new IllegalStateException("Village " + this.villageId + " has no stored resources, the resource backfill has not run");
+        }
+        this.unitIndex = null;
+        this.markBuildingsChanged();
+        this.markUnitsChanged();
+        this.markResearchChanged();
+    }
+
+    public void markBuildingsChanged() {
+        this.buildingsVersion++;
+    }
+
+    public void markUnitsChanged() {
+        this.unitsVersion++;
+    }
+
+    public void markResearchChanged() {
+        this.researchVersion++;
+    }
+
+    public void markStateTransitioned() {
+        this.stateTransitioned = true;
+    }
+
+    public boolean hasStateTransitioned() {
+        return this.stateTransitioned;
+    }
+
+    public void clearStateTransitioned() {
+        this.stateTransitioned = false;
+    }
+
+    public void setCompletedResearches(List<Research> completedResearches) {
+        this.completedResearches = completedResearches;
+        this.markResearchChanged();
+    }
+
+    public void setUnitsInVillage(Set<VillageUnit> unitsInVillage) {
+        this.unitsInVillage = unitsInVillage;
+        this.unitIndex = null;
+        this.markUnitsChanged();
+    }
+
+    public void removeAllUnits() {
+        this.unitsInVillage.clear();
+        this.unitIndex = null;
+        this.markUnitsChanged();
+    }
+
+    public Map<String, Integer> getVillageResources() {
+        return this.getResources().toMap();
+    }
+
+    public void setVillageResources(Map<String, Integer> villageResources) {
+        this.setResources(ResourceVector.of(villageResources));
+    }
+
+    @JsonIgnore
+    public ResourceVector getResources() {
+        return this.getResourcesAt(LocalDateTime.now());
+    }
+
+    public ResourceVector getResourcesAt(LocalDateTime time) {
+        return this.getResourceLedger().getAmountsAt(this.villageResources, this.getResourcesUpdatedAt(), time);
+    }
+
+    /**
+     * Stores the given amounts as the amounts of this moment, production continues from here.
+     */
+    public void setResources(ResourceVector resources) {
+        this.villageResources.copyFrom(resources);
+        this.resourcesUpdatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Stores the amounts produced up to the given time, has to happen before the production rates change.
+     */
+    public void advanceResourcesTo(LocalDateTime time) {
+        if (!time.isAfter(this.getResourcesUpdatedAt())) {
+            return;
+        }
+        this.villageResources.copyFrom(this.getResourcesAt(time));
+        this.resourcesUpdatedAt = time;
+    }
+
+    private LocalDateTime getResourcesUpdatedAt() {
+        if (this.resourcesUpdatedAt == null) {
+            // Villages stored before the ledger kept track of the collection time per resource building.
+            LocalDateTime now = LocalDateTime.now();
+            this.resourcesUpdatedAt = this.buildings.stream()
+                    .filter(b -> b instanceof ResourceBuilding)
+                    .map(b -> ((ResourceBuilding) b).getLastCollected())
+                    .filter(t -> t != null && t.isBefore(now))
+                    .min(Comparator.naturalOrder())
+                    .orElse(now);
+        }
+        return this.resourcesUpdatedAt;
     }
 
     public void createBuilding(Building building) {
+        this.advanceResourcesTo(LocalDateTime.now());
         this.buildings.add(building);
+        this.markBuildingsChanged();
         this.updateVillageState();
     }
 
     public BuildPosition[] getValidBuildPositions() {
-        return this.validBuildPositions; // REFACTOR (ITSTEN H2): Expose build slots for placement validation.
+        return GameCatalog.getBuildPositions(); // REFACTOR (ITSTEN H2): Expose build slots for placement validation.
+    }
+
+    public List<Building> getBuildingsThatCanBeBuild() {
+        return GameCatalog.getBuildableBuildings();
+    }
+
+    public List<Research> getAvailableResearches() {
+        // Only serialized villages need the research tree, so it is built on first use.
+        if (this.researchesCalculatedAt != this.researchVersion) {
+            this.researchesCalculatedAt = this.researchVersion;
+            this.availableResearches = GameCatalog.getAvailableResearches(this.completedResearches);
+        }
+        return this.availableResearches;
     }
 
     public boolean demolishBuilding(long buildingId) {
@@ -199,12 +337,24 @@ public class Village {
         if (building == null) {
             return false;
         }
+        this.advanceResourcesTo(LocalDateTime.now());
         this.buildings.remove(building);
         building.setVillage(null); // REFACTOR (ITSTEN H2): Ensure demolished building no longer references the village.
+        this.markBuildingsChanged();
         this.updateVillageState(); // REFACTOR (ITSTEN H2): Recalculate village state after demolition without refunds.
         return true;
     }
 
+    /**
+     * Returns the building with the given id, null when it is not part of this village.
+     */
+    public Building getBuilding(long buildingId) {
+        return this.buildings.stream()
+                .filter(b -> b.getBuildingId() == buildingId)
+                .findFirst()
+                .orElse(null);
+    }
+
     public boolean hasBuilding(long buildingId) {
         return this.buildings.stream().anyMatch(b -> b.getBuildingId() == buildingId); // REFACTOR (ITSTEN H2): Provide lookup helper for demolition invariants.
     }
@@ -214,15 +364,36 @@ public class Village {
     }
 
     public void updateVillageState() {
+        this.advanceResourcesToFinishedConstructions();
         for (Building building : this.buildings) {
             building.updateBuildingState();
         }
-        this.calculatePopulation();
-        this.calculateResourcesPerHour();
-        this.setAvailableResearches();
-        this.calculateTotalDefence();
-        this.calculateResourceLimit();
-        this.calculateVillagePoints();
+
+        if (this.buildingStatsCalculatedAt != this.buildingsVersion) {
+            this.buildingStatsCalculatedAt = this.buildingsVersion;
+            this.calculatePopulation();
+            this.getResourceLedger();
+            this.calculateVillagePoints();
+        }
+        if (this.defenceCalculatedAtUnits != this.unitsVersion || this.defenceCalculatedAtResearch != this.researchVersion) {
+            this.defenceCalculatedAtUnits = this.unitsVersion;
+            this.defenceCalculatedAtResearch = this.researchVersion;
+            this.calculateTotalDefence();
+        }
+    }
+
+    private void advanceResourcesToFinishedConstructions() {
+        // Finished constructions change the production at their finish time, so the resources are stored up to
+        // that moment before the building levels up.
+        LocalDateTime now = LocalDateTime.now();
+        List<Building> finishedBuildings = this.buildings.stream()
+                .filter(b -> b.getLevelupFinishedTime() != null && now.isAfter(b.getLevelupFinishedTime()))
+                .sorted(Comparator.comparing(Building::getLevelupFinishedTime))
+                .toList();
+        for (Building building : finishedBuildings) {
+            this.advanceResourcesTo(building.getLevelupFinishedTime());
+            building.updateBuildingState();
+        }
     }
 
     public boolean hasEnoughPopulation(int population) {
@@ -234,26 +405,56 @@ public class Village {
     }
 
     public void addUnit(Unit unit, int amountOfUnits) {
-        if (this.getUnitInVillage(unit.getUnitName()) == null) {
-            VillageUnit villageUnit = new VillageUnit(unit, amountOfUnits);
+        this.markStateTransitioned();
+        VillageUnit villageUnit = this.getUnitInVillage(unit.getUnitName());
+        if (villageUnit == null) {
+            villageUnit = new VillageUnit(unit, amountOfUnits);
             villageUnit.setVillage(this);
             this.unitsInVillage.add(villageUnit);
+            this.getUnitIndex().put(unit.getUnitName(), villageUnit);
+            this.markUnitsChanged();
             return;
         }
 
-        for (VillageUnit villageUnit : this.unitsInVillage) {
-            if (villageUnit.getUnit().getUnitName().equals(unit.getUnitName())) {
-                villageUnit.setAmount(villageUnit.getAmount() + amountOfUnits);
+        villageUnit.setAmount(villageUnit.getAmount() + amountOfUnits);
+    }
+
+    public VillageUnit getUnitInVillage(UnitType unitType) {
+        return this.getUnitIndex().get(unitType);
+    }
+
+    private EnumMap<UnitType, VillageUnit> getUnitIndex() {
+        if (this.unitIndex == null) {
+            this.unitIndex = new EnumMap<>(UnitType.class);
+            for (VillageUnit villageUnit : this.unitsInVillage) {
+                this.unitIndex.putIfAbsent(villageUnit.getUnitType(), villageUnit);
             }
         }
+        return this.unitIndex;
     }
 
-    public VillageUnit getUnitInVillage(UnitType unitType) {
-        VillageUnit unit = this.unitsInVillage.stream()
-                .filter(u -> u.getUnit().getUnitName() == unitType)
-                .findFirst()
-                .orElse(null);
-        return unit;
+    /**
+     * The combat multiplier of every unit type, indexed by the UnitType ordinal.
+     */
+    @JsonIgnore
+    public float[] getResearchMultipliers() {
+        int[] researchLevels = new int[ResearchType.values().length];
+        for (Research completedResearch : this.completedResearches) {
+            researchLevels[completedResearch.getResearchName().ordinal()] = completedResearch.getResearchLevel();
+        }
+        return CombatEngine.researchMultipliers(researchLevels);
+    }
+
+    /**
+     * The amount of units in the village, indexed by the UnitType ordinal.
+     */
+    @JsonIgnore
+    public int[] getUnitCounts() {
+        int[] unitCounts = new int[UnitType.values().length];
+        for (VillageUnit villageUnit : this.unitsInVillage) {
+            unitCounts[villageUnit.getUnitType().ordinal()] += villageUnit.getAmount();
+        }
+        return unitCounts;
     }
 
     public int getResearchLevel(ResearchType researchType) {
@@ -267,14 +468,11 @@ public class Village {
 
     public void addCompleteResearch(Research research) {
         this.completedResearches.add(research);
+        this.markResearchChanged();
     }
 
-    public Map<String, Integer> getPillageableResources() {
-        Map<String, Integer> pillageableResources = new HashMap<>();
-        for (Map.Entry<String, Integer> resource : this.villageResources.entrySet()) {
-            pillageableResources.put(resource.getKey(), resource.getValue() / 2);
-        }
-        return pillageableResources;
+    public ResourceVector getPillageableResources() {
+        return this.getResources().dividedBy(2);
     }
 
     public void addReturnTravel(ReturningCombatTravel returningCombatTravel) {
@@ -282,92 +480,69 @@ public class Village {
     }
 
     public void addToVillageLog(LocalDateTime timestamp, String message) {
-        this.villageLog.sort(Comparator.comparing(LogLine::getDate));
-        if (this.villageLog.size() > 2) {
-            this.villageLog.remove(0);
-        }
-        this.villageLog.add(new VillageLog(timestamp, message, this));
-        this.villageLog.sort(Comparator.comparing(LogLine::getDate));
-        this.newLogAvailable = true;
+        this.addToVillageLog(timestamp, message, VillageEventType.LOG_ADDED);
+    }
+
+    public void addToVillageLog(LocalDateTime timestamp, String message, VillageEventType eventType) {
+        this.addLogLine(this.villageLog, new VillageLog(timestamp, message, this), eventType);
     }
 
     public void addToCombatLog(LocalDateTime timestamp, String message) {
-        this.combatLog.sort(Comparator.comparing(LogLine::getDate));
-        if (this.combatLog.size() > 2) {
-            this.combatLog.remove(0);
-        }
-        this.combatLog.add(new CombatLog(timestamp, message, this));
-        this.combatLog.sort(Comparator.comparing(LogLine::getDate));
+        this.addToCombatLog(timestamp, message, VillageEventType.LOG_ADDED);
+    }
+
+    public void addToCombatLog(LocalDateTime timestamp, String message, VillageEventType eventType) {
+        this.addLogLine(this.combatLog, new CombatLog(timestamp, message, this), eventType);
+    }
+
+    private void addLogLine(List<LogEntry> log, LogLine logLine, VillageEventType eventType) {
+        log.add(new LogEntry(logLine));
+        this.pendingLogLines.add(logLine);
+        this.pendingEvents.add(new VillageEvent(this.villageId, eventType, logLine.getMessage(), logLine.getDate()));
         this.newLogAvailable = true;
+        this.markStateTransitioned();
     }
 
-    private void calculateVillagePoints() {
-        this.villagePoints = this.buildings.stream().mapToInt(Building::getPoints).sum();
+    /**
+     * Hands over the log lines added since the last save, so they are appended to the log store only once.
+     */
+    public List<LogLine> takePendingLogLines() {
+        List<LogLine> logLines = this.pendingLogLines;
+        this.pendingLogLines = new ArrayList<>();
+        return logLines;
     }
 
-    private void calculateResourceLimit() {
-        this.resourceLimit = 0;
-        List<IStorable> storageBuildings = this.buildings.stream()
-                .filter(x -> x instanceof IStorable)
-                .map(n -> (IStorable) n).toList();
+    public List<VillageEvent> takePendingEvents() {
+        List<VillageEvent> events = this.pendingEvents;
+        this.pendingEvents = new ArrayList<>();
+        return events;
+    }
 
-        storageBuildings.forEach(s -> {
-            this.resourceLimit += s.getResourceCapacity();
-        });
+    /**
+     * The first time a construction, research or production of the village finishes, null when nothing is in progress.
+     */
+    @JsonIgnore
+    public LocalDateTime getNextTransitionTime() {
+        return this.buildings.stream()
+                .map(Building::getNextTransitionTime)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    private void calculateVillagePoints() {
+        int villagePoints = this.buildings.stream().mapToInt(Building::getPoints).sum();
+        if (villagePoints == this.villagePoints) {
+            return;
+        }
+        this.villagePoints = villagePoints;
+        // The other instances take the new points over into their leaderboard from the change.
+        this.pendingEvents.add(new VillageEvent(this.villageId, VillageEventType.POINTS_CHANGED,
+                "The village now has " + villagePoints + " points", LocalDateTime.now()));
     }
 
     private void calculateTotalDefence() {
-        this.totalDefence = this.unitsInVillage.stream()
-                .mapToInt(t -> (int) (t.getUnit().getDefence() *
-                        (1 + 0.1f * this.getResearchLevel(t.getUnit().getResearchRequired())) * t.getAmount())).sum();
-    }
-
-    private void createBuildableBuildingsList() {
-        this.buildingsThatCanBeBuild = Arrays.asList(
-                new Barracks(),
-                new House(),
-                new Mine(),
-                new Farm(),
-                new Lumberyard(),
-                new Tavern(),
-                new Wall(),
-                new DefenceTower(),
-                new Harbor(),
-                new Smith(),
-                new Storage()
-        );
-    }
-
-    private void createValidBuildingPositions() {
-        this.validBuildPositions = new BuildPosition[]{
-                new BuildPosition(2, 2),
-                new BuildPosition(9, 4),
-                new BuildPosition(3, 7),
-                new BuildPosition(1, 4),
-                new BuildPosition(6, 6, "Headquarters"),
-                new BuildPosition(2, 4),
-                new BuildPosition(11, 2),
-                new BuildPosition(0, 0, "Wall"),
-                new BuildPosition(5, 10),
-                new BuildPosition(0, 10),
-                new BuildPosition(12, 1),
-                new BuildPosition(11, 10, "Harbor"),
-                new BuildPosition(9, 7),
-                new BuildPosition(14, 7),
-                new BuildPosition(9, 13, "Harbor"),
-                new BuildPosition(6, 2),
-                new BuildPosition(3, 12),
-                new BuildPosition(1, 11),
-                new BuildPosition(1, 8),
-                new BuildPosition(2, 10),
-                new BuildPosition(8, 10),
-                new BuildPosition(7, 13),
-                new BuildPosition(12, 6),
-                new BuildPosition(8, 6),
-                new BuildPosition(4, 4),
-                new BuildPosition(12, 4),
-                new BuildPosition(4, 1),
-        };
+        this.totalDefence = CombatEngine.defenceStrength(this.getUnitCounts(), this.getResearchMultipliers());
     }
 
     private void calculatePopulation() {
@@ -387,39 +562,28 @@ public class Village {
         this.populationLeft = this.population - this.populationInUse;
     }
 
-    private void calculateResourcesPerHour() {
-        Map<String, Integer> resourcesPerHour = new HashMap<>();
-
-        List<ResourceBuilding> resourceBuildings = this.buildings.stream()
-                .filter(x -> x instanceof ResourceBuilding)
-                .map(n -> (ResourceBuilding) n).toList();
-
-        for (ResourceBuilding building : resourceBuildings) {
-            ResourceType currentType = building.getGeneratesResource();
-            if (!resourcesPerHour.containsKey(currentType.name())) {
-                resourcesPerHour.put(currentType.name(), building.getResourcesPerHour());
-                continue;
-            }
-            resourcesPerHour.put(currentType.name(), resourcesPerHour.get(currentType.name()) + building.getResourcesPerHour());
+    private ResourceLedger getResourceLedger() {
+        if (this.resourceLedgerCalculatedAt != this.buildingsVersion) {
+            this.resourceLedgerCalculatedAt = this.buildingsVersion;
+            this.resourceLedger = this.calculateResourceLedger();
+            this.resourcesPerHour = new HashMap<>(this.resourceLedger.getResourcesPerHour());
+            this.resourceLimit = this.resourceLedger.getCapacity();
         }
-        this.resourcesPerHour = resourcesPerHour;
+        return this.resourceLedger;
     }
 
-    private void setAvailableResearches() {
-        List<Research> researches = new ArrayList<>();
-        researches.add(new SpearResearch());
-        researches.add(new JarlResearch());
-        researches.add(new DefenceShipResearch());
-        researches.add(new BattleShipResearch());
-        researches.add(new BowResearch());
-        researches.add(new AxeResearch());
-        researches.add(new ShieldResearch());
-
-        //have fun!
-        for (Research completedResearch : this.completedResearches) {
-            researches.stream().filter(r -> r.getResearchName().equals(completedResearch.getResearchName())).findFirst()
-                    .ifPresent(matchedResearch -> matchedResearch.setResearchLevel(completedResearch.getResearchLevel()));
+    private ResourceLedger calculateResourceLedger() {
+        ResourceLedger ledger = new ResourceLedger();
+        for (Building building : this.buildings) {
+            if (building instanceof IStorable storable) {
+                ledger.addCapacity(storable.getResourceCapacity());
+            }
+            // Buildings under construction do not produce anything until they are finished.
+            if (building instanceof ResourceBuilding resourceBuilding && !resourceBuilding.isUnderConstruction()) {
+                ledger.addProduction(resourceBuilding.getGeneratesResource(), resourceBuilding.getRequiresResources(),
+                        resourceBuilding.getResourcesPerHour());
+            }
         }
-        this.availableResearches = researches;
+        return ledger;
     }
 }
@@ -1,10 +1,13 @@
 package nl.duckstudios.pintandpillage.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 import nl.duckstudios.pintandpillage.entity.production.Unit;
 import nl.duckstudios.pintandpillage.entity.travels.CombatTravel;
+import nl.duckstudios.pintandpillage.helper.UnitFactory;
+import nl.duckstudios.pintandpillage.model.UnitType;
 
 import javax.persistence.*;
 
@@ -19,7 +22,6 @@ public class VillageUnit {
     private long id;
 
     @Getter
-    @Setter
     @ManyToOne(cascade = CascadeType.ALL)
     @JsonBackReference
     private Village village;
@@ -31,19 +33,45 @@ public class VillageUnit {
     private CombatTravel combatTravel;
 
     @Getter
-    @Setter
-    @OneToOne(cascade = CascadeType.ALL)
-    private Unit unit;
+    @JsonIgnore
+    @Enumerated(EnumType.STRING)
+    private UnitType unitType;
 
     @Getter
-    @Setter
     private int amount;
 
     public VillageUnit(Unit unit, int amount) {
         this.amount = amount;
-        this.unit = unit;
+        this.unitType = unit.getUnitName();
     }
 
     public VillageUnit() {
     }
+
+    @PostLoad
+    private void afterLoad() {
+        if (this.unitType == null) {
+            throw new IllegalStateException("Village unit " + this.id + " has no unit type, the unit type backfill has not run");
+        }
+    }
+
+    public Unit getUnit() {
+        return UnitFactory.getUnitStatic(this.unitType);
+    }
+
+    public void setVillage(Village village) {
+        this.village = village;
+        this.markVillageUnitsChanged();
+    }
+
+    public void setAmount(int amount) {
+        this.amount = amount;
+        this.markVillageUnitsChanged();
+    }
+
+    private void markVillageUnitsChanged() {
+        if (this.village != null) {
+            this.village.markUnitsChanged();
+        }
+    }
 }
@@ -1,84 +1,307 @@
 package nl.duckstudios.pintandpillage.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Getter;
-import lombok.Setter;
-import nl.duckstudios.pintandpillage.Exceptions.NoEmptyVillageSpotFoundException;
-import nl.duckstudios.pintandpillage.model.Tile;
+import nl.duckstudios.pintandpillage.helper.ChunkedWorldGenerator;
+import nl.duckstudios.pintandpillage.helper.DiscOffsetTable;
+import nl.duckstudios.pintandpillage.helper.Leaderboard;
+import nl.duckstudios.pintandpillage.helper.SpawnSpotPool;
+import nl.duckstudios.pintandpillage.helper.VillageOccupancyIndex;
+import nl.duckstudios.pintandpillage.model.NearbyTile;
+import nl.duckstudios.pintandpillage.model.NearbyVillage;
+import nl.duckstudios.pintandpillage.model.TileGridSerializer;
 import nl.duckstudios.pintandpillage.model.TileType;
+import nl.duckstudios.pintandpillage.model.UserHighscore;
+import nl.duckstudios.pintandpillage.model.WorldChunk;
+import nl.duckstudios.pintandpillage.model.WorldGenerationMode;
+import nl.duckstudios.pintandpillage.model.WorldTerrain;
 import nl.duckstudios.pintandpillage.model.WorldVillage;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Objects;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public class WorldMap {
 
+    public static final int CHUNK_SIZE = 16;
+
     private final int minDistanceBetweenIslands = 2;
     private final int changeWaterTileBecomesGrass = 80;
-    @Setter
-    @Getter
-    private List<WorldVillage> villages;
-    @Setter
+    private final VillageOccupancyIndex villageIndex = new VillageOccupancyIndex();
+    private final Leaderboard leaderboard = new Leaderboard();
     @Getter
-    private Tile[][] worldTiles;
+    @JsonProperty("worldTiles")
+    @JsonSerialize(using = TileGridSerializer.class)
+    private WorldTerrain terrain;
+    // Changes on every restart, so chunk versions handed out by an earlier process are never reused.
+    private final long instanceTag = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+    private AtomicLongArray chunkVersions;
+    private SpawnSpotPool spawnSpotPool;
 
     public WorldMap(int seed, int xSize, int ySize, int maxIslandsAmount) {
-        this.generateWorld(seed, xSize, ySize, maxIslandsAmount);
+        this(seed, xSize, ySize, maxIslandsAmount, WorldGenerationMode.classic);
+    }
+
+    public WorldMap(int seed, int xSize, int ySize, int maxIslandsAmount, WorldGenerationMode generationMode) {
+        if (generationMode == WorldGenerationMode.chunked) {
+            this.terrain = new ChunkedWorldGenerator().generate(seed, xSize, ySize, maxIslandsAmount);
+        } else {
+            this.generateWorld(seed, xSize, ySize, maxIslandsAmount);
+        }
+        this.chunkVersions = new AtomicLongArray(this.getChunksX() * this.getChunksY());
+        this.spawnSpotPool = new SpawnSpotPool(this.findSpawnableSpots(), seed);
+    }
+
+    public List<WorldVillage> getVillages() {
+        return new ArrayList<>(this.villageIndex.getVillages());
+    }
+
+    public void setVillages(List<WorldVillage> villages) {
+        this.villageIndex.clear();
+        this.leaderboard.clear();
+        villages.forEach(this::putVillage);
+        for (int i = 0; i < this.chunkVersions.length(); i++) {
+            this.chunkVersions.incrementAndGet(i);
+        }
+    }
+
+    public void putVillage(WorldVillage village) {
+        WorldVillage previous = this.villageIndex.getVillage(village.villageId);
+        if (previous != null && this.isSameVillageState(previous, village)) {
+            return;
+        }
+
+        this.villageIndex.put(village);
+        this.leaderboard.putVillage(village);
+        this.spawnSpotPool.complete(village.position);
+        if (previous != null) {
+            this.markChunkChanged(previous.position.getX(), previous.position.getY());
+            this.refillSpawnSpot(previous.position);
+        }
+        this.markChunkChanged(village.position.getX(), village.position.getY());
+    }
+
+    public void removeVillage(long villageId) {
+        WorldVillage previous = this.villageIndex.getVillage(villageId);
+        this.villageIndex.remove(villageId);
+        this.leaderboard.removeVillage(villageId);
+        if (previous != null) {
+            this.markChunkChanged(previous.position.getX(), previous.position.getY());
+            this.refillSpawnSpot(previous.position);
+        }
+    }
+
+    @JsonIgnore
+    public int getChunksX() {
+        return (this.terrain.getWidth() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    @JsonIgnore
+    public int getChunksY() {
+        return (this.terrain.getHeight() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    public boolean isExistingChunk(int chunkX, int chunkY) {
+        return chunkX >= 0 && chunkY >= 0 && chunkX < this.getChunksX() && chunkY < this.getChunksY();
+    }
+
+    public long getChunkVersion(int chunkX, int chunkY) {
+        return this.chunkVersions.get(chunkX * this.getChunksY() + chunkY);
+    }
+
+    public String getChunkETag(int chunkX, int chunkY) {
+        return this.createChunkETag(chunkX, chunkY, this.getChunkVersion(chunkX, chunkY));
+    }
+
+    public String getChunkETag(WorldChunk chunk) {
+        return this.createChunkETag(chunk.chunkX, chunk.chunkY, chunk.version);
+    }
+
+    public WorldChunk getChunk(int chunkX, int chunkY) {
+        int startX = chunkX * CHUNK_SIZE;
+        int startY = chunkY * CHUNK_SIZE;
+        int width = Math.min(CHUNK_SIZE, this.terrain.getWidth() - startX);
+        int height = Math.min(CHUNK_SIZE, this.terrain.getHeight() - startY);
+
+        // Read the version first, a concurrent village change then at worst makes the client refetch once more.
+        WorldChunk chunk = new WorldChunk(chunkX, chunkY, startX, startY, width, height, this.getChunkVersion(chunkX, chunkY));
+        chunk.runs = this.terrain.toRunLengths(startX, startY, width, height);
+        chunk.villages = this.villageIndex.getVillagesInRectangle(startX, startY, startX + width - 1, startY + height - 1);
+        return chunk;
+    }
+
+    public List<UserHighscore> getHighscores(int offset, int amount) {
+        return this.leaderboard.getHighscores(offset, amount);
+    }
+
+    public UserHighscore getHighscore(long userId) {
+        return this.leaderboard.getHighscore(userId);
+    }
+
+    @JsonIgnore
+    public int getHighscoreCount() {
+        return this.leaderboard.size();
+    }
+
+    public boolean isOccupied(Coord coord) {
+        return this.villageIndex.isOccupied(coord.getX(), coord.getY());
+    }
+
+    public List<WorldVillage> getVillagesInRectangle(int minX, int minY, int maxX, int maxY) {
+        return this.villageIndex.getVillagesInRectangle(minX, minY, maxX, maxY);
+    }
+
+    public List<WorldVillage> getVillagesInRadius(Coord center, int radius) {
+        return this.villageIndex.getVillagesInRadius(center, radius);
     }
 
-    public Coord findEmptySpot() {
-        int maxIterations = 200;
-        Random random = new Random();
+    /**
+     * Returns the villages within the distance of the center, nearest first.
+     */
+    public List<NearbyVillage> getVillagesWithinDistance(Coord center, int radius) {
+        DiscOffsetTable disc = DiscOffsetTable.getInstance();
+        List<NearbyVillage> result = new ArrayList<>();
 
-        for (int i = 0; i < maxIterations; i++) {
-            int randomX = random.nextInt(0, this.worldTiles.length - 1);
-            int randomY = random.nextInt(0, this.worldTiles[0].length - 1);
-            Tile tile = this.worldTiles[randomX][randomY];
+        if (radius <= DiscOffsetTable.MAX_RADIUS && disc.getAmountWithinRadius(radius) <= this.villageIndex.size()) {
+            // Walking the disc visits the tiles in distance order, so the result needs no sorting.
+            for (int i = 0; i < disc.getAmountWithinRadius(radius); i++) {
+                WorldVillage village = this.villageIndex.getVillageAt(center.getX() + disc.getOffsetX(i), center.getY() + disc.getOffsetY(i));
+                if (village != null) {
+                    result.add(new NearbyVillage(village, disc.getDistance(i)));
+                }
+            }
+            return result;
+        }
+
+        for (WorldVillage village : this.villageIndex.getVillagesInRadius(center, radius)) {
+            int dx = village.position.getX() - center.getX();
+            int dy = village.position.getY() - center.getY();
+            result.add(new NearbyVillage(village, DiscOffsetTable.distance(dx, dy)));
+        }
+        result.sort(Comparator.comparing(
+                village -> new int[]{village.position.getX() - center.getX(), village.position.getY() - center.getY()},
+                DiscOffsetTable.offsetOrder()));
+        return result;
+    }
 
-            if (this.isWaterTile(randomX, randomY) || !this.hasWaterTilesAround(tile, 3)) continue;
+    /**
+     * Returns the tiles of the world within the distance of the center, nearest first.
+     */
+    public List<NearbyTile> getTilesWithinDistance(Coord center, int radius) {
+        DiscOffsetTable disc = DiscOffsetTable.getInstance();
+        List<NearbyTile> result = new ArrayList<>();
+        for (int i = 0; i < disc.getAmountWithinRadius(radius); i++) {
+            int x = center.getX() + disc.getOffsetX(i);
+            int y = center.getY() + disc.getOffsetY(i);
+            if (this.terrain.isInside(x, y)) {
+                result.add(new NearbyTile(this.terrain.getTileType(x, y), x, y, disc.getDistance(i)));
+            }
+        }
+        return result;
+    }
 
-            Coord coord = new Coord(randomX, randomY);
-            Optional<WorldVillage> match = this.villages.stream().filter(v -> v.position.equals(coord)).findAny();
-            if (match.isEmpty()) {
-                return coord;
+    /**
+     * Returns the spots within the distance of the center a new village can be built on, nearest first.
+     */
+    public List<Coord> getSettleableSpotsWithinDistance(Coord center, int radius) {
+        DiscOffsetTable disc = DiscOffsetTable.getInstance();
+        List<Coord> result = new ArrayList<>();
+        for (int i = 0; i < disc.getAmountWithinRadius(radius); i++) {
+            int x = center.getX() + disc.getOffsetX(i);
+            int y = center.getY() + disc.getOffsetY(i);
+            if (this.isValidToBuildNewVillage(x, y)) {
+                result.add(new Coord(x, y));
             }
         }
-        throw new NoEmptyVillageSpotFoundException("This world has no empty spots left");
+        return result;
+    }
+
+    @JsonIgnore
+    public int getWidth() {
+        return this.terrain.getWidth();
+    }
+
+    @JsonIgnore
+    public int getHeight() {
+        return this.terrain.getHeight();
+    }
+
+    /**
+     * Hands out a free spawn spot, reserved until a village is put on it or it is released again.
+     */
+    public Coord reserveEmptySpot() {
+        return this.spawnSpotPool.reserve(this.villageIndex::isOccupied);
+    }
+
+    public boolean reserveSpot(Coord coord) {
+        return this.spawnSpotPool.reserve(coord);
+    }
+
+    public void releaseSpot(Coord coord) {
+        this.spawnSpotPool.release(coord, this.isSpawnableSpot(coord.getX(), coord.getY()));
+    }
+
+    @JsonIgnore
+    public int getAmountOfSpawnSpots() {
+        return this.spawnSpotPool.getAmountOfPooledSpots();
     }
 
     public boolean isValidToBuildNewVillage(Coord coord) {
-        return this.isValidPosition(coord.getX(), coord.getY())
-                && this.isGrassTile(coord.getX(), coord.getY())
-                && this.hasWaterTilesAround(this.worldTiles[coord.getX()][coord.getY()], 2)
-                && this.villages.stream().filter(v -> v.position.equals(coord)).findAny().isEmpty();
+        return this.isValidToBuildNewVillage(coord.getX(), coord.getY());
+    }
+
+    public boolean isValidToBuildNewVillage(int x, int y) {
+        return this.isValidPosition(x, y)
+                && this.isGrassTile(x, y)
+                && this.hasWaterTilesAround(x, y, 2)
+                && !this.villageIndex.isOccupied(x, y)
+                && !this.spawnSpotPool.isReserved(x, y);
+    }
+
+    private List<Coord> findSpawnableSpots() {
+        List<Coord> spots = new ArrayList<>();
+        for (int x = 0; x < this.terrain.getWidth(); x++) {
+            for (int y = 0; y < this.terrain.getHeight(); y++) {
+                if (this.isSpawnableSpot(x, y)) {
+                    spots.add(new Coord(x, y));
+                }
+            }
+        }
+        return spots;
+    }
+
+    private boolean isSpawnableSpot(int x, int y) {
+        return this.isValidPosition(x, y) && this.isGrassTile(x, y) && this.hasWaterTilesAround(x, y, 3);
+    }
+
+    private void refillSpawnSpot(Coord coord) {
+        if (this.isSpawnableSpot(coord.getX(), coord.getY()) && !this.villageIndex.isOccupied(coord.getX(), coord.getY())) {
+            this.spawnSpotPool.refill(coord);
+        }
     }
 
     private void generateWorld(int seed, int xSize, int ySize, int maxIslandsAmount) {
         Random randomSeed = new Random(seed);
-        this.worldTiles = new Tile[xSize][ySize];
-
-        this.fillMapWithWater();
+        // A new terrain starts out as water only.
+        this.terrain = new WorldTerrain(xSize, ySize);
 
         for (int i = 0; i < maxIslandsAmount; i++) {
             int randomX = randomSeed.nextInt(0, xSize - 1);
             int randomY = randomSeed.nextInt(0, ySize - 1);
 
             if (this.isNotNearOtherIslands(randomX, randomX)) {
-                Tile tile = new Tile(TileType.Grass, randomX, randomY);
-                this.makeIslandOfStartPoint(tile, randomSeed);
+                this.makeIslandOfStartPoint(randomX, randomY, randomSeed);
             }
         }
 
     }
 
-    private void fillMapWithWater() {
-        for (int x = 0; x < this.worldTiles.length; x++) {
-            for (int y = 0; y < this.worldTiles[x].length; y++) {
-                this.worldTiles[x][y] = new Tile(TileType.Water, x, y);
-            }
-        }
-    }
-
     private boolean isNotNearOtherIslands(int startX, int startY) {
         for (int x = startX - this.minDistanceBetweenIslands; x < startX + minDistanceBetweenIslands; x++) {
             for (int y = startY - this.minDistanceBetweenIslands; y < startY + minDistanceBetweenIslands; y++) {
@@ -92,16 +315,36 @@ public class WorldMap {
         return true;
     }
 
+    private String createChunkETag(int chunkX, int chunkY, long version) {
+        return "\"" + Long.toHexString(this.instanceTag) + "-" + chunkX + "-" + chunkY + "-" + version + "\"";
+    }
+
+    private void markChunkChanged(int x, int y) {
+        if (!this.terrain.isInside(x, y)) {
+            return;
+        }
+        this.chunkVersions.incrementAndGet((x / CHUNK_SIZE) * this.getChunksY() + y / CHUNK_SIZE);
+    }
+
+    private boolean isSameVillageState(WorldVillage previous, WorldVillage village) {
+        return previous.position.getX() == village.position.getX()
+                && previous.position.getY() == village.position.getY()
+                && previous.points == village.points
+                && previous.userId == village.userId
+                && Objects.equals(previous.name, village.name)
+                && Objects.equals(previous.villageOwnerName, village.villageOwnerName);
+    }
+
     private boolean isValidPosition(int x, int y) {
-        return x >= 0 && y >= 0 && x < this.worldTiles.length - 1 && y < this.worldTiles[x].length - 1;
+        return x >= 0 && y >= 0 && x < this.terrain.getWidth() - 1 && y < this.terrain.getHeight() - 1;
     }
 
     private boolean isGrassTile(int x, int y) {
-        return this.worldTiles[x][y] != null && this.worldTiles[x][y].tileType == TileType.Grass;
+        return this.terrain.isGrass(x, y);
     }
 
-    private void makeIslandOfStartPoint(Tile tile, Random random) {
-        this.expandIsland(tile.x, tile.y, random, 0);
+    private void makeIslandOfStartPoint(int x, int y, Random random) {
+        this.expandIsland(x, y, random, 0);
     }
 
     private void expandIsland(int x, int y, Random random, int depth) {
@@ -125,18 +368,18 @@ public class WorldMap {
     }
 
     private boolean isWaterTile(int x, int y) {
-        return this.worldTiles[x][y] != null && this.worldTiles[x][y].tileType == TileType.Water;
+        return this.terrain.isWater(x, y);
     }
 
     private void turnTileToGrass(int x, int y) {
-        this.worldTiles[x][y] = new Tile(TileType.Grass, x, y);
+        this.terrain.setTileType(x, y, TileType.Grass);
     }
 
-    private boolean hasWaterTilesAround(Tile tile, int amountOfWaterTiles) {
+    private boolean hasWaterTilesAround(int tileX, int tileY, int amountOfWaterTiles) {
         int amountWaterFound = 0;
 
-        for (int x = tile.x - 1; x <= tile.x + 1; x++) {
-            for (int y = tile.y - 1; y <= tile.y + 1; y++) {
+        for (int x = tileX - 1; x <= tileX + 1; x++) {
+            for (int y = tileY - 1; y <= tileY + 1; y++) {
                 if (this.isValidPosition(x, y) && isWaterTile(x, y)) {
                     amountWaterFound++;
                 }
@@ -2,6 +2,9 @@ package nl.duckstudios.pintandpillage.entity.buildings;
 
 import lombok.Getter;
 import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.helper.LevelCostTable;
+import nl.duckstudios.pintandpillage.helper.LevelTable;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 import nl.duckstudios.pintandpillage.model.UnitType;
 import nl.duckstudios.pintandpillage.model.Unlock;
@@ -16,6 +19,11 @@ import java.util.Map;
 @Entity
 public class Barracks extends ProductionBuilding {
 
+    private static final LevelCostTable COSTS = LevelCostTable.of(level -> new ResourceVector()
+            .with(ResourceType.Wood, 1000 + 25 * level + 8 * level * level)
+            .with(ResourceType.Stone, 800 + 20 * level + 6 * level * level));
+    private static final LevelTable CONSTRUCTION_TIME =
+            LevelTable.of(level -> 120 + ((40 + (level - 1) * 2L) * (long) Math.pow(level, 1.7)));
 
     @Getter
     @Setter
@@ -53,15 +61,8 @@ public class Barracks extends ProductionBuilding {
 
     @Override
     public void updateBuilding() {
-        super.setConstructionTimeSeconds(120 + ((40 + (super.getLevel() - 1) * 2L) * (long) Math.pow(super.getLevel(), 1.7)));
+        super.setConstructionTimeSeconds(CONSTRUCTION_TIME.get(super.getLevel()));
         super.setQueueLimit(5);
-        super.setResourcesRequiredLevelUp(new HashMap<>() {
-            {
-                int level = Barracks.super.getLevel();
-                put(ResourceType.Wood.name(), 1000 + 25 * level + 8 * level * level);
-                put(ResourceType.Stone.name(), 800 + 20 * level + 6 * level * level);
-            }
-        });
-        super.checkProduction();
+        super.setResourcesRequiredLevelUp(COSTS.get(super.getLevel()));
     }
 }
@@ -1,6 +1,7 @@
 package nl.duckstudios.pintandpillage.entity.buildings;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -8,8 +9,11 @@ import lombok.Getter;
 import lombok.Setter;
 import nl.duckstudios.pintandpillage.Exceptions.BuildingConditionsNotMetException;
 import nl.duckstudios.pintandpillage.entity.Coord;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.helper.LevelTable;
 import nl.duckstudios.pintandpillage.helper.ResourceManager;
+import nl.duckstudios.pintandpillage.model.VillageEventType;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -30,6 +34,11 @@ public abstract class Building {
     @Id
     @GeneratedValue
     private long buildingId;
+
+    @Version
+    @JsonIgnore
+    @Column(columnDefinition = "bigint default 0 not null")
+    private long version;
     @Getter
     @Setter
     @ManyToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
@@ -72,7 +81,7 @@ public abstract class Building {
     @Transient
     @JsonDeserialize
     @JsonSerialize
-    private Map<String, Integer> resourcesRequiredLevelUp;
+    private ResourceVector resourcesRequiredLevelUp;
     @Setter
     @Getter
     private int populationRequiredNextLevel;
@@ -85,6 +94,18 @@ public abstract class Building {
     @Getter
     private int points;
 
+    // Construction time most building types share.
+    protected static final LevelTable DEFAULT_CONSTRUCTION_TIME =
+            LevelTable.of(level -> 12 + ((30 + (level - 1) * 2L) * (long) Math.pow(level, 1.6)));
+    private static final LevelTable POPULATION_REQUIRED =
+            LevelTable.of(adjustment -> (3 + (int) Math.pow(10, adjustment * 0.2) + 1) + (adjustment * 2));
+    private static final LevelTable POINTS = LevelTable.of(level -> (int) ((5 + Math.floor((level + 1) * 0.2)) * (level + 1)));
+
+    @Transient
+    private int calculatedForLevel = -1;
+    @Transient
+    private boolean calculatedUnderConstruction;
+
     public Building() {
         this.populationRequiredNextLevel = this.getPopulationRequired(1);
         this.resourceManager = new ResourceManager();
@@ -128,24 +149,42 @@ public abstract class Building {
     public void updateBuildingState() {
         this.updateVillageState();
         this.checkLevelUpFinished();
-        this.points = (int) ((5 + Math.floor((this.level + 1) * 0.2)) * (this.level + 1));
-        this.populationRequiredNextLevel = this.level == 0 ? this.getPopulationRequired(1) :
-                this.getPopulationRequired(this.level + 1);
-        //When the building is under construction the population of the next level needs to be added already.
-        this.totalPopulationInUse = this.getPopulationRequired(this.level + (this.isUnderConstruction ? 1 : 0));
-        this.updateBuilding();
+        // The level stats only depend on the level and construction state, so they are kept until one of those changes.
+        if (this.level != this.calculatedForLevel || this.isUnderConstruction != this.calculatedUnderConstruction) {
+            this.calculatedForLevel = this.level;
+            this.calculatedUnderConstruction = this.isUnderConstruction;
+            this.points = POINTS.getInt(this.level);
+            this.populationRequiredNextLevel = this.level == 0 ? this.getPopulationRequired(1) :
+                    this.getPopulationRequired(this.level + 1);
+            //When the building is under construction the population of the next level needs to be added already.
+            this.totalPopulationInUse = this.getPopulationRequired(this.level + (this.isUnderConstruction ? 1 : 0));
+            this.updateBuilding();
+            if (this.village != null) {
+                this.village.markBuildingsChanged();
+            }
+        }
+        this.updateProduction();
     }
 
     public int getPopulationRequired(int adjustment) {
-        return (3 + (int) Math.pow(10, adjustment * 0.2) + 1) + (adjustment * 2);
+        return POPULATION_REQUIRED.getInt(adjustment);
     }
 
     public abstract void updateBuilding();
 
+    /**
+     * The next time the state of this building changes by itself, null when nothing is in progress.
+     */
+    @JsonIgnore
+    public LocalDateTime getNextTransitionTime() {
+        return this.levelupFinishedTime;
+    }
+
     private void checkLevelUpFinished() {
         if (this.levelupFinishedTime != null && LocalDateTime.now().isAfter(this.levelupFinishedTime)) {
             this.isUnderConstruction = false;
-            this.village.addToVillageLog(LocalDateTime.now(), "Finished building " + this.getClass().getSimpleName());
+            this.village.addToVillageLog(LocalDateTime.now(), "Finished building " + this.getClass().getSimpleName(),
+                    VillageEventType.CONSTRUCTION_FINISHED);
             this.levelupFinishedTime = null;
             this.level++;
         }
@@ -153,4 +192,7 @@ public abstract class Building {
 
     protected void updateVillageState() {
     }
+
+    protected void updateProduction() {
+    }
 }
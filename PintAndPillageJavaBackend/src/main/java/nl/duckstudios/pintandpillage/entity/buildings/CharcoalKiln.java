@@ -2,10 +2,16 @@ package nl.duckstudios.pintandpillage.entity.buildings;
 
 import lombok.Getter;
 import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.helper.LevelCostTable;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 import java.util.HashMap;
 
 public class CharcoalKiln extends Building {
+    private static final LevelCostTable COSTS = LevelCostTable.of(level -> new ResourceVector()
+            .with(ResourceType.Wood, 45 + level * 5)
+            .with(ResourceType.Stone, 80 + level * 30));
+
     @Getter @Setter
     private String name = "CharcoalKiln";
 
@@ -40,10 +46,7 @@ public class CharcoalKiln extends Building {
     }
 
     public void setResourcesRequiredAtGivenLevel(int level) {
-        super.setResourcesRequiredLevelUp(new HashMap<>() {{
-            put(ResourceType.Wood.name(), 45 + level * 5);
-            put(ResourceType.Stone.name(), 80 + level * 30);
-        }});
+        super.setResourcesRequiredLevelUp(COSTS.get(level));
     }
 
 
@@ -2,17 +2,22 @@ package nl.duckstudios.pintandpillage.entity.buildings;
 
 import lombok.Getter;
 import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.helper.LevelCostTable;
+import nl.duckstudios.pintandpillage.helper.LevelTable;
 import nl.duckstudios.pintandpillage.helper.ResourceProductionCalculator;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 
 import javax.persistence.Entity;
-import java.util.HashMap;
 
 @Entity
 public class Farm extends ResourceBuilding {
 
     private static final ResourceProductionCalculator PRODUCTION_CALCULATOR = new ResourceProductionCalculator();
+    private static final LevelTable RESOURCES_PER_HOUR =
+            LevelTable.of(level -> PRODUCTION_CALCULATOR.productionPerHour(ResourceType.Hop, level));
+    private static final LevelCostTable COSTS = LevelCostTable.of(level -> new ResourceVector().with(ResourceType.Stone, level * 25 + 25));
 
     @Getter
     @Setter
@@ -32,19 +37,13 @@ public class Farm extends ResourceBuilding {
 //        return (int)(20 + 12 * Math.pow(super.getLevel(), 1.2));
 //    }
     private int updateResourcesPerHour() {
-        return PRODUCTION_CALCULATOR
-                .productionPerHour(ResourceType.Hop, super.getLevel()); // REFACTOR (ITSTEN H2): Extract pure production function for deterministic tests.
+        return RESOURCES_PER_HOUR.getInt(super.getLevel());
     }
 
     @Override
     public void updateBuilding() {
-        super.setConstructionTimeSeconds(12 + ((30 + (super.getLevel() - 1) * 2L) * (long) Math.pow(super.getLevel(), 1.6)));
+        super.setConstructionTimeSeconds(DEFAULT_CONSTRUCTION_TIME.get(super.getLevel()));
         super.setResourcesPerHour(this.updateResourcesPerHour());
-        super.setResourcesRequiredLevelUp(new HashMap<>() {
-            {
-                int level = Farm.super.getLevel();
-                put(ResourceType.Stone.name(), level * 25 + 25);
-            }
-        });
+        super.setResourcesRequiredLevelUp(COSTS.get(super.getLevel()));
     }
 }
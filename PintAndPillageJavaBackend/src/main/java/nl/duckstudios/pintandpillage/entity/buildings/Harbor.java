@@ -2,6 +2,8 @@ package nl.duckstudios.pintandpillage.entity.buildings;
 
 import lombok.Getter;
 import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.helper.LevelCostTable;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 import nl.duckstudios.pintandpillage.model.UnitType;
 import nl.duckstudios.pintandpillage.model.Unlock;
@@ -16,6 +18,11 @@ import java.util.Map;
 @Entity
 public class Harbor extends ProductionBuilding {
 
+    private static final LevelCostTable COSTS = LevelCostTable.of(level -> new ResourceVector()
+            .with(ResourceType.Wood, 200 + 15 * level * level)
+            .with(ResourceType.Stone, 400 + 12 * level * level)
+            .with(ResourceType.Beer, 250 + 11 * level * level));
+
     @Getter
     @Setter
     public String name = "Harbor";
@@ -49,14 +56,6 @@ public class Harbor extends ProductionBuilding {
         super.setConstructionTimeSeconds(5);
 //        super.setConstructionTimeSeconds((long) (250 + 100 * Math.pow(super.getLevel(), 1.2)));
         super.setQueueLimit(2);
-        super.setResourcesRequiredLevelUp(new HashMap<>() {
-            {
-                int level = Harbor.super.getLevel();
-                put(ResourceType.Wood.name(), 200 + 15 * level * level);
-                put(ResourceType.Stone.name(), 400 + 12 * level * level);
-                put(ResourceType.Beer.name(), 250 + 11 * level * level);
-            }
-        });
-        super.checkProduction();
+        super.setResourcesRequiredLevelUp(COSTS.get(super.getLevel()));
     }
 }
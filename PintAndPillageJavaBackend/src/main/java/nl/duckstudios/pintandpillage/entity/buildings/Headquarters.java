@@ -2,16 +2,25 @@ package nl.duckstudios.pintandpillage.entity.buildings;
 
 import lombok.Getter;
 import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.helper.LevelCostTable;
+import nl.duckstudios.pintandpillage.helper.LevelTable;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 
 import javax.persistence.Entity;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
 
 @Entity
 public class Headquarters extends Building implements IStorable, IPopulatable {
 
+    private static final LevelCostTable COSTS = LevelCostTable.of(level -> new ResourceVector()
+            .with(ResourceType.Stone, (level * 25 + 25) * 25)
+            .with(ResourceType.Wood, (int) ((level * 20 + 20) * level * 0.5)));
+    private static final LevelTable CONSTRUCTION_TIME =
+            LevelTable.of(level -> 30 + ((45 + (level - 1) * 2L) * (long) Math.pow(level, 1.75)));
+    private static final LevelTable POPULATION_REQUIRED = LevelTable.of(level -> (12 + (int) Math.pow(6, level * 0.2)) * level);
+
     @Getter
     @Setter
     public String name = "Headquarters";
@@ -36,16 +45,10 @@ public class Headquarters extends Building implements IStorable, IPopulatable {
 
     @Override
     public void updateBuilding() {
-        super.setConstructionTimeSeconds(30 + ((45 + (super.getLevel() - 1) * 2L) * (long) Math.pow(super.getLevel(), 1.75)));
+        super.setConstructionTimeSeconds(CONSTRUCTION_TIME.get(super.getLevel()));
         this.populationCapacity = (super.getLevel() * 5) + 40;
         this.moralePerHour = super.getLevel() + 1;
-        super.setResourcesRequiredLevelUp(new HashMap<>() {
-            {
-                int level = Headquarters.super.getLevel();
-                put(ResourceType.Stone.name(), (level * 25 + 25) * 25);
-                put(ResourceType.Wood.name(), (int) ((level * 20 + 20) * level * 0.5));
-            }
-        });
+        super.setResourcesRequiredLevelUp(COSTS.get(super.getLevel()));
     }
 
     @Override
@@ -55,7 +58,7 @@ public class Headquarters extends Building implements IStorable, IPopulatable {
 
     @Override
     public int getPopulationRequired(int level) {
-        return (12 + (int) Math.pow(6, super.getLevel() * 0.2)) * super.getLevel();
+        return POPULATION_REQUIRED.getInt(super.getLevel());
     }
 
     @Override
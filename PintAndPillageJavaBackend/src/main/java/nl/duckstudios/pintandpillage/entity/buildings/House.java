@@ -2,15 +2,21 @@ package nl.duckstudios.pintandpillage.entity.buildings;
 
 import lombok.Getter;
 import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.helper.LevelCostTable;
+import nl.duckstudios.pintandpillage.helper.LevelTable;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 import nl.duckstudios.pintandpillage.helper.PopulationCalculator;
 
 import javax.persistence.Entity;
-import java.util.HashMap;
 
 @Entity
 public class House extends Building implements IPopulatable {
     private static final PopulationCalculator POPULATION_CALCULATOR = new PopulationCalculator();
+    private static final LevelTable POPULATION_CAPACITY = LevelTable.of(POPULATION_CALCULATOR::houseCapacity);
+    private static final LevelCostTable COSTS = LevelCostTable.of(level -> new ResourceVector()
+            .with(ResourceType.Wood, 10 + 25 * level + 8 * level * level)
+            .with(ResourceType.Stone, 8 + 20 * level + 6 * level * level));
     @Getter
     @Setter
     public String name = "House";
@@ -33,15 +39,9 @@ public class House extends Building implements IPopulatable {
     }
 
     public void updateBuilding() {
-        this.populationCapacity = POPULATION_CALCULATOR.houseCapacity(super.getLevel()); // REFACTOR (ITSTEN H2): Extract pure population formula for stable tests.
-        super.setResourcesRequiredLevelUp(new HashMap<>() {
-            {
-                int level = House.super.getLevel();
-                put(ResourceType.Wood.name(), 10 + 25 * level + 8 * level * level);
-                put(ResourceType.Stone.name(), 8 + 20 * level + 6 * level * level);
-            }
-        });
-        super.setConstructionTimeSeconds(12 + ((30 + (super.getLevel() - 1) * 2L) * (long) Math.pow(super.getLevel(), 1.6)));
+        this.populationCapacity = POPULATION_CAPACITY.getInt(super.getLevel());
+        super.setResourcesRequiredLevelUp(COSTS.get(super.getLevel()));
+        super.setConstructionTimeSeconds(DEFAULT_CONSTRUCTION_TIME.get(super.getLevel()));
     }
 
     @Override
@@ -1,5 +1,6 @@
 package nl.duckstudios.pintandpillage.entity.buildings;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
@@ -12,21 +13,24 @@ import nl.duckstudios.pintandpillage.entity.production.UnitProductionItem;
 import nl.duckstudios.pintandpillage.helper.UnitFactory;
 import nl.duckstudios.pintandpillage.model.ResearchType;
 import nl.duckstudios.pintandpillage.model.UnitsProductListData;
+import nl.duckstudios.pintandpillage.model.VillageEventType;
 import nl.duckstudios.pintandpillage.model.Unlock;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 
 @Entity
 public abstract class ProductionBuilding extends Building {
 
+    // Kept in start time order, the item in production is always the first one.
     @Getter
     @Setter
     @OneToMany(mappedBy = "productionBuilding", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @OrderBy("startTime ASC, id ASC")
     @JsonManagedReference
     private List<UnitProductionItem> productionQueue = new ArrayList<>();
 
@@ -35,7 +39,6 @@ public abstract class ProductionBuilding extends Building {
     private int queueLimit;
 
     @Getter
-    @Setter
     private LocalDateTime lastCollected = null;
 
     @Getter
@@ -68,6 +71,11 @@ public abstract class ProductionBuilding extends Building {
     @Setter
     private boolean _hasNotCollected = false;
 
+    // When the next unit of the first item is finished, until then collecting changes nothing.
+    @Transient
+    @JsonIgnore
+    private LocalDateTime nextCompletionTime;
+
     public ProductionBuilding() {
     }
 
@@ -81,11 +89,21 @@ public abstract class ProductionBuilding extends Building {
         super.resourceManager.subtractResources(super.getVillage(), unit.getResourcesRequiredToProduce());
     }
 
+    public void setLastCollected(LocalDateTime lastCollected) {
+        this.lastCollected = lastCollected;
+        this.nextCompletionTime = null;
+    }
+
     public void checkProduction() {
         this.collectProduction();
         this.updateUnlockedUnitsData();
     }
 
+    @Override
+    protected void updateProduction() {
+        this.collectProduction();
+    }
+
     private void checkAllowedToProduce(Unit unit, int amount) {
         if (!this.isAllowedToBuildUnit(unit)) {
             throw new ProductionConditionsNotMetException("Building can't produce unit");
@@ -93,7 +111,7 @@ public abstract class ProductionBuilding extends Building {
         if (unit.getResearchRequired() != ResearchType.None && !this.hasCompletedResearch(unit)) {
             throw new ProductionConditionsNotMetException("Unit not researched");
         }
-        if (!super.getVillage().hasEnoughPopulation(unit.populationRequiredPerUnit, amount)) {
+        if (!super.getVillage().hasEnoughPopulation(unit.getPopulationRequiredPerUnit(), amount)) {
             throw new ProductionConditionsNotMetException("Not enough population");
         }
         if (!super.resourceManager.hasEnoughResourcesAvailable(super.getVillage(), unit.getResourcesRequiredToProduce(), amount)) {
@@ -105,7 +123,19 @@ public abstract class ProductionBuilding extends Building {
         if (this.productionQueue.size() > this.queueLimit) {
             throw new BuildingConditionsNotMetException("The production queue is full");
         }
-        this.productionQueue.add(itemToAdd);
+        if (this.productionQueue.isEmpty()) {
+            // Nothing was produced while the queue was empty, production starts counting now.
+            this.setLastCollected(LocalDateTime.now());
+            this.lastCollectedTimeLeft = 0;
+        }
+        int index = this.productionQueue.size();
+        while (index > 0 && this.productionQueue.get(index - 1).getStartTime().isAfter(itemToAdd.getStartTime())) {
+            index--;
+        }
+        this.productionQueue.add(index, itemToAdd);
+        if (index == 0) {
+            this.nextCompletionTime = null;
+        }
     }
 
     private boolean hasCompletedResearch(Unit unitData) {
@@ -117,40 +147,76 @@ public abstract class ProductionBuilding extends Building {
         return this.unitsUnlockedAtLevel.stream().anyMatch(u -> super.getLevel() >= u.level && unitData.getUnitName() == u.unitType);
     }
 
+    /**
+     * Produces every unit that finished since the last collection, going through the queue front to back once.
+     */
     private void collectProduction() {
+        // An idle building is left untouched, so loading it does not make it dirty.
+        if (this.productionQueue.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
         if (this.lastCollected == null) {
-            this.lastCollected = LocalDateTime.now();
+            this.setLastCollected(now);
+        }
+        if (now.isBefore(this.getNextCompletionTime())) {
+            return;
         }
 
-        double secondsProduced = (double) ChronoUnit.SECONDS.between(this.lastCollected, LocalDateTime.now()) + this.lastCollectedTimeLeft;
-        this.lastCollected = LocalDateTime.now();
+        double secondsProduced = (double) ChronoUnit.SECONDS.between(this.lastCollected, now) + this.lastCollectedTimeLeft;
+        this.setLastCollected(now);
 
-        while (this.productionQueue.size() > 0) {
-            UnitProductionItem unit = this.getFirstItemFromQueue();
-            float actualProductionTime = unit.getSecondsToProduce() * 1 / this.productionSpeed;
+        Iterator<UnitProductionItem> queue = this.productionQueue.iterator();
+        while (queue.hasNext()) {
+            UnitProductionItem unit = queue.next();
+            float actualProductionTime = this.getActualProductionTime(unit);
             int amountThatCanBeProduced = (int) Math.min(secondsProduced / actualProductionTime, unit.getAmountToProduce());
 
             secondsProduced -= amountThatCanBeProduced * actualProductionTime;
 
-            unit.produce(super.getVillage(), amountThatCanBeProduced);
+            if (amountThatCanBeProduced > 0) {
+                unit.produce(super.getVillage(), amountThatCanBeProduced);
+            }
 
-            if (unit.getAmountToProduce() <= 0) {
-                super.getVillage().addToCombatLog(LocalDateTime.now(),
-                        "Finished producing " + unit.getUnitToProduce().getUnitName());
-                this.productionQueue.remove(unit);
-                unit.setProductionBuilding(null);
-            } else {
+            if (unit.getAmountToProduce() > 0) {
                 this.lastCollectedTimeLeft = (float) secondsProduced;
                 return;
             }
+            super.getVillage().addToCombatLog(now,
+                    "Finished producing " + unit.getUnitToProduce().getUnitName(), VillageEventType.UNITS_PRODUCED);
+            queue.remove();
+            unit.setProductionBuilding(null);
         }
         this.lastCollectedTimeLeft = 0;
     }
 
-    private UnitProductionItem getFirstItemFromQueue() {
-        UnitProductionItem result = this.productionQueue
-                .stream().parallel().min(Comparator.comparing(UnitProductionItem::getStartTime)).orElse(null);
-        return result;
+    private LocalDateTime getNextCompletionTime() {
+        if (this.nextCompletionTime == null) {
+            float actualProductionTime = this.getActualProductionTime(this.productionQueue.get(0));
+            long secondsLeft = (long) Math.ceil(actualProductionTime - this.lastCollectedTimeLeft);
+            this.nextCompletionTime = this.lastCollected.plusSeconds(Math.max(0, secondsLeft));
+        }
+        return this.nextCompletionTime;
+    }
+
+    private float getActualProductionTime(UnitProductionItem unit) {
+        return unit.getSecondsToProduce() * 1 / this.productionSpeed;
+    }
+
+    @Override
+    public LocalDateTime getNextTransitionTime() {
+        LocalDateTime constructionFinishTime = super.getNextTransitionTime();
+        if (this.productionQueue.isEmpty() || this.lastCollected == null) {
+            return constructionFinishTime;
+        }
+
+        UnitProductionItem unit = this.productionQueue.get(0);
+        long secondsLeft = (long) Math.ceil(unit.getAmountToProduce() * this.getActualProductionTime(unit) - this.lastCollectedTimeLeft);
+        LocalDateTime productionFinishTime = this.lastCollected.plusSeconds(Math.max(0, secondsLeft));
+        if (constructionFinishTime == null || productionFinishTime.isBefore(constructionFinishTime)) {
+            return productionFinishTime;
+        }
+        return constructionFinishTime;
     }
 
     protected void updateUnlockedUnitsData() {
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 import nl.duckstudios.pintandpillage.Exceptions.ResearchConditionsNotMetException;
 import nl.duckstudios.pintandpillage.entity.researching.Research;
+import nl.duckstudios.pintandpillage.model.VillageEventType;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
@@ -48,6 +49,16 @@ public abstract class ResearchBuilding extends Building {
         super.resourceManager.subtractResources(super.getVillage(), research.getResourcesRequiredToResearch());
     }
 
+    @Override
+    public LocalDateTime getNextTransitionTime() {
+        LocalDateTime constructionFinishTime = super.getNextTransitionTime();
+        if (constructionFinishTime == null || (this.currentResearchFinishTime != null
+                && this.currentResearchFinishTime.isBefore(constructionFinishTime))) {
+            return this.currentResearchFinishTime;
+        }
+        return constructionFinishTime;
+    }
+
     private void checkIsAbaleToStartResearch(Research research) {
         if (this.isResearchInProgress) {
             throw new ResearchConditionsNotMetException("A research is already in progress");
@@ -74,10 +85,12 @@ public abstract class ResearchBuilding extends Building {
             }
             this.isResearchInProgress = false;
             this.currentResearch.setResearchLevel(this.currentResearch.getResearchLevel() + 1);
+            super.getVillage().markResearchChanged();
             this.researchTimeLeft = null;
 
             super.getVillage().addToVillageLog(LocalDateTime.now(),
-                    "Finished " + this.currentResearch.getResearchName() + " research to level " + this.currentResearch.getResearchLevel());
+                    "Finished " + this.currentResearch.getResearchName() + " research to level " + this.currentResearch.getResearchLevel(),
+                    VillageEventType.RESEARCH_FINISHED);
             this.currentResearch = null;
             this.currentResearchFinishTime = null;
         }
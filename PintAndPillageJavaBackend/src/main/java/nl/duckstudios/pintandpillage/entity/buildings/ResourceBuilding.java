@@ -7,14 +7,16 @@ import nl.duckstudios.pintandpillage.model.ResourceType;
 
 import javax.persistence.Entity;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
-import java.util.Map;
 
+/**
+ * A building that produces resources for its village. The production itself is calculated by the village from the
+ * rates of all its resource buildings.
+ */
 @NoArgsConstructor
 @Entity
 public abstract class ResourceBuilding extends Building {
 
+    // Only read for villages stored before the village kept track of its resources as a whole.
     @Getter
     @Setter
     private LocalDateTime lastCollected;
@@ -30,41 +32,4 @@ public abstract class ResourceBuilding extends Building {
     @Setter
     @Getter
     private ResourceType generatesResource;
-
-    public void collectResources() {
-        //This means the building is still under construction, so no resources are produced.
-        if (lastCollected.isAfter(LocalDateTime.now())) {
-            return;
-        }
-
-        int minutesInAHour = 60;
-        double hoursToCollect = (double) ChronoUnit.MINUTES.between(this.lastCollected, LocalDateTime.now()) / minutesInAHour;
-        int resourcesGenerated = (int) (hoursToCollect * this.resourcesPerHour);
-
-        if (resourcesGenerated == 0) {
-            return;
-        }
-
-        if (this.requiresResources != null) {
-            int resourcesOfRequiredType = super.getVillage().getVillageResources().get(this.requiresResources.name());
-            resourcesGenerated = Math.min(resourcesOfRequiredType, resourcesGenerated);
-            Map<String, Integer> resourcesMap = new HashMap<>();
-            resourcesMap.put(this.requiresResources.name(), resourcesGenerated);
-            super.resourceManager.subtractResources(super.getVillage(), resourcesMap);
-        }
-
-        super.resourceManager.addResources(super.getVillage(), resourcesGenerated, this.generatesResource.name());
-        this.lastCollected = LocalDateTime.now();
-    }
-
-    @Override
-    protected void updateVillageState() {
-        if (super.getLevelupFinishedTime() != null) {
-            this.lastCollected = getLevelupFinishedTime();
-        }
-
-        this.collectResources();
-    }
-
-
 }
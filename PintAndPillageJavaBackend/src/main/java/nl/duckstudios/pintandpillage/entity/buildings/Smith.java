@@ -2,14 +2,19 @@ package nl.duckstudios.pintandpillage.entity.buildings;
 
 import lombok.Getter;
 import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.helper.LevelCostTable;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 
 import javax.persistence.Entity;
-import java.util.HashMap;
 
 @Entity
 public class Smith extends ResearchBuilding {
 
+    private static final LevelCostTable COSTS = LevelCostTable.of(level -> new ResourceVector()
+            .with(ResourceType.Wood, 1000 + 60 * level)
+            .with(ResourceType.Stone, 150 + 50 * level));
+
     @Getter
     @Setter
     public String name = "Smith";
@@ -22,12 +27,6 @@ public class Smith extends ResearchBuilding {
     @Override
     public void updateBuilding() {
         super.setConstructionTimeSeconds(5);
-        super.setResourcesRequiredLevelUp(new HashMap<>() {
-            {
-                int level = Smith.super.getLevel();
-                put(ResourceType.Wood.name(), 1000 + 60 * level);
-                put(ResourceType.Stone.name(), 150 + 50 * level);
-            }
-        });
+        super.setResourcesRequiredLevelUp(COSTS.get(super.getLevel()));
     }
 }
@@ -2,14 +2,17 @@ package nl.duckstudios.pintandpillage.entity.buildings;
 
 import lombok.Getter;
 import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.helper.LevelCostTable;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 
 import javax.persistence.Entity;
-import java.util.HashMap;
 
 @Entity
 public class Storage extends Building implements IStorable {
 
+    private static final LevelCostTable COSTS = LevelCostTable.of(level -> new ResourceVector().with(ResourceType.Stone, ((level + 1) * 25) * 25));
+
     @Getter
     @Setter
     public String name = "Storage";
@@ -31,11 +34,6 @@ public class Storage extends Building implements IStorable {
     public void updateBuilding() {
         super.setConstructionTimeSeconds(5 + 30L * super.getLevel() + 1);
         this.resourceCapacity = 600 + 2500 * super.getLevel() + 1;
-        super.setResourcesRequiredLevelUp(new HashMap<>() {
-            {
-                int level = Storage.super.getLevel();
-                put(ResourceType.Stone.name(), ((level + 1) * 25) * 25);
-            }
-        });
+        super.setResourcesRequiredLevelUp(COSTS.get(super.getLevel()));
     }
 }
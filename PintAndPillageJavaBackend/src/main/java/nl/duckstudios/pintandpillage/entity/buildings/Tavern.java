@@ -2,16 +2,21 @@ package nl.duckstudios.pintandpillage.entity.buildings;
 
 import lombok.Getter;
 import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.helper.LevelCostTable;
+import nl.duckstudios.pintandpillage.helper.LevelTable;
 import nl.duckstudios.pintandpillage.helper.ResourceProductionCalculator;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 
 import javax.persistence.Entity;
-import java.util.HashMap;
 
 @Entity
 public class Tavern extends ResourceBuilding {
 
     private static final ResourceProductionCalculator PRODUCTION_CALCULATOR = new ResourceProductionCalculator();
+    private static final LevelTable RESOURCES_PER_HOUR =
+            LevelTable.of(level -> PRODUCTION_CALCULATOR.productionPerHour(ResourceType.Beer, level));
+    private static final LevelCostTable COSTS = LevelCostTable.of(level -> new ResourceVector().with(ResourceType.Stone, level * 25 + 25));
 
     @Getter
     @Setter
@@ -28,19 +33,13 @@ public class Tavern extends ResourceBuilding {
 //        return (int)(10 + 6 * Math.pow(super.getLevel(), 1.15));
 //    }
     private int updateResourcesPerHour() {
-        return PRODUCTION_CALCULATOR
-                .productionPerHour(ResourceType.Beer, super.getLevel()); // REFACTOR (ITSTEN H2): Extract pure production function for deterministic tests.
+        return RESOURCES_PER_HOUR.getInt(super.getLevel());
     }
 
     @Override
     public void updateBuilding() {
-        super.setConstructionTimeSeconds(12 + ((30 + (super.getLevel() - 1) * 2L) * (long) Math.pow(super.getLevel(), 1.6)));
+        super.setConstructionTimeSeconds(DEFAULT_CONSTRUCTION_TIME.get(super.getLevel()));
         super.setResourcesPerHour(this.updateResourcesPerHour());
-        super.setResourcesRequiredLevelUp(new HashMap<>() {
-            {
-                int level = Tavern.super.getLevel();
-                put(ResourceType.Stone.name(), level * 25 + 25);
-            }
-        });
+        super.setResourcesRequiredLevelUp(COSTS.get(super.getLevel()));
     }
 }
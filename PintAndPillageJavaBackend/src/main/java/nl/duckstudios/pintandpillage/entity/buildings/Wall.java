@@ -2,14 +2,22 @@ package nl.duckstudios.pintandpillage.entity.buildings;
 
 import lombok.Getter;
 import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.helper.LevelCostTable;
+import nl.duckstudios.pintandpillage.helper.LevelTable;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 
 import javax.persistence.Entity;
-import java.util.HashMap;
 
 @Entity
 public class Wall extends Building implements IDefenceable {
 
+    private static final LevelCostTable COSTS = LevelCostTable.of(level -> new ResourceVector()
+            .with(ResourceType.Wood, 300 + (int) Math.pow(50, level * 0.2))
+            .with(ResourceType.Stone, 300 + (int) Math.pow(125, level * 0.2))
+            .with(ResourceType.Beer, 100 + (int) Math.pow(25, level * 0.2)));
+    private static final LevelTable DEFENCE_BONUS = LevelTable.of(level -> 50 + (25 * level) + (int) Math.pow(25, level * 0.2));
+
     @Getter
     @Setter
     public String name = "Wall";
@@ -24,16 +32,9 @@ public class Wall extends Building implements IDefenceable {
 
     @Override
     public void updateBuilding() {
-        super.setConstructionTimeSeconds(12 + ((30 + (super.getLevel() - 1) * 2L) * (long) Math.pow(super.getLevel(), 1.6)));
-        this.defenceBonus = 50 + (25 * super.getLevel()) + (int) Math.pow(25, super.getLevel() * 0.2);
-        super.setResourcesRequiredLevelUp(new HashMap<>() {
-            {
-                int level = Wall.super.getLevel();
-                put(ResourceType.Wood.name(), 300 + (int) Math.pow(50, level * 0.2));
-                put(ResourceType.Stone.name(), 300 + (int) Math.pow(125, level * 0.2));
-                put(ResourceType.Beer.name(), 100 + (int) Math.pow(25, level * 0.2));
-            }
-        });
+        super.setConstructionTimeSeconds(DEFAULT_CONSTRUCTION_TIME.get(super.getLevel()));
+        this.defenceBonus = DEFENCE_BONUS.getInt(super.getLevel());
+        super.setResourcesRequiredLevelUp(COSTS.get(super.getLevel()));
     }
 
     @Override
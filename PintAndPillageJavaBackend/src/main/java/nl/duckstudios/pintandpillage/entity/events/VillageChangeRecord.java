@@ -0,0 +1,44 @@
+package nl.duckstudios.pintandpillage.entity.events;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A village change as it is passed on to the other instances, which push it to the players connected to them and
+ * put villages founded elsewhere on their world.
+ * Records are only kept for a short while.
+ */
+@Entity
+@Table(name = "VillageChanges", indexes = @Index(name = "idx_village_changes_created_at", columnList = "created_at"))
+@NoArgsConstructor
+public class VillageChangeRecord {
+
+    @Id
+    @GeneratedValue
+    @Getter
+    private long id;
+
+    @Getter
+    private String instanceId;
+
+    @Getter
+    private long userId;
+
+    // The change as JSON.
+    @Getter
+    @Column(columnDefinition = "text")
+    private String change;
+
+    @Getter
+    private LocalDateTime createdAt;
+
+    public VillageChangeRecord(String instanceId, long userId, String change, LocalDateTime createdAt) {
+        this.instanceId = instanceId;
+        this.userId = userId;
+        this.change = change;
+        this.createdAt = createdAt;
+    }
+}
@@ -1,8 +1,5 @@
 package nl.duckstudios.pintandpillage.entity.logs;
 
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.model.LogTypes;
 
@@ -10,13 +7,13 @@ import javax.persistence.Entity;
 import java.time.LocalDateTime;
 
 @Entity
-@NoArgsConstructor
 public class CombatLog extends LogLine {
-    @Getter
-    @Setter
-    private String type = LogTypes.COMBAT_LOG.name();
+
+    public CombatLog() {
+        super.setType(LogTypes.COMBAT_LOG.name());
+    }
 
     public CombatLog(LocalDateTime timestamp, String message, Village village) {
-        super(timestamp, message, village);
+        super(LogTypes.COMBAT_LOG.name(), timestamp, message, village);
     }
 }
@@ -10,6 +10,7 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity(name = "Logs")
+@Table(indexes = @Index(name = "idx_logs_village_type_date", columnList = "village_village_id, type, date"))
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @NoArgsConstructor
 public class LogLine {
@@ -26,13 +27,18 @@ public class LogLine {
     @Setter
     private String message;
 
+    @Getter
+    @Setter
+    private String type;
+
     @Getter
     @Setter
     @ManyToOne
     @JsonIgnore
     private Village village;
 
-    public LogLine(LocalDateTime date, String message, Village village) {
+    public LogLine(String type, LocalDateTime date, String message, Village village) {
+        this.type = type;
         this.date = date;
         this.message = message;
         this.village = village;
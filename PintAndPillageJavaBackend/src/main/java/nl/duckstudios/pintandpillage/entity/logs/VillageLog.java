@@ -1,8 +1,5 @@
 package nl.duckstudios.pintandpillage.entity.logs;
 
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.model.LogTypes;
 
@@ -10,14 +7,13 @@ import javax.persistence.Entity;
 import java.time.LocalDateTime;
 
 @Entity
-@NoArgsConstructor
 public class VillageLog extends LogLine {
 
-    @Getter
-    @Setter
-    private String type = LogTypes.VILLAGE_LOG.name();
+    public VillageLog() {
+        super.setType(LogTypes.VILLAGE_LOG.name());
+    }
 
     public VillageLog(LocalDateTime timestamp, String message, Village village) {
-        super(timestamp, message, village);
+        super(LogTypes.VILLAGE_LOG.name(), timestamp, message, village);
     }
 }
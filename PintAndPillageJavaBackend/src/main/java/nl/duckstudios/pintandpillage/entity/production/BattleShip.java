@@ -1,68 +1,25 @@
 package nl.duckstudios.pintandpillage.entity.production;
 
-import lombok.Getter;
-import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.model.ResearchType;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 import nl.duckstudios.pintandpillage.model.UnitType;
 
-import javax.persistence.Entity;
-import java.time.LocalTime;
-import java.util.HashMap;
-
-@Entity
 public class BattleShip extends Unit implements ShipUnit {
 
-    @Setter
-    @Getter
-    public ResearchType researchRequired = ResearchType.BattleShip;
-    @Setter
-    @Getter
-    private long baseSecondsToProduce = 10;
-    @Setter
-    @Getter
-    private UnitType unitName = UnitType.BattleShip;
-    @Setter
-    @Getter
-    private int attack = 50;
-    @Setter
-    @Getter
-    private int defence = 0;
-    @Setter
-    @Getter
-    private int health = 10;
-    @Setter
-    @Getter
-    private int speed = 50;
-    @Setter
-    @Getter
-    private int plunderAmount = 500;
-    @Setter
-    private int shipCapacity = 50;
-    @Setter
-    @Getter
-    private String description = "A viking longship that can carry many raiders";
-    @Setter
-    @Getter
-    private int populationRequiredPerUnit = 3;
-
+    private static final int SHIP_CAPACITY = 50;
 
     public BattleShip() {
-        LocalTime localTime = LocalTime.of(0, 0, 0);
-        localTime = localTime.plusSeconds(this.baseSecondsToProduce);
-        super.setBaseTimeToProduce(localTime);
-
-        super.resourcesRequiredToProduce = new HashMap<>() {
-            {
-                put(ResourceType.Wood.name(), 500);
-                put(ResourceType.Stone.name(), 200);
-                put(ResourceType.Beer.name(), 100);
-            }
-        };
+        super(UnitType.BattleShip, ResearchType.BattleShip, 50, 0, 10, 50, 500,
+                "A viking longship that can carry many raiders", 3, 10,
+                new ResourceVector()
+                        .with(ResourceType.Wood, 500)
+                        .with(ResourceType.Stone, 200)
+                        .with(ResourceType.Beer, 100));
     }
 
     @Override
     public int getShipCapacity() {
-        return this.shipCapacity;
+        return SHIP_CAPACITY;
     }
 }
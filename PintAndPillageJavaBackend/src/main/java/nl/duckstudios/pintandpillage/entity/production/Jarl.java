@@ -1,58 +1,17 @@
 package nl.duckstudios.pintandpillage.entity.production;
 
-import lombok.Getter;
-import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.model.ResearchType;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 import nl.duckstudios.pintandpillage.model.UnitType;
 
-import javax.persistence.Entity;
-import java.time.LocalTime;
-import java.util.HashMap;
-
-@Entity
 public class Jarl extends Unit {
 
-    @Setter
-    @Getter
-    public ResearchType researchRequired = ResearchType.Jarl;
-    @Setter
-    @Getter
-    private long baseSecondsToProduce = 5;
-    @Setter
-    @Getter
-    private UnitType unitName = UnitType.Jarl;
-    @Setter
-    @Getter
-    private int attack = 15;
-    @Setter
-    @Getter
-    private int defence = 15;
-    @Setter
-    @Getter
-    private int health = 20;
-    @Setter
-    @Getter
-    private int speed = 10;
-    @Setter
-    @Getter
-    private int plunderAmount = 0;
-    @Setter
-    @Getter
-    private String description = "A branded leader ready to create new settlements";
-    @Setter
-    @Getter
-    private int populationRequiredPerUnit = 1;
-
     public Jarl() {
-        LocalTime localTime = LocalTime.of(0, 0, 0);
-        localTime = localTime.plusSeconds(this.baseSecondsToProduce);
-        super.setBaseTimeToProduce(localTime);
-        super.resourcesRequiredToProduce = new HashMap<>() {
-            {
-                put(ResourceType.Wood.name(), 15);
-                put(ResourceType.Beer.name(), 15);
-            }
-        };
+        super(UnitType.Jarl, ResearchType.Jarl, 15, 15, 20, 10, 0,
+                "A branded leader ready to create new settlements", 1, 5,
+                new ResourceVector()
+                        .with(ResourceType.Wood, 15)
+                        .with(ResourceType.Beer, 15));
     }
 }
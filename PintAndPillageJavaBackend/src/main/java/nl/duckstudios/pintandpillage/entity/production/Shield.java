@@ -1,59 +1,18 @@
 package nl.duckstudios.pintandpillage.entity.production;
 
-import lombok.Getter;
-import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.model.ResearchType;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 import nl.duckstudios.pintandpillage.model.UnitType;
 
-import javax.persistence.Entity;
-import java.time.LocalTime;
-import java.util.HashMap;
-
-@Entity
 public class Shield extends Unit {
 
-    @Setter
-    @Getter
-    public ResearchType researchRequired = ResearchType.Shield;
-    @Setter
-    @Getter
-    private long baseSecondsToProduce = 610;
-    @Setter
-    @Getter
-    private UnitType unitName = UnitType.Shield;
-    @Setter
-    @Getter
-    private int attack = 5;
-    @Setter
-    @Getter
-    private int defence = 50;
-    @Setter
-    @Getter
-    private int health = 40;
-    @Setter
-    @Getter
-    private int speed = 5;
-    @Setter
-    @Getter
-    private int plunderAmount = 0;
-    @Setter
-    @Getter
-    private String description = "Great defensive unit that carries a large rounded shield and a small axe";
-    @Setter
-    @Getter
-    private int populationRequiredPerUnit = 1;
-
     public Shield() {
-        LocalTime localTime = LocalTime.of(0, 0, 0);
-        localTime = localTime.plusSeconds(this.baseSecondsToProduce);
-        super.setBaseTimeToProduce(localTime);
-        super.resourcesRequiredToProduce = new HashMap<>() {
-            {
-                put(ResourceType.Wood.name(), 20);
-                put(ResourceType.Beer.name(), 50);
-                put(ResourceType.Stone.name(), 50);
-            }
-        };
+        super(UnitType.Shield, ResearchType.Shield, 5, 50, 40, 5, 0,
+                "Great defensive unit that carries a large rounded shield and a small axe", 1, 610,
+                new ResourceVector()
+                        .with(ResourceType.Wood, 20)
+                        .with(ResourceType.Beer, 50)
+                        .with(ResourceType.Stone, 50));
     }
 }
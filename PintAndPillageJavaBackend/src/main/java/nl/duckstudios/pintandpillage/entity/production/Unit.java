@@ -1,51 +1,46 @@
 package nl.duckstudios.pintandpillage.entity.production;
 
-import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
-import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Getter;
-import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.model.ResearchType;
 import nl.duckstudios.pintandpillage.model.UnitType;
 
-import javax.persistence.*;
 import java.time.LocalTime;
-import java.util.Map;
 
-@Entity
-@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
-public class Unit {
-    @Getter
-    public UnitType unitName;
-    @Getter
-    public int attack;
-    @Getter
-    public int defence;
-    @Getter
-    public int health;
-    @Getter
-    public int speed;
-    @Getter
-    public String description;
-    @Getter
-    public int populationRequiredPerUnit;
-    @Getter
-    public long baseSecondsToProduce;
+/**
+ * The stats of a unit type. There is one shared definition per type in the UnitFactory, stacks of units only
+ * store the type, so the stats can not be changed after the definition is created.
+ */
+@Getter
+public abstract class Unit {
 
-    @Getter
-    @Setter
-    public int plunderAmount;
-    @Getter
-    @Transient
-    @JsonDeserialize
-    @JsonSerialize
-    public Map<String, Integer> resourcesRequiredToProduce;
-    @Id
-    @GeneratedValue
-    private long id;
-    @Getter
-    @Setter
-    private ResearchType researchRequired;
-    @Getter
-    @Setter
-    private LocalTime baseTimeToProduce;
+    private final UnitType unitName;
+    private final ResearchType researchRequired;
+    private final int attack;
+    private final int defence;
+    private final int health;
+    private final int speed;
+    private final int plunderAmount;
+    private final String description;
+    private final int populationRequiredPerUnit;
+    private final long baseSecondsToProduce;
+    private final LocalTime baseTimeToProduce;
+    private final ResourceVector resourcesRequiredToProduce;
+
+    protected Unit(UnitType unitName, ResearchType researchRequired, int attack, int defence, int health, int speed,
+                   int plunderAmount, String description, int populationRequiredPerUnit, long baseSecondsToProduce,
+                   ResourceVector resourcesRequiredToProduce) {
+        this.unitName = unitName;
+        this.researchRequired = researchRequired;
+        this.attack = attack;
+        this.defence = defence;
+        this.health = health;
+        this.speed = speed;
+        this.plunderAmount = plunderAmount;
+        this.description = description;
+        this.populationRequiredPerUnit = populationRequiredPerUnit;
+        this.baseSecondsToProduce = baseSecondsToProduce;
+        this.baseTimeToProduce = LocalTime.of(0, 0, 0).plusSeconds(baseSecondsToProduce);
+        this.resourcesRequiredToProduce = resourcesRequiredToProduce.readOnlyCopy();
+    }
 }
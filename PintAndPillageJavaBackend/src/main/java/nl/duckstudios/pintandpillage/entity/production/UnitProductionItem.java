@@ -6,6 +6,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.entity.buildings.ProductionBuilding;
+import nl.duckstudios.pintandpillage.helper.UnitFactory;
+import nl.duckstudios.pintandpillage.model.UnitType;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -25,9 +27,8 @@ public class UnitProductionItem {
     @JsonBackReference
     private ProductionBuilding productionBuilding;
 
-    @Getter @Setter
-    @OneToOne(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
-    private Unit unitToProduce;
+    @Enumerated(EnumType.STRING)
+    private UnitType unitType;
 
     @Getter @Setter
     private long secondsToProduce;
@@ -51,7 +52,7 @@ public class UnitProductionItem {
     private int startAmountToProduce;
 
     public UnitProductionItem(Unit unitToProduce, int amountToProduce) {
-        this.unitToProduce = unitToProduce;
+        this.unitType = unitToProduce.getUnitName();
         this.amountToProduce = amountToProduce;
         this.startAmountToProduce = amountToProduce;
         this.startTime = LocalDateTime.now();
@@ -62,12 +63,23 @@ public class UnitProductionItem {
         this.totalTimeToProduce = localTime.plusSeconds(this.totalSecondsToProduce);
     }
 
+    @PostLoad
+    private void afterLoad() {
+        if (this.unitType == null) {
+            throw new IllegalStateException("Production item " + this.id + " has no unit type, the unit type backfill has not run");
+        }
+    }
+
+    public Unit getUnitToProduce() {
+        return UnitFactory.getUnitStatic(this.unitType);
+    }
+
     public void produce(Village village, int amount){
         this.amountToProduce -= amount;
         this.addProductionToVillage(village, amount);
     }
 
     protected void addProductionToVillage(Village village, int amount){
-        village.addUnit(this.unitToProduce, amount);
+        village.addUnit(this.getUnitToProduce(), amount);
     }
 }
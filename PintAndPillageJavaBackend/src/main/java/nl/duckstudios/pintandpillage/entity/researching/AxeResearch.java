@@ -1,11 +1,11 @@
 package nl.duckstudios.pintandpillage.entity.researching;
 
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.model.ResearchType;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 
 import javax.persistence.Entity;
 import java.time.LocalTime;
-import java.util.HashMap;
 
 @Entity
 public class AxeResearch extends Research {
@@ -14,14 +14,11 @@ public class AxeResearch extends Research {
         super.setResearchName(ResearchType.Axe);
         super.setBaseSecondsToResearch(7200);
         super.setBuildingLevelRequirement(3 + (super.getResearchLevel() * 2));
-        super.setResourcesRequiredToResearch(new HashMap<>() {
-            {
-                int level = AxeResearch.super.getResearchLevel();
-                put(ResourceType.Wood.name(), 1200 * (level + 1));
-                put(ResourceType.Stone.name(), 1200 * (level + 1));
-                put(ResourceType.Beer.name(), 1200 * (level + 1));
-            }
-        });
+        int level = super.getResearchLevel();
+        super.setResourcesRequiredToResearch(new ResourceVector()
+                .with(ResourceType.Wood, 1200 * (level + 1))
+                .with(ResourceType.Stone, 1200 * (level + 1))
+                .with(ResourceType.Beer, 1200 * (level + 1)));
         super.setSecondsToResearch(LocalTime.of(0, 0, 0).plusSeconds(super.getBaseSecondsToResearch()));
     }
 }
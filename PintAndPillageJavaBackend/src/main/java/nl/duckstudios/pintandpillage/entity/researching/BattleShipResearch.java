@@ -1,11 +1,11 @@
 package nl.duckstudios.pintandpillage.entity.researching;
 
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.model.ResearchType;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 
 import javax.persistence.Entity;
 import java.time.LocalTime;
-import java.util.HashMap;
 
 @Entity
 public class BattleShipResearch extends Research {
@@ -14,14 +14,11 @@ public class BattleShipResearch extends Research {
         super.setResearchName(ResearchType.BattleShip);
         super.setBaseSecondsToResearch(20000);
         super.setBuildingLevelRequirement(10 + (super.getResearchLevel() * 2));
-        super.setResourcesRequiredToResearch(new HashMap<>() {
-            {
-                int level = BattleShipResearch.super.getResearchLevel();
-                put(ResourceType.Wood.name(), 8000 * (level + 1));
-                put(ResourceType.Stone.name(), 8000 * (level + 1));
-                put(ResourceType.Beer.name(), 8000 * (level + 1));
-            }
-        });
+        int level = super.getResearchLevel();
+        super.setResourcesRequiredToResearch(new ResourceVector()
+                .with(ResourceType.Wood, 8000 * (level + 1))
+                .with(ResourceType.Stone, 8000 * (level + 1))
+                .with(ResourceType.Beer, 8000 * (level + 1)));
         super.setSecondsToResearch(LocalTime.of(0, 0, 0).plusSeconds(super.getBaseSecondsToResearch()));
     }
 }
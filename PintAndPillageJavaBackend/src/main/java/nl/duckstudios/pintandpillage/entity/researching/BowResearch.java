@@ -1,11 +1,11 @@
 package nl.duckstudios.pintandpillage.entity.researching;
 
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.model.ResearchType;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 
 import javax.persistence.Entity;
 import java.time.LocalTime;
-import java.util.HashMap;
 
 @Entity
 public class BowResearch extends Research {
@@ -14,14 +14,11 @@ public class BowResearch extends Research {
         super.setResearchName(ResearchType.Bow);
         super.setBaseSecondsToResearch(13200);
         super.setBuildingLevelRequirement(8 + (super.getResearchLevel() * 2));
-        super.setResourcesRequiredToResearch(new HashMap<>() {
-            {
-                int level = BowResearch.super.getResearchLevel();
-                put(ResourceType.Wood.name(), 4100 * (level + 1));
-                put(ResourceType.Stone.name(), 4100 * (level + 1));
-                put(ResourceType.Beer.name(), 4100 * (level + 1));
-            }
-        });
+        int level = super.getResearchLevel();
+        super.setResourcesRequiredToResearch(new ResourceVector()
+                .with(ResourceType.Wood, 4100 * (level + 1))
+                .with(ResourceType.Stone, 4100 * (level + 1))
+                .with(ResourceType.Beer, 4100 * (level + 1)));
         super.setSecondsToResearch(LocalTime.of(0, 0, 0).plusSeconds(super.getBaseSecondsToResearch()));
     }
 }
@@ -1,11 +1,11 @@
 package nl.duckstudios.pintandpillage.entity.researching;
 
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.model.ResearchType;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 
 import javax.persistence.Entity;
 import java.time.LocalTime;
-import java.util.HashMap;
 
 @Entity
 public class DefenceShipResearch extends Research {
@@ -14,14 +14,11 @@ public class DefenceShipResearch extends Research {
         super.setResearchName(ResearchType.DefenceShip);
         super.setBaseSecondsToResearch(18000);
         super.setBuildingLevelRequirement(12 + (super.getResearchLevel() * 3));
-        super.setResourcesRequiredToResearch(new HashMap<>() {
-            {
-                int level = DefenceShipResearch.super.getResearchLevel();
-                put(ResourceType.Wood.name(), 10000 * (level + 1));
-                put(ResourceType.Stone.name(), 7000 * (level + 1));
-                put(ResourceType.Beer.name(), 11000 * (level + 1));
-            }
-        });
+        int level = super.getResearchLevel();
+        super.setResourcesRequiredToResearch(new ResourceVector()
+                .with(ResourceType.Wood, 10000 * (level + 1))
+                .with(ResourceType.Stone, 7000 * (level + 1))
+                .with(ResourceType.Beer, 11000 * (level + 1)));
         super.setSecondsToResearch(LocalTime.of(0, 0, 0).plusSeconds(super.getBaseSecondsToResearch()));
     }
 }
@@ -1,11 +1,11 @@
 package nl.duckstudios.pintandpillage.entity.researching;
 
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.model.ResearchType;
 import nl.duckstudios.pintandpillage.model.ResourceType;
 
 import javax.persistence.Entity;
 import java.time.LocalTime;
-import java.util.HashMap;
 
 @Entity
 public class JarlResearch extends Research {
@@ -14,14 +14,11 @@ public class JarlResearch extends Research {
         super.setResearchName(ResearchType.Jarl);
         super.setBaseSecondsToResearch(5);
         super.setBuildingLevelRequirement(1 + (super.getResearchLevel() * 3));
-        super.setResourcesRequiredToResearch(new HashMap<>() {
-            {
-                int level = JarlResearch.super.getResearchLevel();
-                put(ResourceType.Wood.name(), 10 * (level + 1));
-                put(ResourceType.Stone.name(), 10 * (level + 1));
-                put(ResourceType.Beer.name(), 10 * (level + 1));
-            }
-        });
+        int level = super.getResearchLevel();
+        super.setResourcesRequiredToResearch(new ResourceVector()
+                .with(ResourceType.Wood, 10 * (level + 1))
+                .with(ResourceType.Stone, 10 * (level + 1))
+                .with(ResourceType.Beer, 10 * (level + 1)));
         super.setSecondsToResearch(LocalTime.of(0, 0, 0).plusSeconds(super.getBaseSecondsToResearch()));
     }
 }
@@ -3,12 +3,12 @@ package nl.duckstudios.pintandpillage.entity.researching;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import lombok.Getter;
 import lombok.Setter;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.model.ResearchType;
 
 import javax.persistence.*;
 import java.time.LocalTime;
-import java.util.Map;
 
 @Entity
 public class Research {
@@ -39,8 +39,8 @@ public class Research {
 
     @Getter
     @Setter
-    @ElementCollection
-    private Map<String, Integer> resourcesRequiredToResearch;
+    @Embedded
+    private ResourceVector resourcesRequiredToResearch;
 
     @Getter
     @Setter
@@ -50,4 +50,11 @@ public class Research {
 
     public Research() {
     }
+
+    @PostLoad
+    private void afterLoad() {
+        if (this.resourcesRequiredToResearch == null) {
+            throw new IllegalStateException("Research " + this.id + " has no stored costs, the resource backfill has not run");
+        }
+    }
 }
@@ -29,7 +29,7 @@ public class AttackCombatTravel extends CombatTravel {
 
     public boolean isJarlAttack() {
         return super.getTravelingUnits().stream()
-                .filter(u -> u.getUnit().unitName == UnitType.Jarl && u.getAmount() > 0).findFirst()
+                .filter(u -> u.getUnitType() == UnitType.Jarl && u.getAmount() > 0).findFirst()
                 .orElse(null) != null;
     }
 }
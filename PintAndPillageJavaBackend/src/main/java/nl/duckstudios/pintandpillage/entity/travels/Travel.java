@@ -1,5 +1,6 @@
 package nl.duckstudios.pintandpillage.entity.travels;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_travel_time_of_arrival", columnList = "time_of_arrival"))
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 public class Travel {
     @Id
@@ -16,6 +18,11 @@ public class Travel {
     @Setter
     private long id;
 
+    @Version
+    @JsonIgnore
+    @Column(columnDefinition = "bigint default 0 not null")
+    private long version;
+
     @Getter
     @Setter
     private String name = getClass().getName();
@@ -31,4 +38,10 @@ public class Travel {
     @Getter
     @Setter
     private LocalTime travelTimeLeft;
+
+    // Until this time the travel is being resolved by one of the backend instances.
+    @JsonIgnore
+    @Getter
+    @Setter
+    private LocalDateTime claimedUntil;
 }
@@ -0,0 +1,142 @@
+package nl.duckstudios.pintandpillage.helper;
+
+import nl.duckstudios.pintandpillage.model.TileType;
+import nl.duckstudios.pintandpillage.model.WorldTerrain;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates the terrain region by region in parallel. Every region grows its own islands from a seed derived
+ * from the world seed and its position, so the result only depends on the seed and never on thread scheduling.
+ */
+public class ChunkedWorldGenerator {
+
+    public static final int REGION_SIZE = 64;
+
+    private static final int MAX_ISLAND_DEPTH = 5;
+    private static final int MIN_DISTANCE_BETWEEN_ISLANDS = 2;
+    private static final int CHANCE_WATER_TILE_BECOMES_GRASS = 80;
+    // Island start points keep this distance to the region border, so an island never has to cross into another region.
+    private static final int REGION_MARGIN = MAX_ISLAND_DEPTH + 1;
+
+    public WorldTerrain generate(long seed, int width, int height, int maxIslandsAmount) {
+        int regionsX = (width + REGION_SIZE - 1) / REGION_SIZE;
+        int regionsY = (height + REGION_SIZE - 1) / REGION_SIZE;
+        int regionCount = regionsX * regionsY;
+
+        List<Region> regions = IntStream.range(0, regionCount)
+                .parallel()
+                .mapToObj(i -> {
+                    int islands = maxIslandsAmount / regionCount + (i < maxIslandsAmount % regionCount ? 1 : 0);
+                    return this.generateRegion(seed, i / regionsY, i % regionsY, width, height, islands);
+                })
+                .collect(Collectors.toList());
+
+        WorldTerrain terrain = new WorldTerrain(width, height);
+        for (Region region : regions) {
+            region.copyTo(terrain);
+        }
+        return terrain;
+    }
+
+    private Region generateRegion(long seed, int regionX, int regionY, int worldWidth, int worldHeight, int islands) {
+        int startX = regionX * REGION_SIZE;
+        int startY = regionY * REGION_SIZE;
+        // The last row and column of the world stay water, like in the classic generator.
+        Region region = new Region(startX, startY,
+                Math.min(REGION_SIZE, worldWidth - 1 - startX), Math.min(REGION_SIZE, worldHeight - 1 - startY));
+        if (region.width <= 0 || region.height <= 0) {
+            return region;
+        }
+
+        Random random = new Random(deriveRegionSeed(seed, regionX, regionY));
+        int marginX = region.width > 2 * REGION_MARGIN ? REGION_MARGIN : 0;
+        int marginY = region.height > 2 * REGION_MARGIN ? REGION_MARGIN : 0;
+
+        for (int i = 0; i < islands; i++) {
+            int x = random.nextInt(marginX, region.width - marginX);
+            int y = random.nextInt(marginY, region.height - marginY);
+
+            if (region.isNotNearOtherIslands(x, y)) {
+                region.expandIsland(x, y, random);
+            }
+        }
+        return region;
+    }
+
+    static long deriveRegionSeed(long seed, int regionX, int regionY) {
+        long z = seed + 0x9E3779B97F4A7C15L * (((long) regionX << 32) ^ (regionY & 0xFFFFFFFFL)) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static class Region {
+        private final int startX;
+        private final int startY;
+        private final int width;
+        private final int height;
+        private final BitSet grassTiles = new BitSet();
+
+        private Region(int startX, int startY, int width, int height) {
+            this.startX = startX;
+            this.startY = startY;
+            this.width = width;
+            this.height = height;
+        }
+
+        private boolean isInside(int x, int y) {
+            return x >= 0 && y >= 0 && x < this.width && y < this.height;
+        }
+
+        private boolean isNotNearOtherIslands(int startX, int startY) {
+            for (int x = startX - MIN_DISTANCE_BETWEEN_ISLANDS; x <= startX + MIN_DISTANCE_BETWEEN_ISLANDS; x++) {
+                for (int y = startY - MIN_DISTANCE_BETWEEN_ISLANDS; y <= startY + MIN_DISTANCE_BETWEEN_ISLANDS; y++) {
+                    if (this.isInside(x, y) && this.grassTiles.get(x * this.height + y)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Grows an island depth first with an explicit stack, visiting neighbours in the same order as the
+         * recursive classic generator.
+         */
+        private void expandIsland(int startX, int startY, Random random) {
+            Deque<int[]> stack = new ArrayDeque<>();
+            stack.push(new int[]{startX, startY, 0});
+
+            while (!stack.isEmpty()) {
+                int[] tile = stack.pop();
+                int x = tile[0];
+                int y = tile[1];
+                int depth = tile[2];
+
+                if (!this.isInside(x, y) || depth > MAX_ISLAND_DEPTH) continue;
+
+                boolean willExpand = random.nextInt(0, 100) < CHANCE_WATER_TILE_BECOMES_GRASS;
+                if (!willExpand || this.grassTiles.get(x * this.height + y)) continue;
+
+                this.grassTiles.set(x * this.height + y);
+                stack.push(new int[]{x - 1, y, depth + 1});
+                stack.push(new int[]{x + 1, y, depth + 1});
+                stack.push(new int[]{x, y - 1, depth + 1});
+                stack.push(new int[]{x, y + 1, depth + 1});
+            }
+        }
+
+        private void copyTo(WorldTerrain terrain) {
+            for (int i = this.grassTiles.nextSetBit(0); i >= 0; i = this.grassTiles.nextSetBit(i + 1)) {
+                terrain.setTileType(this.startX + i / this.height, this.startY + i % this.height, TileType.Grass);
+            }
+        }
+    }
+}
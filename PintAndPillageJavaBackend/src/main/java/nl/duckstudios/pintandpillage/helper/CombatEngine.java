@@ -0,0 +1,126 @@
+package nl.duckstudios.pintandpillage.helper;
+
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.entity.production.Scout;
+import nl.duckstudios.pintandpillage.entity.production.Unit;
+import nl.duckstudios.pintandpillage.model.Battle;
+import nl.duckstudios.pintandpillage.model.BattleResult;
+import nl.duckstudios.pintandpillage.model.ResearchType;
+import nl.duckstudios.pintandpillage.model.ResourceType;
+import nl.duckstudios.pintandpillage.model.UnitType;
+
+/**
+ * The battle rules, working on unit counts per UnitType ordinal instead of entities. The side with the highest
+ * strength wins; the winner keeps the share of its units that the difference in strength makes up, the loser
+ * keeps nothing. A winning attacker plunders an equal share of every pillageable resource.
+ */
+public final class CombatEngine {
+
+    private static final UnitType[] UNIT_TYPES = UnitType.values();
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    private static final int[] ATTACK = new int[UNIT_TYPES.length];
+    private static final int[] DEFENCE = new int[UNIT_TYPES.length];
+    private static final int[] PLUNDER = new int[UNIT_TYPES.length];
+    private static final ResearchType[] RESEARCH_REQUIRED = new ResearchType[UNIT_TYPES.length];
+
+    static {
+        for (UnitType type : UNIT_TYPES) {
+            Unit unit = type == UnitType.Scout ? new Scout() : UnitFactory.getUnitStatic(type.name());
+            ATTACK[type.ordinal()] = unit.getAttack();
+            DEFENCE[type.ordinal()] = unit.getDefence();
+            PLUNDER[type.ordinal()] = unit.getPlunderAmount();
+            RESEARCH_REQUIRED[type.ordinal()] = unit.getResearchRequired();
+        }
+    }
+
+    private CombatEngine() {
+    }
+
+    /**
+     * Turns research levels per ResearchType ordinal into the multiplier of every unit type, 10% per level of the
+     * research the unit requires.
+     */
+    public static float[] researchMultipliers(int[] researchLevels) {
+        float[] multipliers = new float[UNIT_TYPES.length];
+        for (int i = 0; i < UNIT_TYPES.length; i++) {
+            int level = RESEARCH_REQUIRED[i] == null ? 0 : researchLevels[RESEARCH_REQUIRED[i].ordinal()];
+            multipliers[i] = 1 + 0.1f * level;
+        }
+        return multipliers;
+    }
+
+    public static int attackStrength(int[] units, float[] multipliers) {
+        return strength(ATTACK, units, multipliers);
+    }
+
+    public static int defenceStrength(int[] units, float[] multipliers) {
+        return strength(DEFENCE, units, multipliers);
+    }
+
+    public static BattleResult resolve(Battle battle) {
+        int attackStrength = attackStrength(battle.attackingUnits, battle.attackMultipliers);
+        int defenceStrength = defenceStrength(battle.defendingUnits, battle.defenceMultipliers);
+        float difference = Math.abs(attackStrength - defenceStrength);
+
+        int[] attackingUnitsLeft = new int[UNIT_TYPES.length];
+        int[] defendingUnitsLeft = new int[UNIT_TYPES.length];
+        ResourceVector plunder = new ResourceVector();
+        boolean attackerWon = attackStrength > defenceStrength;
+
+        if (attackerWon) {
+            float share = difference / (attackStrength + 1);
+            for (int i = 0; i < UNIT_TYPES.length; i++) {
+                attackingUnitsLeft[i] = Math.round(battle.attackingUnits[i] * share);
+            }
+            plunder = plunder(attackingUnitsLeft, battle.pillageableResources);
+        } else {
+            float share = difference / (defenceStrength + 1);
+            for (int i = 0; i < UNIT_TYPES.length; i++) {
+                defendingUnitsLeft[i] = Math.round(battle.defendingUnits[i] * share);
+            }
+        }
+
+        return new BattleResult(attackerWon, attackStrength, defenceStrength, attackingUnitsLeft, defendingUnitsLeft,
+                plunder);
+    }
+
+    /**
+     * Divides what the units can carry equally over the pillageable resources.
+     */
+    public static ResourceVector plunder(int[] units, ResourceVector pillageableResources) {
+        int totalPlunder = 0;
+        for (int i = 0; i < units.length; i++) {
+            totalPlunder += PLUNDER[i] * units[i];
+        }
+
+        ResourceVector plunder = new ResourceVector();
+        int plunderPerResource = totalPlunder / Math.max(1, pillageableResources.amountOfTypes());
+        for (ResourceType type : RESOURCE_TYPES) {
+            if (pillageableResources.contains(type)) {
+                plunder.set(type, Math.min(plunderPerResource, pillageableResources.get(type)));
+            }
+        }
+        return plunder;
+    }
+
+    /**
+     * Resolves independent battles in one pass. Battles that share a village have to be resolved one after the
+     * other, as the outcome of the first changes the units of the next.
+     */
+    public static BattleResult[] resolveAll(Battle[] battles) {
+        BattleResult[] results = new BattleResult[battles.length];
+        for (int i = 0; i < battles.length; i++) {
+            results[i] = resolve(battles[i]);
+        }
+        return results;
+    }
+
+    private static int strength(int[] stats, int[] units, float[] multipliers) {
+        int strength = 0;
+        for (int i = 0; i < units.length; i++) {
+            if (units[i] == 0) continue;
+            strength += (int) (stats[i] * multipliers[i] * units[i]);
+        }
+        return strength;
+    }
+}
@@ -0,0 +1,89 @@
+package nl.duckstudios.pintandpillage.helper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Precomputed tile offsets of a disc around the origin, ordered by distance. The distance of an offset is its
+ * euclidean length rounded up, ties are ordered on the exact squared length and then on the offset itself.
+ */
+public final class DiscOffsetTable {
+
+    public static final int MAX_RADIUS = 64;
+
+    private static final DiscOffsetTable INSTANCE = new DiscOffsetTable(MAX_RADIUS);
+
+    private final int[] offsetsX;
+    private final int[] offsetsY;
+    private final int[] distances;
+    // amountWithinRadius[r] is the amount of offsets with a distance of at most r.
+    private final int[] amountWithinRadius;
+
+    private DiscOffsetTable(int maxRadius) {
+        List<int[]> offsets = new ArrayList<>();
+        for (int dx = -maxRadius; dx <= maxRadius; dx++) {
+            for (int dy = -maxRadius; dy <= maxRadius; dy++) {
+                if (distance(dx, dy) <= maxRadius) {
+                    offsets.add(new int[]{dx, dy});
+                }
+            }
+        }
+        offsets.sort(offsetOrder());
+
+        this.offsetsX = new int[offsets.size()];
+        this.offsetsY = new int[offsets.size()];
+        this.distances = new int[offsets.size()];
+        this.amountWithinRadius = new int[maxRadius + 1];
+        for (int i = 0; i < offsets.size(); i++) {
+            this.offsetsX[i] = offsets.get(i)[0];
+            this.offsetsY[i] = offsets.get(i)[1];
+            this.distances[i] = distance(this.offsetsX[i], this.offsetsY[i]);
+            this.amountWithinRadius[this.distances[i]] = i + 1;
+        }
+        for (int r = 1; r <= maxRadius; r++) {
+            this.amountWithinRadius[r] = Math.max(this.amountWithinRadius[r], this.amountWithinRadius[r - 1]);
+        }
+    }
+
+    public static DiscOffsetTable getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * The euclidean length of the offset rounded up, calculated with integer math only.
+     */
+    public static int distance(int dx, int dy) {
+        long squaredDistance = (long) dx * dx + (long) dy * dy;
+        long distance = (long) Math.sqrt(squaredDistance);
+        while (distance * distance > squaredDistance) distance--;
+        while (distance * distance < squaredDistance) distance++;
+        return (int) distance;
+    }
+
+    /**
+     * Orders offsets, given as {dx, dy}, the same way the table does.
+     */
+    public static Comparator<int[]> offsetOrder() {
+        return Comparator.<int[]>comparingInt(o -> distance(o[0], o[1]))
+                .thenComparingLong(o -> (long) o[0] * o[0] + (long) o[1] * o[1])
+                .thenComparingInt(o -> o[0])
+                .thenComparingInt(o -> o[1]);
+    }
+
+    public int getAmountWithinRadius(int radius) {
+        return this.amountWithinRadius[radius];
+    }
+
+    public int getOffsetX(int index) {
+        return this.offsetsX[index];
+    }
+
+    public int getOffsetY(int index) {
+        return this.offsetsY[index];
+    }
+
+    public int getDistance(int index) {
+        return this.distances[index];
+    }
+}
@@ -0,0 +1,123 @@
+package nl.duckstudios.pintandpillage.helper;
+
+import nl.duckstudios.pintandpillage.entity.buildings.*;
+import nl.duckstudios.pintandpillage.entity.researching.*;
+import nl.duckstudios.pintandpillage.model.BuildPosition;
+import nl.duckstudios.pintandpillage.model.ResearchType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The static game data every village shares: the buildings that can be built, the build slots of a village and
+ * the research tree. Buildings and researches are entities that callers may change, so every call hands out new
+ * instances.
+ */
+public final class GameCatalog {
+
+    private static final List<Supplier<Building>> BUILDABLE_BUILDINGS = List.of(
+            Barracks::new,
+            House::new,
+            Mine::new,
+            Farm::new,
+            Lumberyard::new,
+            Tavern::new,
+            Wall::new,
+            DefenceTower::new,
+            Harbor::new,
+            Smith::new,
+            Storage::new
+    );
+
+    private static final BuildPosition[] BUILD_POSITIONS = {
+            new BuildPosition(2, 2),
+            new BuildPosition(9, 4),
+            new BuildPosition(3, 7),
+            new BuildPosition(1, 4),
+            new BuildPosition(6, 6, "Headquarters"),
+            new BuildPosition(2, 4),
+            new BuildPosition(11, 2),
+            new BuildPosition(0, 0, "Wall"),
+            new BuildPosition(5, 10),
+            new BuildPosition(0, 10),
+            new BuildPosition(12, 1),
+            new BuildPosition(11, 10, "Harbor"),
+            new BuildPosition(9, 7),
+            new BuildPosition(14, 7),
+            new BuildPosition(9, 13, "Harbor"),
+            new BuildPosition(6, 2),
+            new BuildPosition(3, 12),
+            new BuildPosition(1, 11),
+            new BuildPosition(1, 8),
+            new BuildPosition(2, 10),
+            new BuildPosition(8, 10),
+            new BuildPosition(7, 13),
+            new BuildPosition(12, 6),
+            new BuildPosition(8, 6),
+            new BuildPosition(4, 4),
+            new BuildPosition(12, 4),
+            new BuildPosition(4, 1),
+    };
+
+    private static final List<ResearchType> RESEARCH_TREE = List.of(
+            ResearchType.Spear,
+            ResearchType.Jarl,
+            ResearchType.DefenceShip,
+            ResearchType.BattleShip,
+            ResearchType.Bow,
+            ResearchType.Axe,
+            ResearchType.Shield
+    );
+
+    private GameCatalog() {
+    }
+
+    public static List<Building> getBuildableBuildings() {
+        return BUILDABLE_BUILDINGS.stream()
+                .map(Supplier::get)
+                .collect(Collectors.toList());
+    }
+
+    public static BuildPosition[] getBuildPositions() {
+        return Arrays.stream(BUILD_POSITIONS)
+                .map(buildPosition -> new BuildPosition(buildPosition.position.getX(), buildPosition.position.getY(),
+                        buildPosition.allowedBuilding))
+                .toArray(BuildPosition[]::new);
+    }
+
+    public static List<Research> getResearchTemplates() {
+        return RESEARCH_TREE.stream()
+                .map(GameCatalog::createResearch)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Lists the research tree with the levels of the completed researches. Researches that were never completed
+     * are at level 0.
+     */
+    public static List<Research> getAvailableResearches(List<Research> completedResearches) {
+        List<Research> researches = getResearchTemplates();
+        for (Research completedResearch : completedResearches) {
+            int index = RESEARCH_TREE.indexOf(completedResearch.getResearchName());
+            if (index < 0) continue;
+
+            researches.get(index).setResearchLevel(completedResearch.getResearchLevel());
+        }
+        return researches;
+    }
+
+    public static Research createResearch(ResearchType researchType) {
+        return switch (researchType) {
+            case Spear -> new SpearResearch();
+            case Jarl -> new JarlResearch();
+            case DefenceShip -> new DefenceShipResearch();
+            case BattleShip -> new BattleShipResearch();
+            case Bow -> new BowResearch();
+            case Axe -> new AxeResearch();
+            case Shield -> new ShieldResearch();
+            default -> throw new IllegalArgumentException(researchType + " is not part of the research tree");
+        };
+    }
+}
@@ -0,0 +1,201 @@
+package nl.duckstudios.pintandpillage.helper;
+
+import nl.duckstudios.pintandpillage.model.UserHighscore;
+import nl.duckstudios.pintandpillage.model.WorldVillage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The total points of every user, kept in rank order while villages are put on and removed from the world map.
+ * Ranks are held in a treap where every node knows the size of its subtree, so updating a user, looking up the
+ * rank of a user and finding the user at a rank all take O(log n).
+ */
+public class Leaderboard {
+
+    private final Map<Long, VillageScore> villageScores = new HashMap<>();
+    private final Map<Long, Node> usersById = new HashMap<>();
+    private final Random random = new Random();
+    private Node root;
+
+    public synchronized void putVillage(WorldVillage village) {
+        VillageScore previous = this.villageScores.put(village.villageId, new VillageScore(village.userId, village.points));
+        if (previous != null) {
+            this.changeUser(previous.userId, null, -previous.points, -1);
+        }
+        this.changeUser(village.userId, village.villageOwnerName, village.points, 1);
+    }
+
+    public synchronized void removeVillage(long villageId) {
+        VillageScore previous = this.villageScores.remove(villageId);
+        if (previous != null) {
+            this.changeUser(previous.userId, null, -previous.points, -1);
+        }
+    }
+
+    public synchronized void clear() {
+        this.villageScores.clear();
+        this.usersById.clear();
+        this.root = null;
+    }
+
+    public synchronized int size() {
+        return size(this.root);
+    }
+
+    /**
+     * Returns the highscore of the user with its rank, starting at 1, or null when the user has no villages.
+     */
+    public synchronized UserHighscore getHighscore(long userId) {
+        Node user = this.usersById.get(userId);
+        if (user == null) {
+            return null;
+        }
+
+        int usersBefore = 0;
+        Node node = this.root;
+        while (node != null) {
+            if (isBefore(node, user.points, user.userId)) {
+                usersBefore += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return new UserHighscore(user.username, user.points, usersBefore + 1);
+    }
+
+    /**
+     * Returns the highscores from the given rank offset on, at most the given amount.
+     */
+    public synchronized List<UserHighscore> getHighscores(int offset, int amount) {
+        List<UserHighscore> highscores = new ArrayList<>();
+        int end = (int) Math.min(size(this.root), (long) offset + amount);
+        for (int index = Math.max(0, offset); index < end; index++) {
+            Node user = this.select(index);
+            highscores.add(new UserHighscore(user.username, user.points, index + 1));
+        }
+        return highscores;
+    }
+
+    private void changeUser(long userId, String username, int points, int villages) {
+        Node user = this.usersById.get(userId);
+        if (user == null) {
+            user = new Node(userId, this.random.nextInt());
+            this.usersById.put(userId, user);
+        } else {
+            this.remove(user);
+        }
+
+        user.points += points;
+        user.villages += villages;
+        if (username != null) {
+            user.username = username;
+        }
+
+        if (user.villages > 0) {
+            this.insert(user);
+        } else {
+            this.usersById.remove(userId);
+        }
+    }
+
+    private void insert(Node user) {
+        user.left = null;
+        user.right = null;
+        user.size = 1;
+        Node[] parts = split(this.root, user.points, user.userId);
+        this.root = merge(merge(parts[0], user), parts[1]);
+    }
+
+    private void remove(Node user) {
+        Node[] parts = split(this.root, user.points, user.userId);
+        // The key right after the user, every node before it and not before the user is the user itself.
+        Node[] rest = split(parts[1], user.points, user.userId + 1);
+        this.root = merge(parts[0], rest[1]);
+    }
+
+    private Node select(int index) {
+        Node node = this.root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    // Higher points rank first, equal points are ranked by user id.
+    private static boolean isBefore(Node node, int points, long userId) {
+        return node.points > points || (node.points == points && node.userId < userId);
+    }
+
+    // Splits into the nodes ranked before the key and the rest.
+    private static Node[] split(Node node, int points, long userId) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (isBefore(node, points, userId)) {
+            Node[] parts = split(node.right, points, userId);
+            node.right = parts[0];
+            return new Node[]{update(node), parts[1]};
+        }
+        Node[] parts = split(node.left, points, userId);
+        node.left = parts[1];
+        return new Node[]{parts[0], update(node)};
+    }
+
+    private static Node merge(Node first, Node second) {
+        if (first == null) return second;
+        if (second == null) return first;
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            return update(first);
+        }
+        second.left = merge(first, second.left);
+        return update(second);
+    }
+
+    private static Node update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static class VillageScore {
+        private final long userId;
+        private final int points;
+
+        private VillageScore(long userId, int points) {
+            this.userId = userId;
+            this.points = points;
+        }
+    }
+
+    private static class Node {
+        private final long userId;
+        private final int priority;
+        private String username;
+        private int points;
+        private int villages;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long userId, int priority) {
+            this.userId = userId;
+            this.priority = priority;
+        }
+    }
+}
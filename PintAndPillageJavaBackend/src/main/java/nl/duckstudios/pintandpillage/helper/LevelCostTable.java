@@ -0,0 +1,33 @@
+package nl.duckstudios.pintandpillage.helper;
+
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+
+import java.util.function.IntFunction;
+
+/**
+ * The level up costs of a building type, created once for levels 0 up to ResourceProductionCalculator.DEFAULT_MAX_LEVEL.
+ * The costs are shared by every building of the type, so they are handed out read only.
+ */
+public final class LevelCostTable {
+
+    private final ResourceVector[] costs = new ResourceVector[ResourceProductionCalculator.DEFAULT_MAX_LEVEL + 1];
+    private final IntFunction<ResourceVector> formula;
+
+    private LevelCostTable(IntFunction<ResourceVector> formula) {
+        this.formula = formula;
+        for (int level = 0; level < this.costs.length; level++) {
+            this.costs[level] = formula.apply(level).readOnlyCopy();
+        }
+    }
+
+    public static LevelCostTable of(IntFunction<ResourceVector> formula) {
+        return new LevelCostTable(formula);
+    }
+
+    public ResourceVector get(int level) {
+        if (level < 0 || level >= this.costs.length) {
+            return this.formula.apply(level).readOnlyCopy();
+        }
+        return this.costs[level];
+    }
+}
@@ -0,0 +1,35 @@
+package nl.duckstudios.pintandpillage.helper;
+
+import java.util.function.IntToLongFunction;
+
+/**
+ * A per-level building stat, calculated once for levels 0 up to the highest building level the calculators know.
+ * Higher levels fall back to the formula.
+ */
+public final class LevelTable {
+
+    private final long[] values = new long[ResourceProductionCalculator.DEFAULT_MAX_LEVEL + 1];
+    private final IntToLongFunction formula;
+
+    private LevelTable(IntToLongFunction formula) {
+        this.formula = formula;
+        for (int level = 0; level < this.values.length; level++) {
+            this.values[level] = formula.applyAsLong(level);
+        }
+    }
+
+    public static LevelTable of(IntToLongFunction formula) {
+        return new LevelTable(formula);
+    }
+
+    public long get(int level) {
+        if (level < 0 || level >= this.values.length) {
+            return this.formula.applyAsLong(level);
+        }
+        return this.values[level];
+    }
+
+    public int getInt(int level) {
+        return (int) this.get(level);
+    }
+}
@@ -0,0 +1,102 @@
+package nl.duckstudios.pintandpillage.helper;
+
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.model.ResourceType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Production rates and storage capacity of a village. Given the stored amounts at a point in time, the amounts
+ * at any later time are calculated directly instead of being collected step by step.
+ */
+public class ResourceLedger {
+
+    private static final ResourceType[] TYPES = ResourceType.values();
+    private static final double SECONDS_IN_AN_HOUR = 3600;
+    // Keeps amounts like 49.999... that are whole numbers on paper from being rounded down.
+    private static final double ROUNDING_TOLERANCE = 1e-9;
+
+    private final int[] producedPerHour = new int[TYPES.length];
+    // [input][output] amount converted per hour, e.g. [Hop][Beer] = 16.
+    private final int[][] convertedPerHour = new int[TYPES.length][TYPES.length];
+    private final Map<String, Integer> resourcesPerHour = new HashMap<>();
+    private int capacity;
+
+    public void addProduction(ResourceType generates, ResourceType requires, int perHour) {
+        this.resourcesPerHour.merge(generates.name(), perHour, Integer::sum);
+        if (requires == null) {
+            this.producedPerHour[generates.ordinal()] += perHour;
+        } else {
+            this.convertedPerHour[requires.ordinal()][generates.ordinal()] += perHour;
+        }
+    }
+
+    public void addCapacity(int capacity) {
+        this.capacity += capacity;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    public Map<String, Integer> getResourcesPerHour() {
+        return Collections.unmodifiableMap(this.resourcesPerHour);
+    }
+
+    /**
+     * Calculates the amounts at the given time from the amounts stored at an earlier time. Production stops at the
+     * capacity, and a conversion slows down to the production of its input once that input runs out.
+     */
+    public ResourceVector getAmountsAt(ResourceVector storedAmounts, LocalDateTime storedAt, LocalDateTime time) {
+        double hours = Duration.between(storedAt, time).toMillis() / 1000.0 / SECONDS_IN_AN_HOUR;
+        if (hours <= 0) {
+            return storedAmounts.copy();
+        }
+
+        double[] changes = new double[TYPES.length];
+        for (int i = 0; i < TYPES.length; i++) {
+            changes[i] = this.producedPerHour[i] * hours;
+        }
+
+        for (int input = 0; input < TYPES.length; input++) {
+            int consumed = 0;
+            for (int perHour : this.convertedPerHour[input]) {
+                consumed += perHour;
+            }
+            if (consumed == 0) continue;
+
+            int produced = this.producedPerHour[input];
+            double hoursAtFullSpeed = hours;
+            if (consumed > produced) {
+                double hoursUntilEmpty = (double) storedAmounts.get(TYPES[input]) / (consumed - produced);
+                if (hoursUntilEmpty < hours) {
+                    hoursAtFullSpeed = hoursUntilEmpty + (hours - hoursUntilEmpty) * produced / consumed;
+                }
+            }
+
+            changes[input] -= consumed * hoursAtFullSpeed;
+            for (int output = 0; output < TYPES.length; output++) {
+                changes[output] += this.convertedPerHour[input][output] * hoursAtFullSpeed;
+            }
+        }
+
+        ResourceVector amounts = storedAmounts.copy();
+        for (int i = 0; i < TYPES.length; i++) {
+            if (changes[i] == 0) continue;
+
+            int stored = storedAmounts.get(TYPES[i]);
+            double amount = stored + changes[i];
+            if (changes[i] > 0) {
+                amount = stored >= this.capacity ? stored : Math.min(this.capacity, amount);
+            } else if (!storedAmounts.contains(TYPES[i])) {
+                continue;
+            }
+            amounts.set(TYPES[i], (int) Math.max(0, Math.floor(amount + ROUNDING_TOLERANCE)));
+        }
+        return amounts;
+    }
+}
@@ -0,0 +1,44 @@
+package nl.duckstudios.pintandpillage.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the last items added up to a fixed capacity, overwriting the oldest item once it is full.
+ */
+public class RingBuffer<T> {
+
+    private final Object[] items;
+    private int next;
+    private int size;
+
+    public RingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A ring buffer needs a capacity of at least 1");
+        }
+        this.items = new Object[capacity];
+    }
+
+    public synchronized void add(T item) {
+        this.items[this.next] = item;
+        this.next = (this.next + 1) % this.items.length;
+        this.size = Math.min(this.size + 1, this.items.length);
+    }
+
+    /**
+     * Lists the items from oldest to newest.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> toList() {
+        List<T> list = new ArrayList<>(this.size);
+        int first = (this.next - this.size + this.items.length) % this.items.length;
+        for (int i = 0; i < this.size; i++) {
+            list.add((T) this.items[(first + i) % this.items.length]);
+        }
+        return list;
+    }
+
+    public synchronized int size() {
+        return this.size;
+    }
+}
@@ -0,0 +1,90 @@
+package nl.duckstudios.pintandpillage.helper;
+
+import nl.duckstudios.pintandpillage.Exceptions.NoEmptyVillageSpotFoundException;
+import nl.duckstudios.pintandpillage.entity.Coord;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiPredicate;
+
+/**
+ * Pool of the tiles new villages can spawn on. Handing out a spot reserves it, so two concurrent
+ * requests can never receive the same tile. A reservation ends when the village is placed or released.
+ */
+public class SpawnSpotPool {
+
+    private final Queue<Long> freeSpots = new ConcurrentLinkedQueue<>();
+    private final Set<Long> pooledSpots = ConcurrentHashMap.newKeySet();
+    private final Set<Long> reservedSpots = ConcurrentHashMap.newKeySet();
+
+    public SpawnSpotPool(List<Coord> spawnableSpots, long seed) {
+        List<Long> shuffledSpots = new ArrayList<>(spawnableSpots.size());
+        for (Coord spot : spawnableSpots) {
+            shuffledSpots.add(VillageOccupancyIndex.tileKey(spot.getX(), spot.getY()));
+        }
+        Collections.shuffle(shuffledSpots, new Random(seed));
+
+        this.pooledSpots.addAll(shuffledSpots);
+        this.freeSpots.addAll(shuffledSpots);
+    }
+
+    /**
+     * Reserves the next free spot. Spots that got occupied since they were pooled are dropped on the way,
+     * they are offered again through {@link #refill(Coord)} once their village disappears.
+     */
+    public Coord reserve(BiPredicate<Integer, Integer> isOccupied) {
+        Long spot;
+        while ((spot = this.freeSpots.poll()) != null) {
+            this.pooledSpots.remove(spot);
+            int x = (int) (spot >> 32);
+            int y = (int) (long) spot;
+
+            if (isOccupied.test(x, y) || !this.reservedSpots.add(spot)) continue;
+
+            return new Coord(x, y);
+        }
+        throw new NoEmptyVillageSpotFoundException("This world has no empty spots left");
+    }
+
+    public boolean reserve(Coord spot) {
+        return this.reservedSpots.add(VillageOccupancyIndex.tileKey(spot.getX(), spot.getY()));
+    }
+
+    public boolean isReserved(int x, int y) {
+        return this.reservedSpots.contains(VillageOccupancyIndex.tileKey(x, y));
+    }
+
+    /**
+     * Ends a reservation because a village now occupies the spot.
+     */
+    public void complete(Coord spot) {
+        this.reservedSpots.remove(VillageOccupancyIndex.tileKey(spot.getX(), spot.getY()));
+    }
+
+    /**
+     * Ends a reservation without placing a village, making the spot available again.
+     */
+    public void release(Coord spot, boolean isSpawnable) {
+        this.complete(spot);
+        if (isSpawnable) {
+            this.refill(spot);
+        }
+    }
+
+    public void refill(Coord spot) {
+        long key = VillageOccupancyIndex.tileKey(spot.getX(), spot.getY());
+        if (this.pooledSpots.add(key)) {
+            this.freeSpots.offer(key);
+        }
+    }
+
+    public int getAmountOfPooledSpots() {
+        return this.pooledSpots.size();
+    }
+}
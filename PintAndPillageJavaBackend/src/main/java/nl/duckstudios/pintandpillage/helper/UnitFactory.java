@@ -2,28 +2,58 @@ package nl.duckstudios.pintandpillage.helper;
 
 import nl.duckstudios.pintandpillage.Exceptions.NotExistingEntityException;
 import nl.duckstudios.pintandpillage.entity.production.*;
+import nl.duckstudios.pintandpillage.model.UnitType;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 @Component
 public class UnitFactory {
 
+    // One definition per unit type that can be produced, shared by every village and stack of units.
+    private static final Map<UnitType, Unit> UNITS = new EnumMap<>(UnitType.class);
+
+    static {
+        for (UnitType type : UnitType.values()) {
+            Unit unit = createUnit(type);
+            if (unit != null) {
+                UNITS.put(type, unit);
+            }
+        }
+    }
+
     public static Unit getUnitStatic(String unitType) {
-        return new UnitFactory().getUnit(unitType);
+        try {
+            return getUnitStatic(UnitType.valueOf(unitType));
+        } catch (IllegalArgumentException e) {
+            throw new NotExistingEntityException(unitType + " is not an existing unit");
+        }
+    }
 
+    public static Unit getUnitStatic(UnitType unitType) {
+        Unit unit = UNITS.get(unitType);
+        if (unit == null) {
+            throw new NotExistingEntityException(unitType + " is not an existing unit");
+        }
+        return unit;
     }
 
     public Unit getUnit(String unitType) {
+        return getUnitStatic(unitType);
+    }
+
+    private static Unit createUnit(UnitType unitType) {
         return switch (unitType) {
-            case "Spear" -> new Spear();
-            case "Axe" -> new Axe();
-            case "Bow" -> new Bow();
-            case "Shield" -> new Shield();
-            case "Jarl" -> new Jarl();
-            case "TransportShip" -> new TransportShip();
-            case "BattleShip" -> new BattleShip();
-            case "DefenceShip" -> new DefenceShip();
-            default -> throw new NotExistingEntityException(unitType + " is not an existing unit");
+            case Spear -> new Spear();
+            case Axe -> new Axe();
+            case Bow -> new Bow();
+            case Shield -> new Shield();
+            case Jarl -> new Jarl();
+            case TransportShip -> new TransportShip();
+            case BattleShip -> new BattleShip();
+            case DefenceShip -> new DefenceShip();
+            default -> null;
         };
-
     }
 }
@@ -0,0 +1,115 @@
+package nl.duckstudios.pintandpillage.helper;
+
+import nl.duckstudios.pintandpillage.entity.Coord;
+import nl.duckstudios.pintandpillage.model.WorldVillage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hash based index of the villages on the world map, keyed on the (x, y) tile they occupy.
+ */
+public class VillageOccupancyIndex {
+
+    private final Map<Long, WorldVillage> villagesByTile = new ConcurrentHashMap<>();
+    private final Map<Long, WorldVillage> villagesById = new ConcurrentHashMap<>();
+
+    public static long tileKey(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    public synchronized void put(WorldVillage village) {
+        WorldVillage previous = this.villagesById.put(village.villageId, village);
+        if (previous != null) {
+            this.villagesByTile.remove(tileKey(previous.position.getX(), previous.position.getY()), previous);
+        }
+        this.villagesByTile.put(tileKey(village.position.getX(), village.position.getY()), village);
+    }
+
+    public synchronized void remove(long villageId) {
+        WorldVillage previous = this.villagesById.remove(villageId);
+        if (previous != null) {
+            this.villagesByTile.remove(tileKey(previous.position.getX(), previous.position.getY()), previous);
+        }
+    }
+
+    public synchronized void clear() {
+        this.villagesById.clear();
+        this.villagesByTile.clear();
+    }
+
+    public boolean isOccupied(int x, int y) {
+        return this.villagesByTile.containsKey(tileKey(x, y));
+    }
+
+    public WorldVillage getVillageAt(int x, int y) {
+        return this.villagesByTile.get(tileKey(x, y));
+    }
+
+    public WorldVillage getVillage(long villageId) {
+        return this.villagesById.get(villageId);
+    }
+
+    public Collection<WorldVillage> getVillages() {
+        return Collections.unmodifiableCollection(this.villagesById.values());
+    }
+
+    public int size() {
+        return this.villagesById.size();
+    }
+
+    /**
+     * Returns the villages inside the rectangle, bounds inclusive.
+     */
+    public List<WorldVillage> getVillagesInRectangle(int minX, int minY, int maxX, int maxY) {
+        List<WorldVillage> result = new ArrayList<>();
+        if (minX > maxX || minY > maxY) {
+            return result;
+        }
+
+        long area = ((long) maxX - minX + 1) * ((long) maxY - minY + 1);
+        if (area <= this.villagesById.size()) {
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    WorldVillage village = this.villagesByTile.get(tileKey(x, y));
+                    if (village != null) {
+                        result.add(village);
+                    }
+                }
+            }
+            return result;
+        }
+
+        // Sparse world: scanning the villages is cheaper than probing every tile of the rectangle.
+        for (WorldVillage village : this.villagesById.values()) {
+            int x = village.position.getX();
+            int y = village.position.getY();
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                result.add(village);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the villages whose rounded up euclidean distance to the center is at most the radius,
+     * which is the same distance rule the DistanceService applies.
+     */
+    public List<WorldVillage> getVillagesInRadius(Coord center, int radius) {
+        List<WorldVillage> result = new ArrayList<>();
+        long maxSquaredDistance = (long) radius * radius;
+        for (WorldVillage village : this.getVillagesInRectangle(center.getX() - radius, center.getY() - radius,
+                center.getX() + radius, center.getY() + radius)) {
+            long xDiff = village.position.getX() - center.getX();
+            long yDiff = village.position.getY() - center.getY();
+            if (xDiff * xDiff + yDiff * yDiff <= maxSquaredDistance) {
+                result.add(village);
+            }
+        }
+        return result;
+    }
+}
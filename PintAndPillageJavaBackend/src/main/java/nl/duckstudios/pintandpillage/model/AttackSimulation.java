@@ -0,0 +1,20 @@
+package nl.duckstudios.pintandpillage.model;
+
+import java.util.List;
+import java.util.Map;
+
+public class AttackSimulation {
+
+    public List<AttackUnitData> units;
+    public boolean win;
+    public Map<UnitType, Integer> unitsLost;
+    public Map<String, Integer> plunder;
+
+    public AttackSimulation(List<AttackUnitData> units, boolean win, Map<UnitType, Integer> unitsLost,
+                            Map<String, Integer> plunder) {
+        this.units = units;
+        this.win = win;
+        this.unitsLost = unitsLost;
+        this.plunder = plunder;
+    }
+}
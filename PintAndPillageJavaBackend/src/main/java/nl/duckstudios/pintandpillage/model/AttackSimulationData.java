@@ -0,0 +1,11 @@
+package nl.duckstudios.pintandpillage.model;
+
+import java.util.List;
+
+public class AttackSimulationData {
+
+    // Every entry is one mix of units to simulate an attack with.
+    public List<List<AttackUnitData>> unitMixes;
+    public long fromVillageId;
+    public long toVillageId;
+}
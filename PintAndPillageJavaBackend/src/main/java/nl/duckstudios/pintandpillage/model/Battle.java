@@ -0,0 +1,24 @@
+package nl.duckstudios.pintandpillage.model;
+
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+
+/**
+ * Input of the CombatEngine. Unit counts and research multipliers are indexed by the ordinal of the UnitType.
+ */
+public class Battle {
+
+    public int[] attackingUnits;
+    public float[] attackMultipliers;
+    public int[] defendingUnits;
+    public float[] defenceMultipliers;
+    public ResourceVector pillageableResources;
+
+    public Battle(int[] attackingUnits, float[] attackMultipliers, int[] defendingUnits, float[] defenceMultipliers,
+                  ResourceVector pillageableResources) {
+        this.attackingUnits = attackingUnits;
+        this.attackMultipliers = attackMultipliers;
+        this.defendingUnits = defendingUnits;
+        this.defenceMultipliers = defenceMultipliers;
+        this.pillageableResources = pillageableResources;
+    }
+}
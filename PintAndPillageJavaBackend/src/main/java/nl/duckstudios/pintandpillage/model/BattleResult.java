@@ -0,0 +1,24 @@
+package nl.duckstudios.pintandpillage.model;
+
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+
+public class BattleResult {
+
+    public boolean attackerWon;
+    public int attackStrength;
+    public int defenceStrength;
+    // Units left per UnitType ordinal.
+    public int[] attackingUnitsLeft;
+    public int[] defendingUnitsLeft;
+    public ResourceVector plunder;
+
+    public BattleResult(boolean attackerWon, int attackStrength, int defenceStrength, int[] attackingUnitsLeft,
+                        int[] defendingUnitsLeft, ResourceVector plunder) {
+        this.attackerWon = attackerWon;
+        this.attackStrength = attackStrength;
+        this.defenceStrength = defenceStrength;
+        this.attackingUnitsLeft = attackingUnitsLeft;
+        this.defendingUnitsLeft = defendingUnitsLeft;
+        this.plunder = plunder;
+    }
+}
@@ -0,0 +1,28 @@
+package nl.duckstudios.pintandpillage.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EncodedWorldMap {
+
+    public String encoding;
+
+    public int width;
+
+    public int height;
+
+    public String tiles;
+
+    public int[] runs;
+
+    public List<WorldVillage> villages;
+
+    public EncodedWorldMap(String encoding, int width, int height, List<WorldVillage> villages) {
+        this.encoding = encoding;
+        this.width = width;
+        this.height = height;
+        this.villages = villages;
+    }
+}
@@ -0,0 +1,21 @@
+package nl.duckstudios.pintandpillage.model;
+
+import nl.duckstudios.pintandpillage.entity.buildings.Building;
+import nl.duckstudios.pintandpillage.entity.researching.Research;
+
+import java.util.List;
+
+public class GameCatalogData {
+
+    public List<Building> buildings;
+
+    public BuildPosition[] buildPositions;
+
+    public List<Research> researches;
+
+    public GameCatalogData(List<Building> buildings, BuildPosition[] buildPositions, List<Research> researches) {
+        this.buildings = buildings;
+        this.buildPositions = buildPositions;
+        this.researches = researches;
+    }
+}
@@ -0,0 +1,18 @@
+package nl.duckstudios.pintandpillage.model;
+
+import java.util.List;
+
+public class HighscorePage {
+
+    public List<UserHighscore> highscores;
+    public int page;
+    public int size;
+    public int totalUsers;
+
+    public HighscorePage(List<UserHighscore> highscores, int page, int size, int totalUsers) {
+        this.highscores = highscores;
+        this.page = page;
+        this.size = size;
+        this.totalUsers = totalUsers;
+    }
+}
@@ -0,0 +1,26 @@
+package nl.duckstudios.pintandpillage.model;
+
+import nl.duckstudios.pintandpillage.entity.logs.LogLine;
+
+import java.time.LocalDateTime;
+
+/**
+ * A log line as it is shown to the player, without the village it belongs to.
+ */
+public class LogEntry {
+
+    public long id;
+
+    public String type;
+
+    public LocalDateTime date;
+
+    public String message;
+
+    public LogEntry(LogLine logLine) {
+        this.id = logLine.getId();
+        this.type = logLine.getType();
+        this.date = logLine.getDate();
+        this.message = logLine.getMessage();
+    }
+}
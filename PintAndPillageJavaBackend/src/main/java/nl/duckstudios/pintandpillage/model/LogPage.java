@@ -0,0 +1,15 @@
+package nl.duckstudios.pintandpillage.model;
+
+import java.util.List;
+
+public class LogPage {
+
+    public List<LogEntry> logs;
+    // Pass back as cursor to get the next, older page. Null when there are no older logs.
+    public String nextCursor;
+
+    public LogPage(List<LogEntry> logs, String nextCursor) {
+        this.logs = logs;
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,11 @@
+package nl.duckstudios.pintandpillage.model;
+
+public class NearbyTile extends Tile {
+
+    public int distance;
+
+    public NearbyTile(TileType tileType, int x, int y, int distance) {
+        super(tileType, x, y);
+        this.distance = distance;
+    }
+}
@@ -0,0 +1,11 @@
+package nl.duckstudios.pintandpillage.model;
+
+public class NearbyVillage extends WorldVillage {
+
+    public int distance;
+
+    public NearbyVillage(WorldVillage village, int distance) {
+        super(village.villageId, village.villageOwnerName, village.position, village.name, village.userId, village.points);
+        this.distance = distance;
+    }
+}
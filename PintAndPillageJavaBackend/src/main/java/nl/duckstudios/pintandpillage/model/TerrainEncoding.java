@@ -0,0 +1,6 @@
+package nl.duckstudios.pintandpillage.model;
+
+public enum TerrainEncoding {
+    base64,
+    rle
+}
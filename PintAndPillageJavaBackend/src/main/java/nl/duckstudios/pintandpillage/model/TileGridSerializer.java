@@ -0,0 +1,34 @@
+package nl.duckstudios.pintandpillage.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes the terrain in the original Tile[][] json layout without materializing a Tile object per tile.
+ */
+public class TileGridSerializer extends StdSerializer<WorldTerrain> {
+
+    public TileGridSerializer() {
+        super(WorldTerrain.class);
+    }
+
+    @Override
+    public void serialize(WorldTerrain terrain, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartArray();
+        for (int x = 0; x < terrain.getWidth(); x++) {
+            generator.writeStartArray();
+            for (int y = 0; y < terrain.getHeight(); y++) {
+                generator.writeStartObject();
+                generator.writeStringField("tileType", terrain.getTileType(x, y).name());
+                generator.writeNumberField("x", x);
+                generator.writeNumberField("y", y);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndArray();
+    }
+}
@@ -3,9 +3,11 @@ package nl.duckstudios.pintandpillage.model;
 public class UserHighscore {
     public String username;
     public int totalPoints;
+    public int rank;
 
-    public UserHighscore(String username, int totalPoints) {
+    public UserHighscore(String username, int totalPoints, int rank) {
         this.username = username;
         this.totalPoints = totalPoints;
+        this.rank = rank;
     }
 }
@@ -0,0 +1,26 @@
+package nl.duckstudios.pintandpillage.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published after a village is saved, with the events that happened since the previous save.
+ */
+public class VillageChange {
+
+    public long villageId;
+    public long userId;
+    public List<VillageEvent> events;
+    // When the next construction, research or production finishes, null when nothing is in progress.
+    public LocalDateTime nextTransitionTime;
+
+    public VillageChange(long villageId, long userId, List<VillageEvent> events, LocalDateTime nextTransitionTime) {
+        this.villageId = villageId;
+        this.userId = userId;
+        this.events = events;
+        this.nextTransitionTime = nextTransitionTime;
+    }
+
+    public VillageChange() {
+    }
+}
@@ -0,0 +1,21 @@
+package nl.duckstudios.pintandpillage.model;
+
+import java.time.LocalDateTime;
+
+public class VillageEvent {
+
+    public long villageId;
+    public VillageEventType type;
+    public String message;
+    public LocalDateTime time;
+
+    public VillageEvent(long villageId, VillageEventType type, String message, LocalDateTime time) {
+        this.villageId = villageId;
+        this.type = type;
+        this.message = message;
+        this.time = time;
+    }
+
+    public VillageEvent() {
+    }
+}
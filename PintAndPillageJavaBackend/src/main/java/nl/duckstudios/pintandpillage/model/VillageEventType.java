@@ -0,0 +1,13 @@
+package nl.duckstudios.pintandpillage.model;
+
+public enum VillageEventType {
+    CONSTRUCTION_FINISHED,
+    UNITS_PRODUCED,
+    RESEARCH_FINISHED,
+    ATTACK_INCOMING,
+    ATTACK_RESOLVED,
+    UNITS_RETURNED,
+    LOG_ADDED,
+    VILLAGE_CREATED,
+    POINTS_CHANGED,
+}
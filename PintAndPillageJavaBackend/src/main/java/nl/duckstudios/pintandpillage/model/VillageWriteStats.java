@@ -0,0 +1,10 @@
+package nl.duckstudios.pintandpillage.model;
+
+public class VillageWriteStats {
+
+    public long avoidedWrites;
+
+    public VillageWriteStats(long avoidedWrites) {
+        this.avoidedWrites = avoidedWrites;
+    }
+}
@@ -0,0 +1,34 @@
+package nl.duckstudios.pintandpillage.model;
+
+import java.util.List;
+
+public class WorldChunk {
+
+    public int chunkX;
+
+    public int chunkY;
+
+    public int startX;
+
+    public int startY;
+
+    public int width;
+
+    public int height;
+
+    public long version;
+
+    public int[] runs;
+
+    public List<WorldVillage> villages;
+
+    public WorldChunk(int chunkX, int chunkY, int startX, int startY, int width, int height, long version) {
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.startX = startX;
+        this.startY = startY;
+        this.width = width;
+        this.height = height;
+        this.version = version;
+    }
+}
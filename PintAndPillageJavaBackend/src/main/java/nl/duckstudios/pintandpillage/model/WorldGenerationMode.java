@@ -0,0 +1,6 @@
+package nl.duckstudios.pintandpillage.model;
+
+public enum WorldGenerationMode {
+    classic,
+    chunked
+}
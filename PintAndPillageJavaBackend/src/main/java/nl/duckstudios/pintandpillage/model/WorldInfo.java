@@ -0,0 +1,22 @@
+package nl.duckstudios.pintandpillage.model;
+
+public class WorldInfo {
+
+    public int width;
+
+    public int height;
+
+    public int chunkSize;
+
+    public int chunksX;
+
+    public int chunksY;
+
+    public WorldInfo(int width, int height, int chunkSize, int chunksX, int chunksY) {
+        this.width = width;
+        this.height = height;
+        this.chunkSize = chunkSize;
+        this.chunksX = chunksX;
+        this.chunksY = chunksY;
+    }
+}
@@ -0,0 +1,118 @@
+package nl.duckstudios.pintandpillage.model;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Bit packed terrain of the world map. Every tile takes a single bit, set for grass and clear for water,
+ * stored at index x * height + y.
+ */
+public class WorldTerrain {
+
+    private final int width;
+    private final int height;
+    private final long[] grassTiles;
+
+    public WorldTerrain(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.grassTiles = new long[(int) (((long) width * height + 63) / 64)];
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public int getHeight() {
+        return this.height;
+    }
+
+    public boolean isInside(int x, int y) {
+        return x >= 0 && y >= 0 && x < this.width && y < this.height;
+    }
+
+    public TileType getTileType(int x, int y) {
+        return this.isGrass(x, y) ? TileType.Grass : TileType.Water;
+    }
+
+    public boolean isGrass(int x, int y) {
+        int index = this.index(x, y);
+        return (this.grassTiles[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public boolean isWater(int x, int y) {
+        return !this.isGrass(x, y);
+    }
+
+    public void setTileType(int x, int y, TileType tileType) {
+        int index = this.index(x, y);
+        if (tileType == TileType.Grass) {
+            this.grassTiles[index >>> 6] |= 1L << index;
+        } else {
+            this.grassTiles[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    public Tile[][] toTileGrid() {
+        Tile[][] tiles = new Tile[this.width][this.height];
+        for (int x = 0; x < this.width; x++) {
+            for (int y = 0; y < this.height; y++) {
+                tiles[x][y] = new Tile(this.getTileType(x, y), x, y);
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Encodes the tile bits as base64, tile i is bit (i % 8) of byte (i / 8).
+     */
+    public String toBase64() {
+        int tileCount = this.width * this.height;
+        byte[] bytes = new byte[(tileCount + 7) / 8];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (this.grassTiles[i >>> 3] >>> ((i & 7) * 8));
+        }
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    /**
+     * Encodes the tiles in index order as alternating run lengths, starting with a (possibly empty) water run.
+     */
+    public int[] toRunLengths() {
+        return this.toRunLengths(0, 0, this.width, this.height);
+    }
+
+    /**
+     * Run length encodes a region of the terrain, visiting its tiles column by column like the full encoding.
+     */
+    public int[] toRunLengths(int startX, int startY, int regionWidth, int regionHeight) {
+        int[] runs = new int[16];
+        int runCount = 0;
+        boolean currentIsGrass = false;
+        int currentRun = 0;
+
+        for (int x = startX; x < startX + regionWidth; x++) {
+            for (int y = startY; y < startY + regionHeight; y++) {
+                boolean isGrass = this.isGrass(x, y);
+                if (isGrass != currentIsGrass) {
+                    if (runCount == runs.length) {
+                        runs = Arrays.copyOf(runs, runs.length * 2);
+                    }
+                    runs[runCount++] = currentRun;
+                    currentIsGrass = isGrass;
+                    currentRun = 0;
+                }
+                currentRun++;
+            }
+        }
+        if (runCount == runs.length) {
+            runs = Arrays.copyOf(runs, runs.length + 1);
+        }
+        runs[runCount++] = currentRun;
+        return Arrays.copyOf(runs, runCount);
+    }
+
+    private int index(int x, int y) {
+        return x * this.height + y;
+    }
+}
@@ -24,4 +24,8 @@ public class WorldVillage {
         this.userId = userId;
         this.points = points;
     }
+
+    public WorldVillage(long villageId, String villageOwnerName, int positionX, int positionY, String name, long userId, int points) {
+        this(villageId, villageOwnerName, new Coord(positionX, positionY), name, userId, points);
+    }
 }
@@ -8,7 +8,11 @@ import org.springframework.stereotype.Service;
 public class AccountService {
 
     public void checkIsCorrectUser(long userId, Village village) {
-        if (userId != village.getUser().getId()) {
+        this.checkIsCorrectUser(userId, village.getUser().getId());
+    }
+
+    public void checkIsCorrectUser(long userId, long ownerId) {
+        if (userId != ownerId) {
             throw new UnauthorizedException("No the owner of this village");
         }
     }
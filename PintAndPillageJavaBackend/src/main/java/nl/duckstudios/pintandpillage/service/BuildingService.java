@@ -1,8 +1,11 @@
 package nl.duckstudios.pintandpillage.service;
 
 import nl.duckstudios.pintandpillage.dao.BuildingDAO;
+import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.entity.buildings.Building;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class BuildingService {
@@ -16,4 +19,27 @@ public class BuildingService {
     public Building getBuilding(long id){
         return this.buildingDAO.getBuilding(id);
     }
+
+    /**
+     * Finds a building of a village that was loaded through the VillageService, so constructions that finished in the
+     * meantime are brought about before the building is changed.
+     */
+    public Building getBuilding(Village village, long buildingId) {
+        Building building = village.getBuilding(buildingId);
+        if (building == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown building id");
+        }
+        return building;
+    }
+
+    public long getVillageId(long buildingId) {
+        Building building = this.buildingDAO.getBuilding(buildingId);
+        if (building == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown building id");
+        }
+        if (building.getVillage() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Building is not placed in a village");
+        }
+        return building.getVillage().getVillageId();
+    }
 }
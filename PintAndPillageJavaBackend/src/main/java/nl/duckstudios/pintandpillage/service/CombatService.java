@@ -1,21 +1,44 @@
 package nl.duckstudios.pintandpillage.service;
 
 import nl.duckstudios.pintandpillage.Exceptions.AttackingConditionsNotMetException;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.entity.VillageUnit;
 import nl.duckstudios.pintandpillage.entity.production.Scout;
 import nl.duckstudios.pintandpillage.entity.production.ShipUnit;
+import nl.duckstudios.pintandpillage.helper.CombatEngine;
 import nl.duckstudios.pintandpillage.helper.UnitFactory;
+import nl.duckstudios.pintandpillage.model.AttackSimulation;
 import nl.duckstudios.pintandpillage.model.AttackUnitData;
 import nl.duckstudios.pintandpillage.model.AttackVillageData;
+import nl.duckstudios.pintandpillage.model.Battle;
+import nl.duckstudios.pintandpillage.model.BattleResult;
+import nl.duckstudios.pintandpillage.model.UnitType;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class CombatService {
 
+    public static final int MAX_SIMULATED_UNIT_MIXES = 100;
+    public static final int MAX_CACHED_BATTLES = 10_000;
+
+    // Outcomes without plunder by attacking units and multipliers plus defending units and multipliers. Plunder
+    // depends on the resources of the moment, so it is divided again for every simulation. The least recently used
+    // outcome makes room once the cache is full.
+    private final Map<String, BattleResult> simulatedBattles = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BattleResult> eldest) {
+            return this.size() > MAX_CACHED_BATTLES;
+        }
+    };
+
     public List<VillageUnit> convertToVillageUnits(AttackVillageData data) {
         List<VillageUnit> attackingUnits = new ArrayList<>();
 
@@ -44,7 +67,7 @@ public class CombatService {
                 throw new AttackingConditionsNotMetException("Not enough " + attackingUnit.getUnit().getUnitName() + " to attack this village");
             }
 
-            attackingVillage.getUnitInVillage(attackingUnit.getUnit().getUnitName()).setAmount(unitInVillage.getAmount() - attackingUnit.getAmount());
+            unitInVillage.setAmount(unitInVillage.getAmount() - attackingUnit.getAmount());
         }
     }
 
@@ -63,4 +86,61 @@ public class CombatService {
         }
 
     }
+
+    /**
+     * Simulates an attack with every unit mix, using the same rules as a real attack, in parallel on the common
+     * fork/join pool.
+     */
+    public List<AttackSimulation> simulateAttacks(List<List<AttackUnitData>> unitMixes, Village attackingVillage,
+                                                  Village defendingVillage) {
+        if (unitMixes == null || unitMixes.isEmpty()) {
+            throw new AttackingConditionsNotMetException("To simulate an attack you need at least one unit mix");
+        }
+        if (unitMixes.size() > MAX_SIMULATED_UNIT_MIXES) {
+            throw new AttackingConditionsNotMetException("You can simulate at most " + MAX_SIMULATED_UNIT_MIXES + " unit mixes at once");
+        }
+
+        float[] attackMultipliers = attackingVillage.getResearchMultipliers();
+        int[] defendingUnits = defendingVillage.getUnitCounts();
+        float[] defenceMultipliers = defendingVillage.getResearchMultipliers();
+        ResourceVector pillageableResources = defendingVillage.getPillageableResources();
+        String defenderKey = Arrays.toString(defendingUnits) + Arrays.toString(defenceMultipliers);
+
+        return unitMixes.parallelStream().map(units -> {
+            int[] attackingUnits = this.countUnits(units);
+            String key = Arrays.toString(attackingUnits) + Arrays.toString(attackMultipliers) + defenderKey;
+            BattleResult result;
+            synchronized (this.simulatedBattles) {
+                result = this.simulatedBattles.get(key);
+            }
+            if (result == null) {
+                result = CombatEngine.resolve(new Battle(attackingUnits, attackMultipliers, defendingUnits,
+                        defenceMultipliers, new ResourceVector()));
+                synchronized (this.simulatedBattles) {
+                    this.simulatedBattles.put(key, result);
+                }
+            }
+
+            Map<UnitType, Integer> unitsLost = new EnumMap<>(UnitType.class);
+            for (UnitType type : UnitType.values()) {
+                int lost = attackingUnits[type.ordinal()] - result.attackingUnitsLeft[type.ordinal()];
+                if (lost > 0) {
+                    unitsLost.put(type, lost);
+                }
+            }
+            ResourceVector plunder = CombatEngine.plunder(result.attackingUnitsLeft, pillageableResources);
+            return new AttackSimulation(units, result.attackerWon, unitsLost, plunder.toMap());
+        }).toList();
+    }
+
+    private int[] countUnits(List<AttackUnitData> units) {
+        int[] unitCounts = new int[UnitType.values().length];
+        for (AttackUnitData unit : units) {
+            if (unit.unitType == null || unit.amount < 0) {
+                throw new AttackingConditionsNotMetException("Invalid unit mix to simulate");
+            }
+            unitCounts[unit.unitType.ordinal()] += unit.amount;
+        }
+        return unitCounts;
+    }
 }
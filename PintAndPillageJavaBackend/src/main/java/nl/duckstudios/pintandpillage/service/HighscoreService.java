@@ -1,42 +1,44 @@
 package nl.duckstudios.pintandpillage.service;
 
-import nl.duckstudios.pintandpillage.dao.UserDAO;
-import nl.duckstudios.pintandpillage.entity.User;
+import nl.duckstudios.pintandpillage.entity.WorldMap;
+import nl.duckstudios.pintandpillage.model.HighscorePage;
 import nl.duckstudios.pintandpillage.model.UserHighscore;
-import nl.duckstudios.pintandpillage.model.WorldVillage;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
+/**
+ * Reads the highscores from the leaderboard of the world map, which is kept up to date with every village that is
+ * put on the map.
+ */
 @Service
 public class HighscoreService {
 
-    private final UserDAO userDAO;
-    private final VillageService villageService;
+    private final WorldService worldService;
 
-    public HighscoreService(UserDAO userDAO, VillageService villageService) {
-        this.userDAO = userDAO;
-        this.villageService = villageService;
+    public HighscoreService(WorldService worldService) {
+        this.worldService = worldService;
     }
 
     public List<UserHighscore> getHighscore() {
-        List<UserHighscore> highscores = new ArrayList<>();
-        var villages = this.villageService.getWorldVillages();
-        for (WorldVillage village : villages) {
-            Optional<User> user = this.userDAO.findUsernameById(village.userId);
-            if (user.isPresent()) {
-                UserHighscore newHighscore = new UserHighscore(user.get().getUsername(), village.points);
-                Optional<UserHighscore> existingScore = highscores.stream().filter(h -> h.username.equals(user.get().getUsername())).findFirst();
-                if (existingScore.isPresent()) {
-                    existingScore.get().totalPoints += newHighscore.totalPoints;
-                    continue;
-                }
-                highscores.add(newHighscore);
-            }
+        WorldMap worldMap = this.worldService.getWorldMap();
+        return worldMap.getHighscores(0, worldMap.getHighscoreCount());
+    }
+
+    public HighscorePage getHighscorePage(int page, int size) {
+        WorldMap worldMap = this.worldService.getWorldMap();
+        int offset = (int) Math.min(Integer.MAX_VALUE, (long) page * size);
+        List<UserHighscore> highscores = worldMap.getHighscores(offset, size);
+        return new HighscorePage(highscores, page, size, worldMap.getHighscoreCount());
+    }
 
+    public UserHighscore getHighscore(long userId) {
+        UserHighscore highscore = this.worldService.getWorldMap().getHighscore(userId);
+        if (highscore == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "This user has no villages");
         }
-        return highscores;
+        return highscore;
     }
 }
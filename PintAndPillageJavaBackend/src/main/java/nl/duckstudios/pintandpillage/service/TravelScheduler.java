@@ -0,0 +1,35 @@
+package nl.duckstudios.pintandpillage.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resolves attacks and returning units once they arrive, instead of waiting for a player to open one of the
+ * villages. The travels table ordered by time of arrival is the queue, so travels that arrived while the server was
+ * down are resolved on the first run after a restart. Every instance runs the scheduler, the travels are claimed so
+ * each one is resolved by one instance only.
+ */
+@Component
+public class TravelScheduler {
+
+    private final VillageService villageService;
+
+    @Value("${travels.batch-size:50}")
+    private int batchSize = 50;
+
+    public TravelScheduler(VillageService villageService) {
+        this.villageService = villageService;
+    }
+
+    @Scheduled(fixedDelayString = "${travels.resolve-interval-ms:1000}")
+    public void resolveArrivedTravels() {
+        LocalDateTime now = LocalDateTime.now();
+        int resolved;
+        do {
+            resolved = this.villageService.resolveArrivedTravels(now, this.batchSize);
+        } while (resolved == this.batchSize);
+    }
+}
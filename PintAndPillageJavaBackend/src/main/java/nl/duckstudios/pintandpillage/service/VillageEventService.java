@@ -0,0 +1,242 @@
+package nl.duckstudios.pintandpillage.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.duckstudios.pintandpillage.dao.VillageChangeRepository;
+import nl.duckstudios.pintandpillage.dao.VillageLocks;
+import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.entity.events.VillageChangeRecord;
+import nl.duckstudios.pintandpillage.model.VillageChange;
+import nl.duckstudios.pintandpillage.model.VillageEvent;
+import nl.duckstudios.pintandpillage.model.VillageEventType;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Pushes the state transitions of villages to the event streams of their owners, so clients only need to load a
+ * village again when something happened. Constructions, researches and productions finish without anyone touching
+ * the village, so while the owner is connected the village is loaded once at its next transition time to bring
+ * them about.
+ * <p>
+ * Changes are only pushed once they are committed. Players can be connected to another instance than the one that
+ * changed their village, so every change with events is also written to a table that all instances read every
+ * events.poll-interval-ms, pushing the changes of the players connected to them. The next transition time goes
+ * along with those changes. Villages founded or getting new points on another instance are taken over into the world
+ * and leaderboard of this one from the same table.
+ */
+@Service
+public class VillageEventService {
+
+    private final VillageService villageService;
+    private final WorldService worldService;
+    private final VillageLocks villageLocks;
+    private final TaskScheduler taskScheduler;
+    private final VillageChangeRepository villageChangeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    // Changes of other instances with these events are taken over into the world and leaderboard of this one.
+    private static final Set<VillageEventType> WORLD_EVENTS =
+            EnumSet.of(VillageEventType.VILLAGE_CREATED, VillageEventType.POINTS_CHANGED);
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<Long, List<SseEmitter>> emittersByUser = new ConcurrentHashMap<>();
+    private final Map<Long, ScheduledTransition> transitionsByVillage = new ConcurrentHashMap<>();
+    // The records of other instances that were already pushed, with the time they were written.
+    private final Map<Long, LocalDateTime> receivedChanges = new ConcurrentHashMap<>();
+
+    @Value("${events.timeout-ms:1800000}")
+    private long timeoutMillis = 1_800_000;
+
+    @Value("${events.poll-interval-ms:1000}")
+    private long pollIntervalMillis = 1000;
+
+    @Value("${events.cleanup-interval-ms:300000}")
+    private long cleanupIntervalMillis = 300_000;
+
+    // Changes that commit later than this after they were written are not pushed by the other instances.
+    @Value("${events.retention-seconds:30}")
+    private long retentionSeconds = 30;
+
+    public VillageEventService(VillageService villageService, WorldService worldService, VillageLocks villageLocks,
+                               @Qualifier("villageEventScheduler") TaskScheduler taskScheduler,
+                               VillageChangeRepository villageChangeRepository,
+                               ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper) {
+        this.villageService = villageService;
+        this.worldService = worldService;
+        this.villageLocks = villageLocks;
+        this.taskScheduler = taskScheduler;
+        this.villageChangeRepository = villageChangeRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void startReceivingChanges() {
+        this.taskScheduler.scheduleWithFixedDelay(this::receiveChanges, Duration.ofMillis(this.pollIntervalMillis));
+        this.taskScheduler.scheduleWithFixedDelay(this::deleteOldChanges, Duration.ofMillis(this.cleanupIntervalMillis));
+    }
+
+    public SseEmitter subscribe(long userId) {
+        SseEmitter emitter = new SseEmitter(this.timeoutMillis);
+        List<SseEmitter> emitters = this.emittersByUser.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        emitter.onCompletion(() -> this.removeEmitter(userId, emitter));
+        emitter.onTimeout(() -> this.removeEmitter(userId, emitter));
+        emitter.onError(e -> this.removeEmitter(userId, emitter));
+
+        for (Village village : this.villageService.getListOfVillagesFromUser(userId)) {
+            this.scheduleTransition(village.getVillageId(), village.getNextTransitionTime());
+        }
+        return emitter;
+    }
+
+    /**
+     * Tells the owner of the village about something that did not come from saving the village itself, like an
+     * attack that was sent to it.
+     */
+    public void publish(Village village, VillageEvent event) {
+        if (village.getUser() != null) {
+            this.eventPublisher.publishEvent(new VillageChange(village.getVillageId(), village.getUser().getId(),
+                    List.of(event), null));
+        }
+    }
+
+    /**
+     * Writes the change for the other instances in the same transaction, so a rolled back change is never pushed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void recordVillageChange(VillageChange change) {
+        if (change.events.isEmpty()) {
+            return;
+        }
+        try {
+            this.villageChangeRepository.save(new VillageChangeRecord(this.instanceId, change.userId,
+                    this.objectMapper.writeValueAsString(change), LocalDateTime.now()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write the change of village " + change.villageId, e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVillageChange(VillageChange change) {
+        if (!this.emittersByUser.containsKey(change.userId)) {
+            return;
+        }
+        this.send(change.userId, change.events);
+        this.scheduleTransition(change.villageId, change.nextTransitionTime);
+    }
+
+    /**
+     * Pushes the changes other instances made to the villages of the players connected to this one, and takes over
+     * the villages they founded or gave new points into the world of this one.
+     */
+    public void receiveChanges() {
+        LocalDateTime since = LocalDateTime.now().minusSeconds(this.retentionSeconds);
+        this.receivedChanges.values().removeIf(createdAt -> createdAt.isBefore(since));
+
+        // Records are read again until they are too old, a change that commits after a newer one is still seen.
+        for (VillageChangeRecord record : this.villageChangeRepository.findByCreatedAtAfterAndInstanceIdNotOrderById(
+                since, this.instanceId)) {
+            if (this.receivedChanges.putIfAbsent(record.getId(), record.getCreatedAt()) != null) {
+                continue;
+            }
+            VillageChange change;
+            try {
+                change = this.objectMapper.readValue(record.getChange(), VillageChange.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not read village change " + record.getId(), e);
+            }
+            if (change.events.stream().anyMatch(event -> WORLD_EVENTS.contains(event.type))) {
+                this.worldService.refreshVillage(change.villageId);
+            }
+            this.onVillageChange(change);
+        }
+    }
+
+    /**
+     * Deletes the records no instance reads anymore. Records are only read while they are younger than the
+     * retention, so this runs every events.cleanup-interval-ms instead of on every poll.
+     */
+    public void deleteOldChanges() {
+        this.villageChangeRepository.deleteCreatedBefore(LocalDateTime.now().minusSeconds(2 * this.retentionSeconds));
+    }
+
+    private void send(long userId, List<VillageEvent> events) {
+        List<SseEmitter> emitters = this.emittersByUser.get(userId);
+        if (emitters == null || events.isEmpty()) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                for (VillageEvent event : events) {
+                    emitter.send(SseEmitter.event().name(event.type.name()).data(event));
+                }
+            } catch (IOException | IllegalStateException e) {
+                this.removeEmitter(userId, emitter);
+            }
+        }
+    }
+
+    private void scheduleTransition(long villageId, LocalDateTime time) {
+        if (time == null) {
+            return;
+        }
+        this.transitionsByVillage.compute(villageId, (id, scheduled) -> {
+            if (scheduled != null && !scheduled.future.isDone()) {
+                if (scheduled.time.equals(time)) {
+                    return scheduled;
+                }
+                scheduled.future.cancel(false);
+            }
+            // Transitions happen once the time has passed, so the village is loaded a second after it.
+            ScheduledFuture<?> future = this.taskScheduler.schedule(() -> this.bringAboutTransition(villageId),
+                    time.plusSeconds(1).atZone(ZoneId.systemDefault()).toInstant());
+            return new ScheduledTransition(time, future);
+        });
+    }
+
+    private void bringAboutTransition(long villageId) {
+        this.transitionsByVillage.remove(villageId);
+        // Loading the village saves the transitions, which publishes them as a village change.
+        this.villageLocks.withVillages(() -> this.villageService.getVillage(villageId), villageId);
+    }
+
+    private void removeEmitter(long userId, SseEmitter emitter) {
+        this.emittersByUser.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private static class ScheduledTransition {
+
+        private final LocalDateTime time;
+        private final ScheduledFuture<?> future;
+
+        private ScheduledTransition(LocalDateTime time, ScheduledFuture<?> future) {
+            this.time = time;
+            this.future = future;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package nl.duckstudios.pintandpillage.service;
 
 import nl.duckstudios.pintandpillage.Exceptions.SettleConditionsNotMetException;
+import nl.duckstudios.pintandpillage.dao.TravelDao;
 import nl.duckstudios.pintandpillage.dao.VillageDataMapper;
+import nl.duckstudios.pintandpillage.dao.VillageLocks;
 import nl.duckstudios.pintandpillage.entity.Coord;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.entity.VillageUnit;
 import nl.duckstudios.pintandpillage.entity.WorldMap;
@@ -10,8 +13,14 @@ import nl.duckstudios.pintandpillage.entity.buildings.Building;
 import nl.duckstudios.pintandpillage.entity.travels.AttackCombatTravel;
 import nl.duckstudios.pintandpillage.entity.travels.CombatTravel;
 import nl.duckstudios.pintandpillage.entity.travels.ReturningCombatTravel;
+import nl.duckstudios.pintandpillage.helper.CombatEngine;
 import nl.duckstudios.pintandpillage.helper.ResourceManager;
+import nl.duckstudios.pintandpillage.model.Battle;
+import nl.duckstudios.pintandpillage.model.BattleResult;
+import nl.duckstudios.pintandpillage.model.LogPage;
+import nl.duckstudios.pintandpillage.model.LogTypes;
 import nl.duckstudios.pintandpillage.model.UnitType;
+import nl.duckstudios.pintandpillage.model.VillageEventType;
 import nl.duckstudios.pintandpillage.model.WorldVillage;
 import org.springframework.stereotype.Service;
 
@@ -28,38 +37,57 @@ public class VillageService {
 
     private final WorldService worldService;
     private final DistanceService distanceService;
+    private final TravelDao travelDao;
+    private final VillageLocks villageLocks;
 
-    public VillageService(VillageDataMapper villageDataMapper, ResourceManager resourceManager, WorldService worldService, DistanceService distanceService) {
+    public VillageService(VillageDataMapper villageDataMapper, ResourceManager resourceManager, WorldService worldService,
+                          DistanceService distanceService, TravelDao travelDao, VillageLocks villageLocks) {
         this.villageDataMapper = villageDataMapper;
         this.resourceManager = resourceManager;
         this.worldService = worldService;
         this.distanceService = distanceService;
+        this.travelDao = travelDao;
+        this.villageLocks = villageLocks;
     }
 
     public Village getVillage(long id) {
         Village village = villageDataMapper.getVillage(id);
-        this.updateCombatState(village);
+        this.updateTravelTimeLeft(village);
+        this.worldService.updateVillage(village);
         return village;
     }
 
+    public long getAvoidedWrites() {
+        return this.villageDataMapper.getAvoidedWrites();
+    }
+
+    public LogPage getLogPage(long villageId, LogTypes type, String cursor, int size) {
+        return this.villageDataMapper.getLogPage(villageId, type, cursor, size);
+    }
+
     public List<Village> getListOfVillagesFromUser(long id) {
         return villageDataMapper.getVillages(id);
     }
 
     public Village createBuilding(Village village, Building building) {
-        return this.villageDataMapper.createBuilding(village, building);
+        Village updatedVillage = this.villageDataMapper.createBuilding(village, building);
+        this.worldService.updateVillage(updatedVillage);
+        return updatedVillage;
     }
 
     public Village demolishBuilding(Village village, long buildingId) {
-        return this.villageDataMapper.demolishBuilding(village, buildingId); // REFACTOR (ITSTEN H2): Route demolition through mapper to ensure consistent state updates.
+        Village updatedVillage = this.villageDataMapper.demolishBuilding(village, buildingId); // REFACTOR (ITSTEN H2): Route demolition through mapper to ensure consistent state updates.
+        this.worldService.updateVillage(updatedVillage);
+        return updatedVillage;
     }
 
     public void update(Village village) {
         this.villageDataMapper.update(village);
+        this.worldService.updateVillage(village);
     }
 
     public List<WorldVillage> getWorldVillages() {
-        return this.villageDataMapper.getWorldVillages();
+        return this.worldService.getWorldMap().getVillages();
     }
 
     public void checkIsValidCreatingSpot(Village village, Coord newPosition) {
@@ -72,6 +100,10 @@ public class VillageService {
         }
 
         WorldMap worldMap = this.worldService.getWorldMap();
+        if (worldMap.isOccupied(newPosition)) {
+            throw new SettleConditionsNotMetException("There already is a village on this spot");
+        }
+
         if (!worldMap.isValidToBuildNewVillage(newPosition)) {
             throw new SettleConditionsNotMetException("Invalid build spot for a new village");
         }
@@ -83,36 +115,94 @@ public class VillageService {
         }
 
         final int maxDistance = 5;
-        return this.distanceService.calculateDistance(new Coord(village.getPositionX(), village.getPositionY()), newPosition) <= maxDistance;
+        return this.distanceService.calculateDistance(village.getPositionX(), village.getPositionY(),
+                newPosition.getX(), newPosition.getY()) <= maxDistance;
     }
 
-    private void updateCombatState(Village village) {
+    private void updateTravelTimeLeft(Village village) {
         List<CombatTravel> travels = new ArrayList<>();
         travels.addAll(village.getIncomingAttacks());
         travels.addAll(village.getOutgoingAttacks());
         travels.addAll(village.getReturningCombatTravels());
 
-        travels.sort(Comparator.comparing(CombatTravel::getTimeOfArrival));
-
+        LocalDateTime now = LocalDateTime.now();
         for (CombatTravel travel : travels) {
-            if (LocalDateTime.now().isBefore(travel.getTimeOfArrival())) {
-                long secondsBetween = ChronoUnit.SECONDS.between(LocalDateTime.now(), travel.getTimeOfArrival());
-                travel.setTravelTimeLeft(LocalTime.of(0, 0, 0).plusSeconds(secondsBetween));
-                continue;
-            }
-            if (travel instanceof AttackCombatTravel) {
-                this.fight((AttackCombatTravel) travel);
-            } else if (travel instanceof ReturningCombatTravel) {
-                System.out.println("Returning with the units!");
-                this.returnUnits(village, (ReturningCombatTravel) travel);
+            // Arrived travels are resolved by the TravelScheduler, until then they show no time left.
+            long secondsBetween = Math.max(0, ChronoUnit.SECONDS.between(now, travel.getTimeOfArrival()));
+            travel.setTravelTimeLeft(LocalTime.of(0, 0, 0).plusSeconds(secondsBetween));
+        }
+    }
+
+    /**
+     * Claims the travels that arrived at the given time and resolves them in order of arrival, at most the given
+     * amount at once. Each travel is resolved in a transaction of its own under the locks of the villages it touches,
+     * like a change made by a player, so it never overwrites a change to the same villages made at the same time.
+     * A travel that fails is handed back and does not hold up the others, the first failure is thrown once all
+     * travels were tried.
+     *
+     * @return the amount of travels claimed
+     */
+    public int resolveArrivedTravels(LocalDateTime time, int amount) {
+        List<Long> claimedIds = this.travelDao.claimArrivedTravels(time, amount);
+        if (claimedIds.isEmpty()) {
+            return 0;
+        }
+
+        RuntimeException failure = null;
+        for (CombatTravel claimedTravel : this.travelDao.getTravels(claimedIds)) {
+            // Only the ids are used, the travel and its villages are loaded again under the lock.
+            long travelId = claimedTravel.getId();
+            try {
+                this.villageLocks.withVillages(() -> this.resolveTravel(this.travelDao.getTravel(travelId)),
+                        this.getVillageIds(claimedTravel));
+            } catch (RuntimeException e) {
+                this.travelDao.releaseClaim(travelId);
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
             }
         }
+        if (failure != null) {
+            throw failure;
+        }
+        return claimedIds.size();
+    }
+
+    private long[] getVillageIds(CombatTravel travel) {
+        if (travel instanceof AttackCombatTravel) {
+            return new long[]{((AttackCombatTravel) travel).getAttackingVillage().getVillageId(),
+                    ((AttackCombatTravel) travel).getDefendingVillage().getVillageId()};
+        }
+        return new long[]{((ReturningCombatTravel) travel).getReturningToVillage().getVillageId()};
+    }
+
+    private CombatTravel resolveTravel(CombatTravel travel) {
+        if (travel instanceof AttackCombatTravel) {
+            this.fight((AttackCombatTravel) travel);
+        } else if (travel instanceof ReturningCombatTravel) {
+            this.returnUnits(((ReturningCombatTravel) travel).getReturningToVillage(), (ReturningCombatTravel) travel);
+        }
+        return travel;
     }
 
     private void fight(AttackCombatTravel travel) {
-        this.attack(travel);
         Village attackingVillage = travel.getAttackingVillage();
         Village defendingVillage = travel.getDefendingVillage();
+        attackingVillage.updateVillageState();
+        defendingVillage.updateVillageState();
+
+        ResourceVector pillageableResources = defendingVillage.getPillageableResources();
+        Battle battle = new Battle(this.countUnits(travel.getTravelingUnits()), attackingVillage.getResearchMultipliers(),
+                defendingVillage.getUnitCounts(), defendingVillage.getResearchMultipliers(), pillageableResources);
+        BattleResult result = CombatEngine.resolve(battle);
+
+        if (result.attackerWon) {
+            this.winBattle(travel, result, pillageableResources);
+        } else {
+            this.loseBattle(travel, result);
+        }
 
         attackingVillage.getOutgoingAttacks().remove(travel);
         defendingVillage.getIncomingAttacks().remove(travel);
@@ -122,65 +212,41 @@ public class VillageService {
         this.villageDataMapper.update(defendingVillage);
     }
 
-    private void attack(AttackCombatTravel travel) {
-        // this one is fun too!
-        int attackingVillageStat = travel.getTravelingUnits().stream()
-                .mapToInt(t -> (int) (t.getUnit().getAttack() * (1 + 0.1f * travel.getAttackingVillage()
-                        .getResearchLevel(t.getUnit().getResearchRequired())) * t.getAmount())).sum();
-        int defendingVillageStat = travel.getDefendingVillage().getTotalDefence();
-        int difference = attackingVillageStat - defendingVillageStat;
-
-        System.out.println(attackingVillageStat);
-        System.out.println(defendingVillageStat);
-
-        float diffAbs = Math.abs(difference) + 0.0f;
-
-        if (difference > 0) {
-            System.out.println("You won!");
-            this.winBattle(travel, diffAbs / (attackingVillageStat + 1));
-        } else {
-            this.loseBattle(travel, diffAbs / (defendingVillageStat + 1));
-            System.out.println("-------------------- You lost the battle ---------------------------");
+    private int[] countUnits(Collection<VillageUnit> villageUnits) {
+        int[] unitCounts = new int[UnitType.values().length];
+        for (VillageUnit villageUnit : villageUnits) {
+            unitCounts[villageUnit.getUnitType().ordinal()] += villageUnit.getAmount();
         }
+        return unitCounts;
     }
 
-    private void loseBattle(AttackCombatTravel travel, float percentLost) {
+    private void loseBattle(AttackCombatTravel travel, BattleResult result) {
         travel.getTravelingUnits().clear();
         for (VillageUnit defendingUnits : travel.getDefendingVillage().getUnitsInVillage()) {
-            defendingUnits.setAmount(Math.round(defendingUnits.getAmount() * percentLost));
+            defendingUnits.setAmount(result.defendingUnitsLeft[defendingUnits.getUnitType().ordinal()]);
         }
-        travel.getAttackingVillage().addToCombatLog(LocalDateTime.now(),
-                "You have lost the battle against " + travel.getDefendingVillage().getName());
+        travel.getAttackingVillage().addToCombatLog(travel.getTimeOfArrival(),
+                "You have lost the battle against " + travel.getDefendingVillage().getName(), VillageEventType.ATTACK_RESOLVED);
     }
 
-    private void winBattle(AttackCombatTravel travel, float percentLost) {
-        travel.getDefendingVillage().getUnitsInVillage().clear();
+    private void winBattle(AttackCombatTravel travel, BattleResult result, ResourceVector pillageableResources) {
+        travel.getDefendingVillage().removeAllUnits();
         for (VillageUnit travelingUnit : travel.getTravelingUnits()) {
-            travelingUnit.setAmount(Math.round(travelingUnit.getAmount() * percentLost));
+            travelingUnit.setAmount(result.attackingUnitsLeft[travelingUnit.getUnitType().ordinal()]);
         }
 
-        int totalPillage = travel.getTravelingUnits().stream().mapToInt(t -> (int) (t.getUnit().getPlunderAmount() * t.getAmount())).sum();
-        Map<String, Integer> pillagedResources = new HashMap<>();
-        Map<String, Integer> villageResources = travel.getDefendingVillage().getVillageResources();
-        Map<String, Integer> pillagableResources = travel.getDefendingVillage().getPillageableResources();
-
-        for (Map.Entry<String, Integer> resource : pillagableResources.entrySet()) {
-            int amount = Math.min(totalPillage / villageResources.size(), resource.getValue());
-            pillagedResources.put(resource.getKey(), amount);
-        }
-
-        this.resourceManager.subtractResources(travel.getDefendingVillage(), pillagableResources);
+        this.resourceManager.subtractResources(travel.getDefendingVillage(), pillageableResources);
 
         ReturningCombatTravel returningCombatTravel = this.createReturnTravel(travel);
-        returningCombatTravel.setPillagedResources(pillagedResources);
+        returningCombatTravel.setPillagedResources(result.plunder.toMap());
         returningCombatTravel.setReturningToVillage(travel.getAttackingVillage());
         travel.getAttackingVillage().addReturnTravel(returningCombatTravel);
 
 
-        travel.getAttackingVillage().addToCombatLog(LocalDateTime.now(),
-                "You have won the battle against " + travel.getDefendingVillage().getName());
-        travel.getDefendingVillage().addToCombatLog(LocalDateTime.now(),
-                "You have lost to the invaders from " + travel.getAttackingVillage().getName());
+        travel.getAttackingVillage().addToCombatLog(travel.getTimeOfArrival(),
+                "You have won the battle against " + travel.getDefendingVillage().getName(), VillageEventType.ATTACK_RESOLVED);
+        travel.getDefendingVillage().addToCombatLog(travel.getTimeOfArrival(),
+                "You have lost to the invaders from " + travel.getAttackingVillage().getName(), VillageEventType.ATTACK_RESOLVED);
 
     }
 
@@ -194,7 +260,7 @@ public class VillageService {
         }
         returningCombatTravel.setTravelingUnits(travelingUnits);
         returningCombatTravel.setTravelTime(travel.getTravelTime());
-        returningCombatTravel.setTimeOfArrival(LocalDateTime.now().plusSeconds(travel.getTravelTime().toSecondOfDay()));
+        returningCombatTravel.setTimeOfArrival(travel.getTimeOfArrival().plusSeconds(travel.getTravelTime().toSecondOfDay()));
         return returningCombatTravel;
     }
 
@@ -203,13 +269,11 @@ public class VillageService {
             village.addUnit(unit.getUnit(), unit.getAmount());
         }
 
-        for (Map.Entry<String, Integer> resource : travel.getPillagedResources().entrySet()) {
-            this.resourceManager.addResources(village, resource.getValue(), resource.getKey());
-        }
+        this.resourceManager.addResources(village, ResourceVector.of(travel.getPillagedResources()));
 
         village.getReturningCombatTravels().remove(travel);
         travel.setReturningToVillage(null);
-        village.addToCombatLog(LocalDateTime.now(), "Your units have returned!");
+        village.addToCombatLog(travel.getTimeOfArrival(), "Your units have returned!", VillageEventType.UNITS_RETURNED);
         this.villageDataMapper.update(village);
     }
 }
@@ -1,29 +1,145 @@
 package nl.duckstudios.pintandpillage.service;
 
+import nl.duckstudios.pintandpillage.Exceptions.NotExistingEntityException;
 import nl.duckstudios.pintandpillage.dao.VillageDataMapper;
 import nl.duckstudios.pintandpillage.entity.Coord;
 import nl.duckstudios.pintandpillage.entity.User;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.entity.WorldMap;
+import nl.duckstudios.pintandpillage.model.EncodedWorldMap;
+import nl.duckstudios.pintandpillage.model.NearbyTile;
+import nl.duckstudios.pintandpillage.model.NearbyVillage;
 import nl.duckstudios.pintandpillage.model.SettleableSpots;
+import nl.duckstudios.pintandpillage.model.TerrainEncoding;
+import nl.duckstudios.pintandpillage.model.WorldChunk;
+import nl.duckstudios.pintandpillage.model.WorldGenerationMode;
+import nl.duckstudios.pintandpillage.model.WorldInfo;
+import nl.duckstudios.pintandpillage.model.WorldTerrain;
+import nl.duckstudios.pintandpillage.model.WorldVillage;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class WorldService {
 
+    private static final int WORLD_SEED = 34843;
+    private static final int WORLD_SIZE_X = 50;
+    private static final int WORLD_SIZE_Y = 50;
+    private static final int MAX_ISLANDS = 25;
+
     private final VillageDataMapper villageDataMapper;
-    private final DistanceService distanceService;
 
-    public WorldService(VillageDataMapper villageDataMapper, DistanceService distanceService) {
+    @Value("${world.generator:classic}")
+    private WorldGenerationMode generationMode = WorldGenerationMode.classic;
+    @Value("${world.width:" + WORLD_SIZE_X + "}")
+    private int worldWidth = WORLD_SIZE_X;
+    @Value("${world.height:" + WORLD_SIZE_Y + "}")
+    private int worldHeight = WORLD_SIZE_Y;
+    @Value("${world.islands:" + MAX_ISLANDS + "}")
+    private int maxIslands = MAX_ISLANDS;
+
+    private volatile WorldMap worldMap;
+
+    public WorldService(VillageDataMapper villageDataMapper) {
         this.villageDataMapper = villageDataMapper;
-        this.distanceService = distanceService;
     }
 
     public WorldMap getWorldMap() {
-        WorldMap worldMap = new WorldMap(34843, 50, 50, 25);
-        worldMap.setVillages(this.villageDataMapper.getWorldVillages());
+        WorldMap cachedWorldMap = this.worldMap;
+        if (cachedWorldMap != null) {
+            return cachedWorldMap;
+        }
+
+        synchronized (this) {
+            if (this.worldMap == null) {
+                // The terrain only depends on the seed, so it is generated once and shared by every request.
+                WorldMap generatedWorldMap = new WorldMap(WORLD_SEED, this.worldWidth, this.worldHeight, this.maxIslands, this.generationMode);
+                generatedWorldMap.setVillages(this.villageDataMapper.getWorldVillages());
+                this.worldMap = generatedWorldMap;
+            }
+            return this.worldMap;
+        }
+    }
 
-        return worldMap;
+    public EncodedWorldMap getEncodedWorldMap(TerrainEncoding encoding) {
+        WorldMap worldMap = this.getWorldMap();
+        WorldTerrain terrain = worldMap.getTerrain();
+        EncodedWorldMap encodedWorldMap = new EncodedWorldMap(encoding.name(), terrain.getWidth(), terrain.getHeight(), worldMap.getVillages());
+
+        switch (encoding) {
+            case base64 -> encodedWorldMap.tiles = terrain.toBase64();
+            case rle -> encodedWorldMap.runs = terrain.toRunLengths();
+        }
+        return encodedWorldMap;
+    }
+
+    public WorldInfo getWorldInfo() {
+        WorldMap worldMap = this.getWorldMap();
+        return new WorldInfo(worldMap.getWidth(), worldMap.getHeight(), WorldMap.CHUNK_SIZE,
+                worldMap.getChunksX(), worldMap.getChunksY());
+    }
+
+    public String getChunkETag(int chunkX, int chunkY) {
+        WorldMap worldMap = this.getWorldMap();
+        this.checkIsExistingChunk(worldMap, chunkX, chunkY);
+        return worldMap.getChunkETag(chunkX, chunkY);
+    }
+
+    public String getChunkETag(WorldChunk chunk) {
+        return this.getWorldMap().getChunkETag(chunk);
+    }
+
+    public WorldChunk getChunk(int chunkX, int chunkY) {
+        WorldMap worldMap = this.getWorldMap();
+        this.checkIsExistingChunk(worldMap, chunkX, chunkY);
+        return worldMap.getChunk(chunkX, chunkY);
+    }
+
+    private void checkIsExistingChunk(WorldMap worldMap, int chunkX, int chunkY) {
+        if (!worldMap.isExistingChunk(chunkX, chunkY)) {
+            throw new NotExistingEntityException("Chunk " + chunkX + "," + chunkY + " does not exist");
+        }
+    }
+
+    public void updateVillage(Village village) {
+        if (village.getUser() == null) {
+            return;
+        }
+        this.getWorldMap().putVillage(this.villageDataMapper.toWorldVillage(village));
+    }
+
+    /**
+     * Reads the village again after another instance changed it, so the world of this instance shows it as well.
+     */
+    public void refreshVillage(long villageId) {
+        WorldVillage village = this.villageDataMapper.getWorldVillage(villageId);
+        if (village == null) {
+            this.getWorldMap().removeVillage(villageId);
+        } else {
+            this.getWorldMap().putVillage(village);
+        }
+    }
+
+    public Coord reserveSpawnSpot() {
+        return this.getWorldMap().reserveEmptySpot();
+    }
+
+    public boolean reserveSpot(Coord coord) {
+        return this.getWorldMap().reserveSpot(coord);
+    }
+
+    public void releaseSpot(Coord coord) {
+        this.getWorldMap().releaseSpot(coord);
+    }
+
+    public List<NearbyVillage> getVillagesWithinDistance(Coord center, int radius) {
+        return this.getWorldMap().getVillagesWithinDistance(center, radius);
+    }
+
+    public List<NearbyTile> getTilesWithinDistance(Coord center, int radius) {
+        return this.getWorldMap().getTilesWithinDistance(center, radius);
     }
 
     public SettleableSpots getSettleableSpots(long id, User user) {
@@ -36,16 +152,7 @@ public class WorldService {
 
         SettleableSpots spots = new SettleableSpots();
         spots.amountOfJarlsNeeded = amountOfJarlsNeeded;
-
-        for (int x = villagePosition.getX() - maxRange; x < villagePosition.getX() + maxRange; x++) {
-            for (int y = villagePosition.getY() - maxRange; y < villagePosition.getY() + maxRange; y++) {
-                Coord position = new Coord(x, y);
-                if (worldMap.isValidToBuildNewVillage(position)
-                        && this.distanceService.calculateDistance(villagePosition, position) <= maxRange) {
-                    spots.validPositions.add(position);
-                }
-            }
-        }
+        spots.validPositions = worldMap.getSettleableSpotsWithinDistance(villagePosition, maxRange);
 
         return spots;
     }
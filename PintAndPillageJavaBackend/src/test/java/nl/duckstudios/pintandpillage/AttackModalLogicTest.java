@@ -3,10 +3,12 @@ package nl.duckstudios.pintandpillage;
 import nl.duckstudios.pintandpillage.Exceptions.AttackingConditionsNotMetException;
 import nl.duckstudios.pintandpillage.controller.CombatController;
 import nl.duckstudios.pintandpillage.dao.TravelDao;
+import nl.duckstudios.pintandpillage.dao.VillageLocks;
 import nl.duckstudios.pintandpillage.entity.User;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.entity.VillageUnit;
 import nl.duckstudios.pintandpillage.entity.travels.AttackCombatTravel;
+import nl.duckstudios.pintandpillage.model.AttackSimulationData;
 import nl.duckstudios.pintandpillage.model.AttackUnitData;
 import nl.duckstudios.pintandpillage.model.AttackVillageData;
 import nl.duckstudios.pintandpillage.model.UnitType;
@@ -15,21 +17,28 @@ import nl.duckstudios.pintandpillage.service.AccountService;
 import nl.duckstudios.pintandpillage.service.AuthenticationService;
 import nl.duckstudios.pintandpillage.service.CombatService;
 import nl.duckstudios.pintandpillage.service.DistanceService;
+import nl.duckstudios.pintandpillage.service.VillageEventService;
 import nl.duckstudios.pintandpillage.service.VillageService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.persistence.EntityManager;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -56,6 +65,13 @@ class AttackModalLogicTest {
     @Mock
     private DistanceService distanceService;
 
+    @Mock
+    private VillageEventService villageEventService;
+
+    @Spy
+    private VillageLocks villageLocks = new VillageLocks(mock(EntityManager.class),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), 16, 3);
+
     @InjectMocks
     private CombatController combatController;
 
@@ -83,7 +99,7 @@ class AttackModalLogicTest {
         when(villageService.getVillage(1L)).thenReturn(attackingVillage);
         when(villageService.getVillage(2L)).thenReturn(defendingVillage);
         when(combatService.convertToVillageUnits(data)).thenReturn(attackingUnits);
-        when(distanceService.calculateDistance(any(), any())).thenReturn(5);
+        when(distanceService.calculateDistance(anyInt(), anyInt(), anyInt(), anyInt())).thenReturn(5);
 
         // Act: attempt the attack.
         Village result = combatController.attackVillage(data);
@@ -212,4 +228,31 @@ class AttackModalLogicTest {
                 .hasMessageContaining("should not attack yourself");
         verifyNoInteractions(authenticationService, villageService, travelDao);
     }
+
+    @Test
+    void simulating_an_attack_reads_both_villages_under_their_locks() {
+        // Arrange: reading the villages writes their state transitions.
+        AttackSimulationData data = new AttackSimulationData();
+        data.fromVillageId = 1L;
+        data.toVillageId = 2L;
+        data.unitMixes = List.of(List.of(new AttackUnitData(UnitType.Spear, 5)));
+
+        User user = new User();
+        user.setId(14L);
+        Village attackingVillage = new Village();
+        attackingVillage.setVillageId(1L);
+        Village defendingVillage = new Village();
+        defendingVillage.setVillageId(2L);
+
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(villageService.getVillage(1L)).thenReturn(attackingVillage);
+        when(villageService.getVillage(2L)).thenReturn(defendingVillage);
+
+        // Act
+        combatController.simulateAttack(data);
+
+        // Assert: a conflict with another write is retried like any other change to the villages.
+        verify(villageLocks).withVillages(any(), eq(1L), eq(2L));
+        verify(combatService).simulateAttacks(data.unitMixes, attackingVillage, defendingVillage);
+    }
 }
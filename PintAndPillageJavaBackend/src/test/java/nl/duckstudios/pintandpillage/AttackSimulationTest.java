@@ -0,0 +1,83 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.Exceptions.AttackingConditionsNotMetException;
+import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.entity.buildings.House;
+import nl.duckstudios.pintandpillage.entity.production.Shield;
+import nl.duckstudios.pintandpillage.helper.BuildingEffectApplier;
+import nl.duckstudios.pintandpillage.model.AttackSimulation;
+import nl.duckstudios.pintandpillage.model.AttackUnitData;
+import nl.duckstudios.pintandpillage.model.UnitType;
+import nl.duckstudios.pintandpillage.service.CombatService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AttackSimulationTest {
+
+    private final CombatService combatService = new CombatService();
+
+    @Test
+    void simulates_every_unit_mix_without_changing_the_villages() {
+        // Arrange: a target defended by 4 shields with the default 500 of every starting resource.
+        Village attackingVillage = new Village();
+        Village defendingVillage = new Village();
+        BuildingEffectApplier.registerBuiltBuilding(defendingVillage, new House(), 1);
+        defendingVillage.addUnit(new Shield(), 4);
+
+        List<AttackUnitData> battleShips = List.of(new AttackUnitData(UnitType.BattleShip, 10));
+        List<AttackUnitData> spears = List.of(new AttackUnitData(UnitType.Spear, 2));
+
+        // Act
+        List<AttackSimulation> simulations = combatService.simulateAttacks(List.of(battleShips, spears, battleShips),
+                attackingVillage, defendingVillage);
+
+        // Assert: 500 against 200 keeps 6 ships, which carry off the pillageable half of every resource.
+        assertThat(simulations).hasSize(3);
+        assertThat(simulations.get(0).win).isTrue();
+        assertThat(simulations.get(0).unitsLost).containsExactlyEntriesOf(Map.of(UnitType.BattleShip, 4));
+        assertThat(simulations.get(0).plunder).containsExactlyInAnyOrderEntriesOf(Map.of("Stone", 250, "Wood", 250, "Beer", 250));
+        assertThat(simulations.get(1).win).isFalse();
+        assertThat(simulations.get(1).unitsLost).containsExactlyEntriesOf(Map.of(UnitType.Spear, 2));
+        assertThat(simulations.get(2).unitsLost).isEqualTo(simulations.get(0).unitsLost);
+        assertThat(defendingVillage.getUnitInVillage(UnitType.Shield).getAmount()).isEqualTo(4);
+    }
+
+    @Test
+    void too_many_unit_mixes_are_rejected() {
+        List<List<AttackUnitData>> unitMixes = Collections.nCopies(CombatService.MAX_SIMULATED_UNIT_MIXES + 1,
+                List.of(new AttackUnitData(UnitType.Spear, 1)));
+
+        assertThatThrownBy(() -> combatService.simulateAttacks(unitMixes, new Village(), new Village()))
+                .isInstanceOf(AttackingConditionsNotMetException.class);
+    }
+
+    @Test
+    void a_full_battle_cache_drops_single_battles_instead_of_being_wiped() {
+        // Arrange: a defended target and more distinct unit mixes than the cache holds.
+        Village attackingVillage = new Village();
+        Village defendingVillage = new Village();
+        defendingVillage.addUnit(new Shield(), 4);
+        int batches = CombatService.MAX_CACHED_BATTLES / CombatService.MAX_SIMULATED_UNIT_MIXES + 1;
+
+        // Act
+        for (int batch = 0; batch < batches; batch++) {
+            List<List<AttackUnitData>> unitMixes = new ArrayList<>();
+            for (int mix = 0; mix < CombatService.MAX_SIMULATED_UNIT_MIXES; mix++) {
+                unitMixes.add(List.of(new AttackUnitData(UnitType.Spear, batch * CombatService.MAX_SIMULATED_UNIT_MIXES + mix + 1)));
+            }
+            combatService.simulateAttacks(unitMixes, attackingVillage, defendingVillage);
+        }
+
+        // Assert: the cache stays full instead of being wiped once it reaches its limit.
+        Map<?, ?> simulatedBattles = (Map<?, ?>) ReflectionTestUtils.getField(combatService, "simulatedBattles");
+        assertThat(simulatedBattles).hasSize(CombatService.MAX_CACHED_BATTLES);
+    }
+}
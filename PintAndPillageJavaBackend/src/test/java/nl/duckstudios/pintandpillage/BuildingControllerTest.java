@@ -0,0 +1,107 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.controller.BuildingController;
+import nl.duckstudios.pintandpillage.dao.BuildingDAO;
+import nl.duckstudios.pintandpillage.dao.VillageLocks;
+import nl.duckstudios.pintandpillage.entity.User;
+import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.entity.buildings.House;
+import nl.duckstudios.pintandpillage.entity.buildings.Lumberyard;
+import nl.duckstudios.pintandpillage.entity.buildings.Storage;
+import nl.duckstudios.pintandpillage.helper.BuildingEffectApplier;
+import nl.duckstudios.pintandpillage.helper.BuildingFactory;
+import nl.duckstudios.pintandpillage.model.ResourceType;
+import nl.duckstudios.pintandpillage.service.AccountService;
+import nl.duckstudios.pintandpillage.service.AuthenticationService;
+import nl.duckstudios.pintandpillage.service.BuildingService;
+import nl.duckstudios.pintandpillage.service.VillageService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BuildingControllerTest {
+
+    private static final long VILLAGE_ID = 4;
+    private static final long HOUSE_ID = 9;
+
+    @Mock
+    private VillageService villageService;
+
+    @Mock
+    private BuildingDAO buildingDAO;
+
+    @Mock
+    private AuthenticationService authenticationService;
+
+    @Mock
+    private AccountService accountService;
+
+    @Test
+    void levelling_up_keeps_the_production_of_a_construction_that_finished_in_the_meantime() {
+        // Arrange: a lumberyard finished its construction an hour ago, the stored resources are from before that.
+        LocalDateTime now = LocalDateTime.now();
+        Village village = this.createVillage(now);
+        Village untouchedVillage = this.createVillage(now);
+        User user = new User();
+        user.setId(1L);
+        when(this.authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(this.buildingDAO.getBuilding(HOUSE_ID)).thenReturn(this.getHouse(village));
+        // Loading a village brings about the constructions that finished, like the village service does.
+        when(this.villageService.getVillage(VILLAGE_ID)).thenAnswer(invocation -> {
+            village.updateVillageState();
+            return village;
+        });
+        BuildingController buildingController = new BuildingController(this.villageService,
+                new BuildingService(this.buildingDAO), this.authenticationService, this.accountService,
+                mock(BuildingFactory.class), new VillageLocks(mock(EntityManager.class),
+                        new TransactionTemplate(mock(PlatformTransactionManager.class)), 16, 3));
+
+        // Act
+        buildingController.levelUpBuilding(HOUSE_ID);
+
+        // Assert: only the cost of the house is gone, the wood of the last hour is still there.
+        untouchedVillage.updateVillageState();
+        int woodCost = this.getHouse(village).getResourcesRequiredLevelUp().get(ResourceType.Wood);
+        assertThat(village.getResources().get(ResourceType.Wood))
+                .isCloseTo(untouchedVillage.getResources().get(ResourceType.Wood) - woodCost,
+                        within(1));
+        assertThat(this.getHouse(village).isUnderConstruction()).isTrue();
+    }
+
+    private Village createVillage(LocalDateTime now) {
+        Village village = new Village();
+        village.setVillageId(VILLAGE_ID);
+        BuildingEffectApplier.registerBuiltBuilding(village, new Storage(), 10);
+        House house = new House();
+        house.setBuildingId(HOUSE_ID);
+        BuildingEffectApplier.registerBuiltBuilding(village, house, 5);
+        Lumberyard lumberyard = new Lumberyard();
+        BuildingEffectApplier.registerBuiltBuilding(village, lumberyard, 1);
+        village.setVillageResources(new HashMap<>(Map.of("Wood", 1000, "Stone", 1000, "Beer", 1000, "Hop", 1000)));
+
+        lumberyard.setUnderConstruction(true);
+        lumberyard.setLevelupFinishedTime(now.minusHours(1));
+        village.markBuildingsChanged();
+        ReflectionTestUtils.setField(village, "resourcesUpdatedAt", now.minusHours(2));
+        return village;
+    }
+
+    private House getHouse(Village village) {
+        return (House) village.getBuilding(HOUSE_ID);
+    }
+}
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 
 import nl.duckstudios.pintandpillage.entity.buildings.CharcoalKiln;
+import nl.duckstudios.pintandpillage.model.ResourceType;
 
 
 /*
@@ -30,8 +31,8 @@ void whenBuildingCreated_thenBaseCostAndTimeAreCorrect() {
 
     var cost = kiln.getResourcesRequiredLevelUp();
 
-    assertEquals(45, cost.get("Wood"));
-    assertEquals(80, cost.get("Stone"));
+    assertEquals(45, cost.get(ResourceType.Wood));
+    assertEquals(80, cost.get(ResourceType.Stone));
     assertEquals(40, kiln.getConstructionTimeSeconds());
 
 }
@@ -0,0 +1,73 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.entity.WorldMap;
+import nl.duckstudios.pintandpillage.helper.ChunkedWorldGenerator;
+import nl.duckstudios.pintandpillage.model.WorldGenerationMode;
+import nl.duckstudios.pintandpillage.model.WorldTerrain;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkedWorldGeneratorTest {
+
+    private final ChunkedWorldGenerator generator = new ChunkedWorldGenerator();
+
+    private int countGrass(WorldTerrain terrain) {
+        int amountOfGrass = 0;
+        for (int x = 0; x < terrain.getWidth(); x++) {
+            for (int y = 0; y < terrain.getHeight(); y++) {
+                if (terrain.isGrass(x, y)) amountOfGrass++;
+            }
+        }
+        return amountOfGrass;
+    }
+
+    @Test
+    void same_seed_generates_the_same_world() {
+        WorldTerrain first = generator.generate(34843, 300, 200, 600);
+        WorldTerrain second = generator.generate(34843, 300, 200, 600);
+        WorldTerrain otherSeed = generator.generate(34844, 300, 200, 600);
+
+        assertThat(countGrass(first)).isPositive();
+        assertThat(second.toBase64()).isEqualTo(first.toBase64());
+        assertThat(otherSeed.toBase64()).isNotEqualTo(first.toBase64());
+    }
+
+    @Test
+    void last_row_and_column_stay_water() {
+        WorldTerrain terrain = generator.generate(34843, 130, 70, 2000);
+
+        for (int x = 0; x < terrain.getWidth(); x++) {
+            assertThat(terrain.isWater(x, terrain.getHeight() - 1)).isTrue();
+        }
+        for (int y = 0; y < terrain.getHeight(); y++) {
+            assertThat(terrain.isWater(terrain.getWidth() - 1, y)).isTrue();
+        }
+    }
+
+    @Test
+    void world_map_can_use_the_chunked_generator() {
+        WorldMap worldMap = new WorldMap(34843, 50, 50, 25, WorldGenerationMode.chunked);
+
+        assertThat(worldMap.getWidth()).isEqualTo(50);
+        assertThat(countGrass(worldMap.getTerrain())).isPositive();
+        assertThat(worldMap.getAmountOfSpawnSpots()).isPositive();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark_large_world_generation() {
+        int size = 4096;
+        // Same island density as the default 50x50 world with 25 islands.
+        int islands = size * size / 100;
+
+        for (int run = 0; run < 5; run++) {
+            long start = System.nanoTime();
+            WorldTerrain terrain = generator.generate(34843 + run, size, size, islands);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("Generated " + size + "x" + size + " world with " + countGrass(terrain)
+                    + " grass tiles in " + elapsedMillis + " ms");
+        }
+    }
+}
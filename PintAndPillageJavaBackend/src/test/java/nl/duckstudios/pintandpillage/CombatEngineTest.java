@@ -0,0 +1,86 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.helper.CombatEngine;
+import nl.duckstudios.pintandpillage.model.Battle;
+import nl.duckstudios.pintandpillage.model.BattleResult;
+import nl.duckstudios.pintandpillage.model.ResearchType;
+import nl.duckstudios.pintandpillage.model.ResourceType;
+import nl.duckstudios.pintandpillage.model.UnitType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CombatEngineTest {
+
+    private static final float[] NO_RESEARCH = CombatEngine.researchMultipliers(new int[ResearchType.values().length]);
+
+    @Test
+    void winning_attacker_keeps_its_share_and_plunders() {
+        // Arrange: 10 battleships with level 2 research against 4 shields.
+        int[] researchLevels = new int[ResearchType.values().length];
+        researchLevels[ResearchType.BattleShip.ordinal()] = 2;
+        ResourceVector pillageable = new ResourceVector().with(ResourceType.Wood, 1000).with(ResourceType.Stone, 200);
+        Battle battle = new Battle(units(UnitType.BattleShip, 10), CombatEngine.researchMultipliers(researchLevels),
+                units(UnitType.Shield, 4), NO_RESEARCH, pillageable);
+
+        // Act
+        BattleResult result = CombatEngine.resolve(battle);
+
+        // Assert: 600 against 200 leaves 400 / 601 of the ships, which carry 500 each.
+        assertThat(result.attackerWon).isTrue();
+        assertThat(result.attackStrength).isEqualTo(600);
+        assertThat(result.defenceStrength).isEqualTo(200);
+        assertThat(result.attackingUnitsLeft[UnitType.BattleShip.ordinal()]).isEqualTo(7);
+        assertThat(result.defendingUnitsLeft[UnitType.Shield.ordinal()]).isZero();
+        assertThat(result.plunder.toMap()).containsExactlyInAnyOrderEntriesOf(Map.of("Wood", 1000, "Stone", 200));
+    }
+
+    @Test
+    void losing_attacker_loses_everything() {
+        Battle battle = new Battle(units(UnitType.Spear, 2), NO_RESEARCH, units(UnitType.Shield, 4), NO_RESEARCH,
+                new ResourceVector().with(ResourceType.Wood, 1000));
+
+        BattleResult result = CombatEngine.resolve(battle);
+
+        // 30 against 200 leaves 170 / 201 of the defenders.
+        assertThat(result.attackerWon).isFalse();
+        assertThat(result.attackingUnitsLeft).containsOnly(0);
+        assertThat(result.defendingUnitsLeft[UnitType.Shield.ordinal()]).isEqualTo(3);
+        assertThat(result.plunder.amountOfTypes()).isZero();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark_batch_resolution() {
+        Random random = new Random(34843);
+        ResourceVector pillageable = new ResourceVector().with(ResourceType.Wood, 5000).with(ResourceType.Beer, 5000);
+        Battle[] battles = new Battle[100_000];
+        for (int i = 0; i < battles.length; i++) {
+            int[] attackers = new int[UnitType.values().length];
+            int[] defenders = new int[UnitType.values().length];
+            for (int type = 0; type < attackers.length; type++) {
+                attackers[type] = random.nextInt(200);
+                defenders[type] = random.nextInt(200);
+            }
+            battles[i] = new Battle(attackers, NO_RESEARCH, defenders, NO_RESEARCH, pillageable);
+        }
+
+        for (int run = 0; run < 5; run++) {
+            long start = System.nanoTime();
+            BattleResult[] results = CombatEngine.resolveAll(battles);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("Resolved " + results.length + " battles in " + elapsedMillis + " ms");
+        }
+    }
+
+    private static int[] units(UnitType type, int amount) {
+        int[] units = new int[UnitType.values().length];
+        units[type.ordinal()] = amount;
+        return units;
+    }
+}
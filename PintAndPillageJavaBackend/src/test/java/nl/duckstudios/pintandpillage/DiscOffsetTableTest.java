@@ -0,0 +1,82 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.entity.Coord;
+import nl.duckstudios.pintandpillage.entity.WorldMap;
+import nl.duckstudios.pintandpillage.helper.DiscOffsetTable;
+import nl.duckstudios.pintandpillage.model.NearbyTile;
+import nl.duckstudios.pintandpillage.model.NearbyVillage;
+import nl.duckstudios.pintandpillage.model.WorldVillage;
+import nl.duckstudios.pintandpillage.service.DistanceService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiscOffsetTableTest {
+
+    @Test
+    void integer_distance_matches_the_rounded_up_euclidean_distance() {
+        for (int dx = -70; dx <= 70; dx++) {
+            for (int dy = -70; dy <= 70; dy++) {
+                int expected = (int) Math.ceil(Math.sqrt(Math.pow(dx, 2) + Math.pow(dy, 2)));
+                assertThat(DiscOffsetTable.distance(dx, dy)).as("%d,%d", dx, dy).isEqualTo(expected);
+            }
+        }
+        assertThat(new DistanceService().calculateDistance(new Coord(1, 1), new Coord(4, 5))).isEqualTo(5);
+    }
+
+    @Test
+    void disc_holds_every_offset_within_the_radius_nearest_first() {
+        DiscOffsetTable disc = DiscOffsetTable.getInstance();
+
+        int expectedAmount = 0;
+        for (int dx = -5; dx <= 5; dx++) {
+            for (int dy = -5; dy <= 5; dy++) {
+                if (DiscOffsetTable.distance(dx, dy) <= 5) expectedAmount++;
+            }
+        }
+
+        assertThat(disc.getAmountWithinRadius(0)).isEqualTo(1);
+        assertThat(disc.getAmountWithinRadius(5)).isEqualTo(expectedAmount);
+        for (int i = 1; i < disc.getAmountWithinRadius(DiscOffsetTable.MAX_RADIUS); i++) {
+            assertThat(disc.getDistance(i)).isGreaterThanOrEqualTo(disc.getDistance(i - 1));
+        }
+    }
+
+    @Test
+    void nearby_villages_are_sorted_by_distance_for_dense_and_sparse_worlds() {
+        WorldMap worldMap = new WorldMap(34843, 50, 50, 25);
+        List<WorldVillage> villages = new ArrayList<>();
+        long id = 1;
+        for (int x = 0; x < 50; x += 3) {
+            for (int y = 0; y < 50; y += 4) {
+                villages.add(new WorldVillage(id++, "Derp", new Coord(x, y), "Village " + id, 7L, 100));
+            }
+        }
+        worldMap.setVillages(villages);
+        Coord center = new Coord(20, 20);
+
+        // Radius 3 walks the disc, radius 30 scans the villages and sorts them.
+        List<NearbyVillage> dense = worldMap.getVillagesWithinDistance(center, 3);
+        List<NearbyVillage> sparse = worldMap.getVillagesWithinDistance(center, 30);
+
+        assertThat(dense).isNotEmpty().allMatch(v -> v.distance <= 3);
+        assertThat(dense).extracting(v -> v.distance).isSorted();
+        assertThat(sparse).extracting(v -> v.distance).isSorted();
+        assertThat(sparse.subList(0, dense.size())).extracting(v -> v.villageId)
+                .containsExactlyElementsOf(dense.stream().map(v -> v.villageId).toList());
+    }
+
+    @Test
+    void nearby_tiles_stay_inside_the_world() {
+        WorldMap worldMap = new WorldMap(34843, 50, 50, 25);
+
+        List<NearbyTile> tiles = worldMap.getTilesWithinDistance(new Coord(0, 0), 2);
+
+        assertThat(tiles).extracting(t -> t.x + "," + t.y)
+                .containsExactly("0,0", "0,1", "1,0", "1,1", "0,2", "2,0");
+        assertThat(tiles.get(0).distance).isZero();
+    }
+}
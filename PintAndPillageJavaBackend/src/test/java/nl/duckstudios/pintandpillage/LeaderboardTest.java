@@ -0,0 +1,92 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.entity.Coord;
+import nl.duckstudios.pintandpillage.helper.Leaderboard;
+import nl.duckstudios.pintandpillage.model.UserHighscore;
+import nl.duckstudios.pintandpillage.model.WorldVillage;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaderboardTest {
+
+    @Test
+    void users_are_ranked_by_the_points_of_all_their_villages() {
+        Leaderboard leaderboard = new Leaderboard();
+
+        leaderboard.putVillage(village(1, 10, "ragnar", 100));
+        leaderboard.putVillage(village(2, 20, "lagertha", 150));
+        leaderboard.putVillage(village(3, 10, "ragnar", 80));
+
+        assertThat(leaderboard.getHighscores(0, 10))
+                .extracting(h -> h.username + ":" + h.totalPoints + ":" + h.rank)
+                .containsExactly("ragnar:180:1", "lagertha:150:2");
+        assertThat(leaderboard.getHighscore(20).rank).isEqualTo(2);
+    }
+
+    @Test
+    void changed_and_conquered_villages_move_their_points() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.putVillage(village(1, 10, "ragnar", 100));
+        leaderboard.putVillage(village(2, 20, "lagertha", 150));
+
+        leaderboard.putVillage(village(1, 10, "ragnar", 200));
+        assertThat(leaderboard.getHighscore(10).rank).isEqualTo(1);
+
+        leaderboard.putVillage(village(1, 20, "lagertha", 200));
+
+        assertThat(leaderboard.getHighscore(10)).isNull();
+        assertThat(leaderboard.getHighscore(20).totalPoints).isEqualTo(350);
+        assertThat(leaderboard.size()).isEqualTo(1);
+
+        leaderboard.removeVillage(2);
+
+        assertThat(leaderboard.getHighscore(20).totalPoints).isEqualTo(200);
+    }
+
+    @Test
+    void pages_and_ranks_match_a_sorted_list() {
+        Leaderboard leaderboard = new Leaderboard();
+        Map<Long, Integer> pointsByUser = new HashMap<>();
+        Map<Long, long[]> villages = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 2_000; i++) {
+            long villageId = random.nextInt(300);
+            long userId = random.nextInt(60);
+            int points = random.nextInt(500);
+            if (random.nextInt(5) == 0) {
+                leaderboard.removeVillage(villageId);
+                long[] previous = villages.remove(villageId);
+                if (previous != null) pointsByUser.merge(previous[0], (int) -previous[1], Integer::sum);
+                continue;
+            }
+            leaderboard.putVillage(village(villageId, userId, "user" + userId, points));
+            long[] previous = villages.put(villageId, new long[]{userId, points});
+            if (previous != null) pointsByUser.merge(previous[0], (int) -previous[1], Integer::sum);
+            pointsByUser.merge(userId, points, Integer::sum);
+        }
+
+        List<Long> expected = villages.values().stream().map(v -> v[0]).distinct()
+                .sorted(Comparator.<Long>comparingInt(pointsByUser::get).reversed().thenComparing(id -> id))
+                .toList();
+
+        List<UserHighscore> highscores = leaderboard.getHighscores(0, leaderboard.size());
+        assertThat(highscores).extracting(h -> h.username)
+                .containsExactlyElementsOf(expected.stream().map(id -> "user" + id).toList());
+        assertThat(leaderboard.getHighscores(5, 5)).extracting(h -> h.rank).containsExactly(6, 7, 8, 9, 10);
+        for (int rank = 1; rank <= expected.size(); rank++) {
+            assertThat(leaderboard.getHighscore(expected.get(rank - 1)).rank).isEqualTo(rank);
+        }
+    }
+
+    private static WorldVillage village(long villageId, long userId, String username, int points) {
+        return new WorldVillage(villageId, username, new Coord(0, 0), "village" + villageId, userId, points);
+    }
+}
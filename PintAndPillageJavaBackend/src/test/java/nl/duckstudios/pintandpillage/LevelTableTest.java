@@ -0,0 +1,63 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.entity.buildings.Headquarters;
+import nl.duckstudios.pintandpillage.entity.buildings.House;
+import nl.duckstudios.pintandpillage.helper.LevelTable;
+import nl.duckstudios.pintandpillage.helper.PopulationCalculator;
+import nl.duckstudios.pintandpillage.helper.ResourceProductionCalculator;
+import nl.duckstudios.pintandpillage.model.ResourceType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LevelTableTest {
+
+    @Test
+    void table_matches_the_formula_inside_and_beyond_the_precalculated_levels() {
+        LevelTable table = LevelTable.of(level -> 12 + ((30 + (level - 1) * 2L) * (long) Math.pow(level, 1.6)));
+
+        for (int level = 0; level <= ResourceProductionCalculator.DEFAULT_MAX_LEVEL + 5; level++) {
+            long expected = 12 + ((30 + (level - 1) * 2L) * (long) Math.pow(level, 1.6));
+            assertThat(table.get(level)).as("level %d", level).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void buildings_read_their_stats_from_the_tables() {
+        PopulationCalculator calculator = new PopulationCalculator();
+        House house = new House();
+        House otherHouse = new House();
+
+        house.setLevel(7);
+        house.updateBuilding();
+        otherHouse.setLevel(7);
+        otherHouse.updateBuilding();
+
+        assertThat(house.getPopulationCapacity()).isEqualTo(calculator.houseCapacity(7));
+        assertThat(house.getResourcesRequiredLevelUp()).isSameAs(otherHouse.getResourcesRequiredLevelUp());
+        assertThat(house.getConstructionTimeSeconds())
+                .isEqualTo(12 + ((30 + (7 - 1) * 2L) * (long) Math.pow(7, 1.6)));
+    }
+
+    @Test
+    void shared_level_up_costs_can_not_be_changed() {
+        House house = new House();
+        house.setLevel(7);
+        house.updateBuilding();
+
+        assertThatThrownBy(() -> house.getResourcesRequiredLevelUp().set(ResourceType.Wood, 0))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void headquarters_keeps_its_construction_time_formula() {
+        Headquarters headquarters = new Headquarters();
+        headquarters.setLevel(4);
+
+        headquarters.updateBuilding();
+
+        assertThat(headquarters.getConstructionTimeSeconds())
+                .isEqualTo(30 + ((45 + (4 - 1) * 2L) * (long) Math.pow(4, 1.75)));
+    }
+}
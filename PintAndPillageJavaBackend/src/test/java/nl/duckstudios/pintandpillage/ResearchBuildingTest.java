@@ -1,6 +1,7 @@
 package nl.duckstudios.pintandpillage;
 
 import nl.duckstudios.pintandpillage.Exceptions.ResearchConditionsNotMetException;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.entity.Village;
 import nl.duckstudios.pintandpillage.entity.buildings.ResearchBuilding;
 import nl.duckstudios.pintandpillage.entity.researching.Research;
@@ -35,7 +36,7 @@ class ResearchBuildingTest {
         ResourceManager resourceManager = mock(ResourceManager.class);
         Village village = mock(Village.class);
         Research research = mock(Research.class);
-        Map<String, Integer> costs = Map.of("Wood", 100, "Stone", 50);
+        ResourceVector costs = ResourceVector.of(Map.of("Wood", 100, "Stone", 50));
 
         building.setResourceManager(resourceManager);
         building.setVillage(village);
@@ -63,7 +64,7 @@ class ResearchBuildingTest {
         ResourceManager resourceManager = mock(ResourceManager.class);
         Village village = mock(Village.class);
         Research research = mock(Research.class);
-        Map<String, Integer> costs = Map.of("Wood", 100);
+        ResourceVector costs = ResourceVector.of(Map.of("Wood", 100));
 
         building.setResourceManager(resourceManager);
         building.setVillage(village);
@@ -96,7 +97,7 @@ class ResearchBuildingTest {
         ResourceManager resourceManager = mock(ResourceManager.class);
         Village village = mock(Village.class);
         Research research = mock(Research.class);
-        Map<String, Integer> costs = Map.of("Wood", 100);
+        ResourceVector costs = ResourceVector.of(Map.of("Wood", 100));
 
         building.setResourceManager(resourceManager);
         building.setVillage(village);
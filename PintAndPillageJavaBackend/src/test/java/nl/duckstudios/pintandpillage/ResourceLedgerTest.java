@@ -0,0 +1,76 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.entity.buildings.Lumberyard;
+import nl.duckstudios.pintandpillage.entity.buildings.Storage;
+import nl.duckstudios.pintandpillage.helper.BuildingEffectApplier;
+import nl.duckstudios.pintandpillage.helper.ResourceLedger;
+import nl.duckstudios.pintandpillage.model.ResourceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceLedgerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Test
+    void production_is_calculated_to_the_second() {
+        ResourceLedger ledger = new ResourceLedger();
+        ledger.addCapacity(1000);
+        ledger.addProduction(ResourceType.Wood, null, 120);
+
+        ResourceVector amounts = ledger.getAmountsAt(new ResourceVector().with(ResourceType.Wood, 100), START, START.plusSeconds(30));
+
+        assertThat(amounts.get(ResourceType.Wood)).isEqualTo(101);
+    }
+
+    @Test
+    void production_stops_at_the_capacity() {
+        ResourceLedger ledger = new ResourceLedger();
+        ledger.addCapacity(150);
+        ledger.addProduction(ResourceType.Wood, null, 100);
+
+        ResourceVector stored = new ResourceVector().with(ResourceType.Wood, 100).with(ResourceType.Stone, 200);
+
+        ResourceVector amounts = ledger.getAmountsAt(stored, START, START.plusHours(3));
+
+        assertThat(amounts.toMap()).containsExactlyInAnyOrderEntriesOf(Map.of("Wood", 150, "Stone", 200));
+    }
+
+    @Test
+    void conversion_slows_down_once_its_input_runs_out() {
+        // 20 hop is gone after 1 hour, after that the tavern brews only the 10 hop per hour the farm grows.
+        ResourceLedger ledger = new ResourceLedger();
+        ledger.addCapacity(1000);
+        ledger.addProduction(ResourceType.Hop, null, 10);
+        ledger.addProduction(ResourceType.Beer, ResourceType.Hop, 30);
+
+        ResourceVector stored = new ResourceVector().with(ResourceType.Hop, 20).with(ResourceType.Beer, 0);
+
+        ResourceVector amounts = ledger.getAmountsAt(stored, START, START.plusHours(3));
+
+        assertThat(amounts.toMap()).containsExactlyInAnyOrderEntriesOf(Map.of("Hop", 0, "Beer", 50));
+    }
+
+    @Test
+    void reading_resources_does_not_change_the_stored_amounts() {
+        Village village = new Village();
+        BuildingEffectApplier.registerBuiltBuilding(village, new Storage(), 1);
+        BuildingEffectApplier.registerBuiltBuilding(village, new Lumberyard(), 1);
+        village.setVillageResources(new HashMap<>(Map.of("Wood", 100, "Stone", 100, "Beer", 100)));
+
+        LocalDateTime inAnHour = LocalDateTime.now().plusHours(1);
+        Map<String, Integer> first = village.getResourcesAt(inAnHour).toMap();
+        Map<String, Integer> second = village.getResourcesAt(inAnHour).toMap();
+
+        assertThat(first).isEqualTo(second);
+        assertThat(first.get("Wood")).isEqualTo(100 + village.getResourcesPerHour().get("Wood"));
+        assertThat(village.getVillageResources()).containsEntry("Stone", 100);
+    }
+}
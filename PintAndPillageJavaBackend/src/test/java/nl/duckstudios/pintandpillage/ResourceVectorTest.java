@@ -0,0 +1,61 @@
+package nl.duckstudios.pintandpillage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
+import nl.duckstudios.pintandpillage.entity.production.Spear;
+import nl.duckstudios.pintandpillage.model.ResourceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResourceVectorTest {
+
+    @Test
+    void serializes_to_the_resource_map_of_its_types() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ResourceVector cost = new ResourceVector().with(ResourceType.Wood, 15).with(ResourceType.Beer, 0);
+
+        String json = objectMapper.writeValueAsString(cost);
+        ResourceVector read = objectMapper.readValue(json, ResourceVector.class);
+
+        assertThat(json).isEqualTo("{\"Wood\":15,\"Beer\":0}");
+        assertThat(read.toMap()).isEqualTo(cost.toMap());
+    }
+
+    @Test
+    void affordability_checks_every_resource_of_the_cost_for_the_amount() {
+        ResourceVector cost = new Spear().getResourcesRequiredToProduce();
+        ResourceVector resources = ResourceVector.of(Map.of("Wood", 1501, "Stone", 0, "Beer", 1501));
+
+        assertThat(resources.hasMoreThan(cost, 100)).isTrue();
+        assertThat(resources.hasMoreThan(cost, 101)).isFalse();
+    }
+
+    @Test
+    void adding_stops_at_the_capacity() {
+        ResourceVector resources = new ResourceVector().with(ResourceType.Wood, 90).with(ResourceType.Stone, 120);
+        ResourceVector added = new ResourceVector().with(ResourceType.Wood, 50).with(ResourceType.Hop, 10);
+
+        ResourceVector result = resources.plus(added, 100);
+
+        assertThat(result.toMap()).containsExactlyInAnyOrderEntriesOf(Map.of("Wood", 100, "Stone", 120, "Hop", 10));
+        assertThat(resources.get(ResourceType.Wood)).isEqualTo(90);
+    }
+
+    @Test
+    void the_cost_of_a_unit_can_not_be_changed() {
+        ResourceVector cost = new Spear().getResourcesRequiredToProduce();
+
+        assertThatThrownBy(() -> cost.set(ResourceType.Wood, 0)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> cost.setBeer(0)).isInstanceOf(UnsupportedOperationException.class);
+
+        ResourceVector copy = cost.copy();
+        copy.set(ResourceType.Wood, 0);
+        assertThat(copy.get(ResourceType.Wood)).isZero();
+        assertThat(cost.get(ResourceType.Wood)).isEqualTo(15);
+        assertThat(cost.minus(cost).get(ResourceType.Beer)).isZero();
+    }
+}
@@ -0,0 +1,98 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.dao.SchemaBackfill;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SchemaBackfillTest {
+
+    private static final String TABLE_EXISTS = "select count(*) from information_schema.tables where table_name = ?";
+    private static final String COLUMN_EXISTS =
+            "select count(*) from information_schema.columns where table_name = ? and column_name = ?";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void nothing_is_copied_when_the_old_tables_are_gone() {
+        // Arrange
+        when(this.jdbcTemplate.queryForObject(eq(TABLE_EXISTS), eq(Integer.class), anyString())).thenReturn(0);
+
+        // Act
+        new SchemaBackfill(this.jdbcTemplate, this.entityManagerFactory).backfill();
+
+        // Assert
+        verify(this.jdbcTemplate, never()).update(anyString());
+    }
+
+    @Test
+    void resources_are_copied_into_the_empty_vector_columns() {
+        // Arrange
+        when(this.jdbcTemplate.queryForObject(eq(TABLE_EXISTS), eq(Integer.class), anyString())).thenReturn(0);
+        when(this.jdbcTemplate.queryForObject(TABLE_EXISTS, Integer.class, "village_village_resources")).thenReturn(1);
+
+        // Act
+        new SchemaBackfill(this.jdbcTemplate, this.entityManagerFactory).backfill();
+
+        // Assert: only rows that were not filled yet get the amounts and types of their old map.
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(this.jdbcTemplate, times(1)).update(sql.capture());
+        assertThat(sql.getValue())
+                .startsWith("update villages t set wood = coalesce((select r.village_resources from village_village_resources r "
+                        + "where r.village_village_id = t.village_id and r.village_resources_key = 'Wood'), 0)")
+                .contains("when 'Wood' then 1 when 'Stone' then 2 when 'Hop' then 4 when 'Beer' then 8 when 'Charcoal' then 16")
+                .endsWith("where t.stored_types is null and exists (select 1 from village_village_resources r "
+                        + "where r.village_village_id = t.village_id)");
+    }
+
+    @Test
+    void unit_types_are_copied_from_the_unit_rows_they_referred_to() {
+        // Arrange
+        when(this.jdbcTemplate.queryForObject(eq(TABLE_EXISTS), eq(Integer.class), anyString())).thenReturn(0);
+        when(this.jdbcTemplate.queryForObject(TABLE_EXISTS, Integer.class, "unit")).thenReturn(1);
+        when(this.jdbcTemplate.queryForObject(COLUMN_EXISTS, Integer.class, "village_unit", "unit_id")).thenReturn(1);
+        when(this.jdbcTemplate.queryForObject(COLUMN_EXISTS, Integer.class, "production_items", "unit_to_produce_id"))
+                .thenReturn(0);
+
+        // Act
+        new SchemaBackfill(this.jdbcTemplate, this.entityManagerFactory).backfill();
+
+        // Assert: the old rows kept the unit name as its ordinal, a scout was stored with the spear name.
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(this.jdbcTemplate, times(1)).update(sql.capture());
+        assertThat(sql.getValue())
+                .startsWith("update village_unit t set unit_type = case u.unit_name when 0 then 'Spear' when 1 then 'Axe'")
+                .contains("when 8 then 'Shield' end")
+                .endsWith("from unit u where u.id = t.unit_id and t.unit_type is null");
+    }
+
+    @Test
+    void the_unused_cached_points_column_is_dropped() {
+        // Arrange
+        when(this.jdbcTemplate.queryForObject(eq(TABLE_EXISTS), eq(Integer.class), anyString())).thenReturn(0);
+
+        // Act
+        new SchemaBackfill(this.jdbcTemplate, this.entityManagerFactory).backfill();
+
+        // Assert
+        verify(this.jdbcTemplate).execute("alter table if exists villages drop column if exists village_points_cached");
+    }
+}
@@ -0,0 +1,116 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.Exceptions.NoEmptyVillageSpotFoundException;
+import nl.duckstudios.pintandpillage.entity.Coord;
+import nl.duckstudios.pintandpillage.entity.WorldMap;
+import nl.duckstudios.pintandpillage.model.WorldVillage;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpawnSpotPoolTest {
+
+    private WorldMap createWorldMap() {
+        return new WorldMap(34843, 50, 50, 25);
+    }
+
+    private String key(Coord coord) {
+        return coord.getX() + "," + coord.getY();
+    }
+
+    private List<Coord> reserveAll(WorldMap worldMap) {
+        List<Coord> spots = new ArrayList<>();
+        try {
+            while (true) {
+                spots.add(worldMap.reserveEmptySpot());
+            }
+        } catch (NoEmptyVillageSpotFoundException e) {
+            return spots;
+        }
+    }
+
+    @Test
+    void reserved_spots_are_unique_and_never_occupied() {
+        // Arrange: one spawn spot already holds a village.
+        WorldMap worldMap = createWorldMap();
+        int amountOfSpawnSpots = worldMap.getAmountOfSpawnSpots();
+        Coord taken = worldMap.reserveEmptySpot();
+        worldMap.putVillage(new WorldVillage(1L, "Derp", taken, "Apal", 7L, 100));
+
+        // Act: drain the pool.
+        List<Coord> spots = reserveAll(worldMap);
+
+        // Assert: every other spawn spot is handed out exactly once.
+        assertThat(spots).hasSize(amountOfSpawnSpots - 1);
+        assertThat(spots).extracting(this::key)
+                .doesNotHaveDuplicates()
+                .doesNotContain(key(taken));
+        assertThat(spots).noneMatch(worldMap::isOccupied);
+    }
+
+    @Test
+    void released_and_freed_spots_return_to_the_pool() {
+        // Arrange: an empty pool where one spot holds a village and one is still reserved.
+        WorldMap worldMap = createWorldMap();
+        Coord settled = worldMap.reserveEmptySpot();
+        worldMap.putVillage(new WorldVillage(1L, "Derp", settled, "Apal", 7L, 100));
+        Coord reserved = worldMap.reserveEmptySpot();
+        reserveAll(worldMap);
+
+        // Act: the reservation fails and the village disappears.
+        worldMap.releaseSpot(reserved);
+        worldMap.removeVillage(1L);
+
+        // Assert: both spots can be handed out again.
+        assertThat(reserveAll(worldMap)).extracting(this::key)
+                .containsExactlyInAnyOrder(key(reserved), key(settled));
+    }
+
+    @Test
+    void reserved_spot_cannot_be_settled_twice() {
+        WorldMap worldMap = createWorldMap();
+        Coord spot = worldMap.reserveEmptySpot();
+
+        assertThat(worldMap.reserveSpot(spot)).isFalse();
+        assertThat(worldMap.isValidToBuildNewVillage(spot)).isFalse();
+        assertThat(reserveAll(worldMap)).extracting(this::key).doesNotContain(key(spot));
+        assertThatThrownBy(worldMap::reserveEmptySpot).isInstanceOf(NoEmptyVillageSpotFoundException.class);
+    }
+
+    @Test
+    void concurrent_reservations_never_share_a_spot() throws InterruptedException {
+        WorldMap worldMap = createWorldMap();
+        int amountOfSpawnSpots = worldMap.getAmountOfSpawnSpots();
+        Set<String> handedOut = ConcurrentHashMap.newKeySet();
+        List<String> duplicates = new ArrayList<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < amountOfSpawnSpots + 8; i++) {
+            executor.submit(() -> {
+                try {
+                    Coord spot = worldMap.reserveEmptySpot();
+                    if (!handedOut.add(key(spot))) {
+                        synchronized (duplicates) {
+                            duplicates.add(key(spot));
+                        }
+                    }
+                } catch (NoEmptyVillageSpotFoundException ignored) {
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(duplicates).isEmpty();
+        assertThat(handedOut).hasSize(amountOfSpawnSpots);
+    }
+}
@@ -0,0 +1,157 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.dao.TravelDao;
+import nl.duckstudios.pintandpillage.dao.VillageDataMapper;
+import nl.duckstudios.pintandpillage.dao.VillageLocks;
+import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.entity.VillageUnit;
+import nl.duckstudios.pintandpillage.entity.production.Spear;
+import nl.duckstudios.pintandpillage.entity.travels.ReturningCombatTravel;
+import nl.duckstudios.pintandpillage.helper.ResourceManager;
+import nl.duckstudios.pintandpillage.model.UnitType;
+import nl.duckstudios.pintandpillage.service.DistanceService;
+import nl.duckstudios.pintandpillage.service.VillageService;
+import nl.duckstudios.pintandpillage.service.WorldService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TravelResolutionTest {
+
+    @Mock
+    private VillageDataMapper villageDataMapper;
+
+    @Mock
+    private ResourceManager resourceManager;
+
+    @Mock
+    private WorldService worldService;
+
+    @Mock
+    private DistanceService distanceService;
+
+    @Mock
+    private TravelDao travelDao;
+
+    @Spy
+    private VillageLocks villageLocks = new VillageLocks(mock(EntityManager.class),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), 16, 3);
+
+    @InjectMocks
+    private VillageService villageService;
+
+    @Test
+    void reading_a_village_leaves_arrived_travels_to_the_scheduler() {
+        // Arrange: a village with units that returned a minute ago.
+        Village village = new Village();
+        ReturningCombatTravel travel = this.createReturningTravel(village, LocalDateTime.now().minusMinutes(1));
+        when(villageDataMapper.getVillage(1L)).thenReturn(village);
+
+        // Act: the player opens the village.
+        villageService.getVillage(1L);
+
+        // Assert: the travel is still on its way without time left, nothing is written.
+        assertThat(village.getReturningCombatTravels()).containsExactly(travel);
+        assertThat(travel.getTravelTimeLeft()).isEqualTo(LocalTime.MIDNIGHT);
+        verify(villageDataMapper, never()).update(village);
+    }
+
+    @Test
+    void arrived_travels_are_resolved_at_their_time_of_arrival() {
+        // Arrange: units that returned a minute ago.
+        Village village = new Village();
+        village.setVillageId(3L);
+        LocalDateTime arrival = LocalDateTime.now().minusMinutes(1);
+        ReturningCombatTravel travel = this.createReturningTravel(village, arrival);
+        LocalDateTime now = LocalDateTime.now();
+        when(travelDao.claimArrivedTravels(now, 50)).thenReturn(List.of(7L));
+        when(travelDao.getTravels(List.of(7L))).thenReturn(List.of(travel));
+        when(travelDao.getTravel(7L)).thenReturn(travel);
+
+        // Act: the scheduler claims and resolves the arrived travels.
+        int resolved = villageService.resolveArrivedTravels(now, 50);
+
+        // Assert: the units are back home under the lock of the village and the log shows when they arrived.
+        assertThat(resolved).isEqualTo(1);
+        verify(villageLocks).withVillages(any(), eq(3L));
+        assertThat(village.getUnitInVillage(UnitType.Spear).getAmount()).isEqualTo(5);
+        assertThat(village.getReturningCombatTravels()).isEmpty();
+        assertThat(village.getCombatLog()).singleElement()
+                .satisfies(logLine -> assertThat(logLine.date).isEqualTo(arrival));
+        verify(villageDataMapper).update(village);
+    }
+
+    @Test
+    void a_failing_travel_is_handed_back_without_holding_up_the_others() {
+        // Arrange: two returning travels, writing the first village fails.
+        Village failingVillage = new Village();
+        failingVillage.setVillageId(3L);
+        ReturningCombatTravel failingTravel = this.createReturningTravel(failingVillage, LocalDateTime.now().minusMinutes(2));
+        failingTravel.setId(7L);
+        Village village = new Village();
+        village.setVillageId(4L);
+        ReturningCombatTravel travel = this.createReturningTravel(village, LocalDateTime.now().minusMinutes(1));
+        travel.setId(8L);
+        LocalDateTime now = LocalDateTime.now();
+        when(travelDao.claimArrivedTravels(now, 50)).thenReturn(List.of(7L, 8L));
+        when(travelDao.getTravels(List.of(7L, 8L))).thenReturn(List.of(failingTravel, travel));
+        when(travelDao.getTravel(7L)).thenReturn(failingTravel);
+        when(travelDao.getTravel(8L)).thenReturn(travel);
+        doThrow(new IllegalStateException("write failed")).when(villageDataMapper).update(failingVillage);
+
+        // Act
+        assertThatThrownBy(() -> villageService.resolveArrivedTravels(now, 50))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Assert: the failed travel is claimable again right away, the other one is resolved.
+        verify(travelDao).releaseClaim(7L);
+        verify(travelDao, never()).releaseClaim(8L);
+        verify(villageDataMapper).update(village);
+        assertThat(village.getReturningCombatTravels()).isEmpty();
+    }
+
+    @Test
+    void nothing_is_loaded_when_another_instance_claimed_the_travels() {
+        LocalDateTime now = LocalDateTime.now();
+        when(travelDao.claimArrivedTravels(now, 50)).thenReturn(List.of());
+
+        int resolved = villageService.resolveArrivedTravels(now, 50);
+
+        assertThat(resolved).isZero();
+        verify(travelDao, never()).getTravels(List.of());
+    }
+
+    private ReturningCombatTravel createReturningTravel(Village village, LocalDateTime timeOfArrival) {
+        ReturningCombatTravel travel = new ReturningCombatTravel();
+        travel.setId(7L);
+        VillageUnit spears = new VillageUnit(new Spear(), 5);
+        spears.setCombatTravel(travel);
+        travel.setTravelingUnits(new ArrayList<>(List.of(spears)));
+        travel.setTimeOfArrival(timeOfArrival);
+        travel.setReturningToVillage(village);
+        village.addReturnTravel(travel);
+        return travel;
+    }
+}
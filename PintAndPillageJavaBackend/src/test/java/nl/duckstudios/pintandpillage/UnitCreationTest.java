@@ -1,7 +1,12 @@
 package nl.duckstudios.pintandpillage;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.duckstudios.pintandpillage.Exceptions.NotExistingEntityException;
 import nl.duckstudios.pintandpillage.Exceptions.ProductionConditionsNotMetException;
+import nl.duckstudios.pintandpillage.entity.ResourceVector;
 import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.entity.VillageUnit;
 import nl.duckstudios.pintandpillage.entity.buildings.ProductionBuilding;
 import nl.duckstudios.pintandpillage.entity.production.Unit;
 import nl.duckstudios.pintandpillage.helper.ResourceManager;
@@ -17,10 +22,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -54,8 +59,6 @@ class UnitCreationTest {
     @BeforeEach
     void setUp() {
         transportShip = UnitFactory.getUnitStatic(UnitType.TransportShip.name());
-        // Align the base unit field with the subclass getter for production checks.
-        transportShip.populationRequiredPerUnit = transportShip.getPopulationRequiredPerUnit();
         productionBuilding.setVillage(village);
         productionBuilding.setLevel(1);
         productionBuilding.setUnitsUnlockedAtLevel(List.of(new Unlock(UnitType.TransportShip, 1)));
@@ -66,7 +69,7 @@ class UnitCreationTest {
     void shouldCreateNewUnit_whenValidInput() {
         // Arrange: enough resources and population to train the unit.
         int amount = 1;
-        Map<String, Integer> costs = transportShip.getResourcesRequiredToProduce();
+        ResourceVector costs = transportShip.getResourcesRequiredToProduce();
 
         when(resourceManager.hasEnoughResourcesAvailable(village, costs, amount)).thenReturn(true);
         when(village.hasEnoughPopulation(transportShip.getPopulationRequiredPerUnit(), amount)).thenReturn(true);
@@ -83,7 +86,7 @@ class UnitCreationTest {
     void shouldNotCreateUnit_whenNotEnoughResources() {
         // Arrange: resource manager blocks the request.
         int amount = 1;
-        Map<String, Integer> costs = transportShip.getResourcesRequiredToProduce();
+        ResourceVector costs = transportShip.getResourcesRequiredToProduce();
 
         when(resourceManager.hasEnoughResourcesAvailable(village, costs, amount)).thenReturn(false);
         when(village.hasEnoughPopulation(transportShip.getPopulationRequiredPerUnit(), amount)).thenReturn(true);
@@ -99,7 +102,7 @@ class UnitCreationTest {
     void shouldNotCreateUnit_whenPopulationLimitReached() {
         // Arrange: insufficient population prevents training.
         int amount = 2;
-        Map<String, Integer> costs = transportShip.getResourcesRequiredToProduce();
+        ResourceVector costs = transportShip.getResourcesRequiredToProduce();
 
         when(village.hasEnoughPopulation(transportShip.getPopulationRequiredPerUnit(), amount)).thenReturn(false);
 
@@ -114,7 +117,7 @@ class UnitCreationTest {
     void shouldIncreasePopulationAfterTraining() {
         // Arrange: queue a unit and fast-forward production time.
         int amount = 1;
-        Map<String, Integer> costs = transportShip.getResourcesRequiredToProduce();
+        ResourceVector costs = transportShip.getResourcesRequiredToProduce();
 
         when(resourceManager.hasEnoughResourcesAvailable(village, costs, amount)).thenReturn(true);
         when(village.hasEnoughPopulation(transportShip.getPopulationRequiredPerUnit(), amount)).thenReturn(true);
@@ -130,4 +133,100 @@ class UnitCreationTest {
         verify(village).addUnit(eq(transportShip), eq(amount));
         assertThat(productionBuilding.getProductionQueue()).isEmpty();
     }
+
+    @Test
+    void shouldProduceAcrossQueuedItems_inStartTimeOrder() {
+        // Arrange: two ships queued, then enough time for the first item and one unit of the second.
+        long seconds = transportShip.getBaseSecondsToProduce();
+        when(resourceManager.hasEnoughResourcesAvailable(eq(village), eq(transportShip.getResourcesRequiredToProduce()), anyInt())).thenReturn(true);
+        when(village.hasEnoughPopulation(eq(transportShip.getPopulationRequiredPerUnit()), anyInt())).thenReturn(true);
+        productionBuilding.setQueueLimit(5);
+
+        productionBuilding.produceUnit(transportShip, 2);
+        productionBuilding.produceUnit(transportShip, 3);
+        productionBuilding.setLastCollected(LocalDateTime.now().minusSeconds(seconds * 3));
+
+        // Act: collect the production.
+        productionBuilding.checkProduction();
+
+        // Assert: the first item is done and the second one produced a single unit.
+        verify(village).addUnit(transportShip, 2);
+        verify(village).addUnit(transportShip, 1);
+        assertThat(productionBuilding.getProductionQueue()).hasSize(1);
+        assertThat(productionBuilding.getProductionQueue().get(0).getAmountToProduce()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotTouchVillage_beforeNextUnitIsFinished() {
+        // Arrange: a queued ship that only just started.
+        when(resourceManager.hasEnoughResourcesAvailable(village, transportShip.getResourcesRequiredToProduce(), 1)).thenReturn(true);
+        when(village.hasEnoughPopulation(transportShip.getPopulationRequiredPerUnit(), 1)).thenReturn(true);
+        productionBuilding.produceUnit(transportShip, 1);
+        productionBuilding.setLastCollected(LocalDateTime.now());
+
+        // Act: collect the production twice.
+        productionBuilding.checkProduction();
+        productionBuilding.checkProduction();
+
+        // Assert: nothing was produced yet.
+        verify(village, never()).addUnit(eq(transportShip), anyInt());
+        assertThat(productionBuilding.getProductionQueue()).hasSize(1);
+    }
+
+    @Test
+    void shouldLeaveIdleBuildingUntouched_whenCollecting() {
+        // Arrange: an idle building that last produced an hour ago.
+        LocalDateTime lastCollected = LocalDateTime.now().minusHours(1);
+        productionBuilding.setLastCollected(lastCollected);
+
+        // Act
+        productionBuilding.checkProduction();
+
+        // Assert: nothing changed, so loading the village does not write the building.
+        assertThat(productionBuilding.getLastCollected()).isEqualTo(lastCollected);
+    }
+
+    @Test
+    void shouldStartCountingProduction_whenQueuedOnIdleBuilding() {
+        // Arrange: an idle building that last produced an hour ago.
+        when(resourceManager.hasEnoughResourcesAvailable(village, transportShip.getResourcesRequiredToProduce(), 1)).thenReturn(true);
+        when(village.hasEnoughPopulation(transportShip.getPopulationRequiredPerUnit(), 1)).thenReturn(true);
+        productionBuilding.setLastCollected(LocalDateTime.now().minusHours(1));
+
+        // Act: queue a ship and collect right away.
+        productionBuilding.produceUnit(transportShip, 1);
+        productionBuilding.checkProduction();
+
+        // Assert: the idle hour does not count as production time.
+        verify(village, never()).addUnit(eq(transportShip), anyInt());
+        assertThat(productionBuilding.getLastCollected()).isAfter(LocalDateTime.now().minusMinutes(1));
+    }
+
+    @Test
+    void shouldShareOneDefinitionPerUnitType() {
+        // Act: look up the same unit type twice and wrap it in a stack.
+        Unit spear = UnitFactory.getUnitStatic(UnitType.Spear.name());
+        VillageUnit stack = new VillageUnit(spear, 4);
+
+        // Assert: the stack refers to the shared definition by its type.
+        assertThat(UnitFactory.getUnitStatic(UnitType.Spear)).isSameAs(spear);
+        assertThat(stack.getUnitType()).isEqualTo(UnitType.Spear);
+        assertThat(stack.getUnit()).isSameAs(spear);
+        assertThatThrownBy(() -> UnitFactory.getUnitStatic("Dragon"))
+                .isInstanceOf(NotExistingEntityException.class);
+    }
+
+    @Test
+    void shouldSerializeStackWithItsUnitStats() throws Exception {
+        // Arrange
+        VillageUnit stack = new VillageUnit(UnitFactory.getUnitStatic(UnitType.Axe), 2);
+
+        // Act
+        JsonNode json = new ObjectMapper().findAndRegisterModules().valueToTree(stack);
+
+        // Assert: the frontend still gets the unit object, not the stored type.
+        assertThat(json.get("amount").asInt()).isEqualTo(2);
+        assertThat(json.get("unit").get("unitName").asText()).isEqualTo("Axe");
+        assertThat(json.has("unitType")).isFalse();
+    }
 }
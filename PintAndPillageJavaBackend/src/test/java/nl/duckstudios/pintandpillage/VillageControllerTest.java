@@ -0,0 +1,123 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.Exceptions.UnauthorizedException;
+import nl.duckstudios.pintandpillage.controller.VillageController;
+import nl.duckstudios.pintandpillage.dao.VillageDAO;
+import nl.duckstudios.pintandpillage.entity.Coord;
+import nl.duckstudios.pintandpillage.entity.User;
+import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.helper.VillageFactory;
+import nl.duckstudios.pintandpillage.model.LogPage;
+import nl.duckstudios.pintandpillage.model.LogTypes;
+import nl.duckstudios.pintandpillage.service.AccountService;
+import nl.duckstudios.pintandpillage.service.AuthenticationService;
+import nl.duckstudios.pintandpillage.service.VillageEventService;
+import nl.duckstudios.pintandpillage.service.VillageService;
+import nl.duckstudios.pintandpillage.service.WorldService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VillageControllerTest {
+
+    @Mock
+    private VillageDAO villageDAO;
+
+    @Mock
+    private AuthenticationService authenticationService;
+
+    @Spy
+    private AccountService accountService = new AccountService();
+
+    @Mock
+    private VillageService villageService;
+
+    @Mock
+    private VillageFactory villageFactory;
+
+    @Mock
+    private WorldService worldService;
+
+    @Mock
+    private VillageEventService villageEventService;
+
+    @InjectMocks
+    private VillageController villageController;
+
+    @Test
+    void reading_the_logs_does_not_load_the_village() {
+        // Arrange
+        User user = new User();
+        user.setId(1L);
+        LogPage page = new LogPage(List.of(), null);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(villageDAO.getOwnerId(5L)).thenReturn(1L);
+        when(villageService.getLogPage(5L, LogTypes.COMBAT_LOG, null, 20)).thenReturn(page);
+
+        // Act
+        LogPage result = villageController.getLogs(5L, LogTypes.COMBAT_LOG, null, 20);
+
+        // Assert: only the owner is looked up, the village is not brought up to date and written.
+        assertThat(result).isSameAs(page);
+        verify(villageService, never()).getVillage(anyLong());
+    }
+
+    @Test
+    void the_logs_of_another_users_village_are_not_shown() {
+        // Arrange
+        User user = new User();
+        user.setId(1L);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(villageDAO.getOwnerId(5L)).thenReturn(2L);
+
+        // Act + Assert
+        assertThatThrownBy(() -> villageController.getLogs(5L, LogTypes.COMBAT_LOG, null, 20))
+                .isInstanceOf(UnauthorizedException.class);
+        verify(villageService, never()).getLogPage(anyLong(), any(), any(), anyInt());
+    }
+
+    @Test
+    void a_spot_taken_by_another_instance_is_handed_back_and_another_one_is_tried() {
+        // Arrange: the first spot was taken by a village this instance does not know of yet.
+        User user = new User();
+        user.setId(1L);
+        Coord takenSpot = new Coord(3, 4);
+        Coord freeSpot = new Coord(8, 9);
+        Village rejectedVillage = new Village();
+        Village village = new Village();
+        village.setUser(user);
+        when(authenticationService.getAuthenticatedUser()).thenReturn(user);
+        when(worldService.reserveSpawnSpot()).thenReturn(takenSpot, freeSpot);
+        when(villageFactory.createBasicVillage(user, takenSpot)).thenReturn(rejectedVillage);
+        when(villageFactory.createBasicVillage(user, freeSpot)).thenReturn(village);
+        when(villageDAO.save(rejectedVillage)).thenThrow(new DataIntegrityViolationException("uk_villages_position"));
+
+        // Act
+        Village result = villageController.createVillage();
+
+        // Assert: the village is founded on the second spot and the other instances hear of it.
+        assertThat(result).isSameAs(village);
+        verify(worldService).releaseSpot(takenSpot);
+        verify(worldService, never()).releaseSpot(freeSpot);
+        verify(worldService, times(2)).reserveSpawnSpot();
+        verify(villageEventService).publish(eq(village), any());
+    }
+}
@@ -0,0 +1,77 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.dao.VillageDAO;
+import nl.duckstudios.pintandpillage.dao.VillageDataMapper;
+import nl.duckstudios.pintandpillage.dao.VillageLogStore;
+import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.entity.buildings.House;
+import nl.duckstudios.pintandpillage.helper.BuildingEffectApplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VillageDataMapperTest {
+
+    @Mock
+    private VillageDAO villageDAO;
+
+    @Mock
+    private VillageLogStore villageLogStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private VillageDataMapper villageDataMapper;
+
+    @Test
+    void reading_an_unchanged_village_does_not_write() {
+        // Arrange: a stored village without anything finishing.
+        Village village = new Village();
+        BuildingEffectApplier.registerBuiltBuilding(village, new House(), 1);
+        when(villageDAO.getVillage(1L)).thenReturn(village);
+
+        // Act: the village is read twice.
+        villageDataMapper.getVillage(1L);
+        Village result = villageDataMapper.getVillage(1L);
+
+        // Assert: nothing is saved and both writes are counted as avoided.
+        assertThat(result).isSameAs(village);
+        verify(villageDAO, never()).save(village);
+        assertThat(villageDataMapper.getAvoidedWrites()).isEqualTo(2);
+    }
+
+    @Test
+    void reading_a_village_with_finished_construction_writes_once() {
+        // Arrange: a house that finished constructing a while ago.
+        Village village = new Village();
+        House house = new House();
+        BuildingEffectApplier.registerBuiltBuilding(village, house, 1);
+        house.setUnderConstruction(true);
+        house.setLevelupFinishedTime(LocalDateTime.now().minusMinutes(1));
+        when(villageDAO.getVillage(1L)).thenReturn(village);
+        when(villageDAO.save(village)).thenReturn(village);
+
+        // Act: read the village.
+        villageDataMapper.getVillage(1L);
+
+        // Assert: the finished level is stored together with its log line and the transition is cleared.
+        verify(villageDAO).save(village);
+        verify(villageLogStore).append(argThat(logLines -> logLines.size() == 1));
+        assertThat(house.getLevel()).isEqualTo(2);
+        assertThat(village.hasStateTransitioned()).isFalse();
+        assertThat(villageDataMapper.getAvoidedWrites()).isZero();
+    }
+}
@@ -0,0 +1,224 @@
+package nl.duckstudios.pintandpillage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.duckstudios.pintandpillage.dao.VillageChangeRepository;
+import nl.duckstudios.pintandpillage.dao.VillageLocks;
+import nl.duckstudios.pintandpillage.entity.User;
+import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.entity.events.VillageChangeRecord;
+import nl.duckstudios.pintandpillage.model.VillageChange;
+import nl.duckstudios.pintandpillage.model.VillageEvent;
+import nl.duckstudios.pintandpillage.model.VillageEventType;
+import nl.duckstudios.pintandpillage.service.VillageEventService;
+import nl.duckstudios.pintandpillage.service.VillageService;
+import nl.duckstudios.pintandpillage.service.WorldService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VillageEventServiceTest {
+
+    private static final LocalDateTime FINISHED = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Mock
+    private VillageService villageService;
+
+    @Mock
+    private WorldService worldService;
+
+    @Mock
+    private VillageLocks villageLocks;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private VillageChangeRepository villageChangeRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private VillageEventService villageEventService;
+
+    @Test
+    void subscribing_schedules_a_wake_up_for_the_next_transition_of_every_village() {
+        // Arrange
+        Village village = mock(Village.class);
+        when(village.getVillageId()).thenReturn(3L);
+        when(village.getNextTransitionTime()).thenReturn(FINISHED);
+        when(this.villageService.getListOfVillagesFromUser(7L)).thenReturn(List.of(village));
+
+        // Act
+        this.villageEventService.subscribe(7L);
+
+        // Assert
+        verify(this.taskScheduler).schedule(any(Runnable.class), eq(instantOf(FINISHED.plusSeconds(1))));
+    }
+
+    @Test
+    void changes_of_users_without_a_stream_are_not_scheduled() {
+        // Act
+        this.villageEventService.onVillageChange(new VillageChange(3L, 7L,
+                List.of(new VillageEvent(3L, VillageEventType.CONSTRUCTION_FINISHED, "Built", FINISHED)), FINISHED));
+
+        // Assert
+        verifyNoInteractions(this.taskScheduler);
+    }
+
+    @Test
+    void a_moved_transition_replaces_the_scheduled_wake_up() {
+        // Arrange
+        ScheduledFuture<?> scheduled = mock(ScheduledFuture.class);
+        doReturn(scheduled).when(this.taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+        Village village = mock(Village.class);
+        when(village.getVillageId()).thenReturn(3L);
+        when(village.getNextTransitionTime()).thenReturn(FINISHED);
+        when(this.villageService.getListOfVillagesFromUser(7L)).thenReturn(List.of(village));
+        this.villageEventService.subscribe(7L);
+
+        // Act
+        LocalDateTime sooner = FINISHED.minusMinutes(5);
+        this.villageEventService.onVillageChange(new VillageChange(3L, 7L, List.of(), sooner));
+
+        // Assert
+        verify(scheduled).cancel(false);
+        verify(this.taskScheduler).schedule(any(Runnable.class), eq(instantOf(sooner.plusSeconds(1))));
+    }
+
+    @Test
+    void an_incoming_attack_is_published_as_a_change_of_the_defending_village() {
+        // Arrange
+        User defender = new User();
+        defender.setId(7L);
+        Village village = new Village();
+        village.setVillageId(3L);
+        village.setUser(defender);
+        VillageEvent event = new VillageEvent(3L, VillageEventType.ATTACK_INCOMING, "Incoming", FINISHED);
+
+        // Act
+        this.villageEventService.publish(village, event);
+
+        // Assert: it is only pushed once the change is committed, like every other change.
+        ArgumentCaptor<VillageChange> change = ArgumentCaptor.forClass(VillageChange.class);
+        verify(this.eventPublisher).publishEvent(change.capture());
+        assertThat(change.getValue().userId).isEqualTo(7L);
+        assertThat(change.getValue().events).containsExactly(event);
+    }
+
+    @Test
+    void changes_are_written_for_the_other_instances() {
+        // Act
+        this.villageEventService.recordVillageChange(new VillageChange(3L, 7L,
+                List.of(new VillageEvent(3L, VillageEventType.CONSTRUCTION_FINISHED, "Built", FINISHED)), null));
+
+        // Assert
+        ArgumentCaptor<VillageChangeRecord> record = ArgumentCaptor.forClass(VillageChangeRecord.class);
+        verify(this.villageChangeRepository).save(record.capture());
+        assertThat(record.getValue().getUserId()).isEqualTo(7L);
+        assertThat(record.getValue().getChange()).contains("CONSTRUCTION_FINISHED");
+    }
+
+    @Test
+    void changes_without_events_are_not_written() {
+        // Act: a save that only moved the next transition, like starting a construction.
+        this.villageEventService.recordVillageChange(new VillageChange(3L, 7L, List.of(), FINISHED));
+
+        // Assert
+        verifyNoInteractions(this.villageChangeRepository);
+    }
+
+    @Test
+    void receiving_changes_does_not_delete_old_ones() {
+        // Act
+        this.villageEventService.receiveChanges();
+
+        // Assert: old records are deleted on the coarser cleanup schedule.
+        verify(this.villageChangeRepository, never()).deleteCreatedBefore(any(LocalDateTime.class));
+    }
+
+    @Test
+    void changes_of_other_instances_are_received_once() throws Exception {
+        // Arrange: a connected user whose village was changed by another instance.
+        ScheduledFuture<?> scheduled = mock(ScheduledFuture.class);
+        doReturn(scheduled).when(this.taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+        when(this.villageService.getListOfVillagesFromUser(7L)).thenReturn(List.of());
+        this.villageEventService.subscribe(7L);
+        VillageChangeRecord record = new VillageChangeRecord("other", 7L,
+                this.objectMapper.writeValueAsString(new VillageChange(3L, 7L, List.of(), FINISHED)), LocalDateTime.now());
+        when(this.villageChangeRepository.findByCreatedAtAfterAndInstanceIdNotOrderById(
+                any(LocalDateTime.class), anyString())).thenReturn(List.of(record));
+
+        // Act: the record is read on two polls.
+        this.villageEventService.receiveChanges();
+        this.villageEventService.receiveChanges();
+
+        // Assert: the village is woken up on this instance, the change is handled only once.
+        verify(this.taskScheduler).schedule(any(Runnable.class), eq(instantOf(FINISHED.plusSeconds(1))));
+        verify(this.objectMapper, times(1)).readValue(anyString(), eq(VillageChange.class));
+    }
+
+    @Test
+    void villages_founded_on_other_instances_are_put_on_the_world() throws Exception {
+        // Arrange: nobody is connected to this instance.
+        VillageChangeRecord record = new VillageChangeRecord("other", 7L, this.objectMapper.writeValueAsString(
+                new VillageChange(3L, 7L, List.of(new VillageEvent(3L, VillageEventType.VILLAGE_CREATED, "Founded", FINISHED)), null)),
+                LocalDateTime.now());
+        when(this.villageChangeRepository.findByCreatedAtAfterAndInstanceIdNotOrderById(
+                any(LocalDateTime.class), anyString())).thenReturn(List.of(record));
+
+        // Act
+        this.villageEventService.receiveChanges();
+
+        // Assert: the spot of the village is taken on this instance as well.
+        verify(this.worldService).refreshVillage(3L);
+    }
+
+    @Test
+    void new_points_of_villages_on_other_instances_reach_the_leaderboard() throws Exception {
+        // Arrange
+        VillageChangeRecord record = new VillageChangeRecord("other", 7L, this.objectMapper.writeValueAsString(
+                new VillageChange(3L, 7L, List.of(new VillageEvent(3L, VillageEventType.POINTS_CHANGED, "Points", FINISHED)), null)),
+                LocalDateTime.now());
+        when(this.villageChangeRepository.findByCreatedAtAfterAndInstanceIdNotOrderById(
+                any(LocalDateTime.class), anyString())).thenReturn(List.of(record));
+
+        // Act
+        this.villageEventService.receiveChanges();
+
+        // Assert
+        verify(this.worldService).refreshVillage(3L);
+    }
+
+    private static Instant instantOf(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,125 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.dao.VillageLocks;
+import nl.duckstudios.pintandpillage.entity.Village;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VillageLocksTest {
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final VillageLocks villageLocks =
+            new VillageLocks(entityManager, new TransactionTemplate(transactionManager), 16, 3);
+
+    @Test
+    void a_change_that_lost_to_another_write_is_run_again() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = villageLocks.withVillages(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException(Village.class, 1L);
+            }
+            return "saved";
+        }, 1L);
+
+        assertThat(result).isEqualTo("saved");
+        assertThat(attempts).hasValue(2);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void gives_up_with_a_conflict_after_the_last_attempt() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> villageLocks.withVillages(() -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Village.class, 1L);
+        }, 1L))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        assertThat(attempts).hasValue(3);
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void a_change_that_lost_is_rolled_back_as_a_whole_before_it_is_run_again() {
+        // Arrange: the first attempt already saved one village before losing on the second.
+        TransactionStatus firstAttempt = new SimpleTransactionStatus();
+        TransactionStatus secondAttempt = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenReturn(firstAttempt, secondAttempt);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Act
+        villageLocks.withVillages(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException(Village.class, 2L);
+            }
+            return "saved";
+        }, 1L, 2L);
+
+        // Assert: nothing of the lost attempt is committed, only the retry is.
+        verify(transactionManager).rollback(firstAttempt);
+        verify(transactionManager).commit(secondAttempt);
+        verify(transactionManager, times(0)).commit(firstAttempt);
+    }
+
+    @Test
+    void villages_loaded_before_the_lock_are_not_reused() {
+        // Arrange: a village was already loaded while checking the request, before the lock was taken.
+        List<String> calls = new ArrayList<>();
+        doAnswer(invocation -> calls.add("clear")).when(entityManager).clear();
+
+        // Act
+        villageLocks.withVillages(() -> calls.add("change"), 1L);
+
+        // Assert: the change starts from an empty persistence context and loads the village again.
+        assertThat(calls).containsExactly("clear", "change");
+    }
+
+    @Test
+    void changes_to_the_same_village_do_not_overlap() throws InterruptedException {
+        // Arrange: a read-modify-write that would lose updates when two threads run it at once.
+        int[] counter = new int[1];
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act: increment from many threads, partly locking a second village in the other order.
+        for (int i = 0; i < 1000; i++) {
+            long[] villageIds = i % 2 == 0 ? new long[]{1L, 2L} : new long[]{2L, 1L};
+            executor.submit(() -> villageLocks.withVillages(() -> {
+                int value = counter[0];
+                Thread.yield();
+                counter[0] = value + 1;
+                return null;
+            }, villageIds));
+        }
+        executor.shutdown();
+
+        // Assert: no increment got lost and no pair of locks deadlocked.
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(counter[0]).isEqualTo(1000);
+    }
+}
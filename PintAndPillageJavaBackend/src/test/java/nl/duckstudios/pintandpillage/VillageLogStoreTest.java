@@ -0,0 +1,171 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.dao.LogRepository;
+import nl.duckstudios.pintandpillage.dao.VillageLogStore;
+import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.entity.logs.CombatLog;
+import nl.duckstudios.pintandpillage.entity.logs.LogLine;
+import nl.duckstudios.pintandpillage.model.LogEntry;
+import nl.duckstudios.pintandpillage.model.LogPage;
+import nl.duckstudios.pintandpillage.model.LogTypes;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VillageLogStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private LogRepository logRepository;
+
+    @InjectMocks
+    private VillageLogStore villageLogStore;
+
+    @Test
+    void keeps_only_the_latest_lines_of_a_village() {
+        // Arrange: a village without stored combat logs that is being viewed.
+        Village village = this.createVillage(1);
+        when(logRepository.findByVillageVillageIdAndTypeOrderByDateDescIdDesc(eq(1L), eq("COMBAT_LOG"), any()))
+                .thenReturn(new ArrayList<>());
+        villageLogStore.getRecent(1, LogTypes.COMBAT_LOG);
+
+        // Act: append more lines than the retention of 3.
+        List<LogLine> logLines = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            logLines.add(new CombatLog(START.plusMinutes(i), "Battle " + i, village));
+        }
+        villageLogStore.append(logLines);
+
+        // Assert: the oldest lines are dropped, the rest is ordered from oldest to newest.
+        assertThat(villageLogStore.getRecent(1, LogTypes.COMBAT_LOG))
+                .extracting(entry -> entry.message)
+                .containsExactly("Battle 2", "Battle 3", "Battle 4");
+    }
+
+    @Test
+    void lines_appended_before_the_first_view_are_shown_once() {
+        // Arrange: the appended lines are in the table once they are saved.
+        Village village = this.createVillage(1);
+        LogLine first = new CombatLog(START, "First", village);
+        LogLine second = new CombatLog(START.plusMinutes(1), "Second", village);
+        when(logRepository.findByVillageVillageIdAndTypeOrderByDateDescIdDesc(eq(1L), eq("COMBAT_LOG"), any()))
+                .thenAnswer(invocation -> new ArrayList<>(List.of(second, first)));
+
+        // Act
+        villageLogStore.append(List.of(first, second));
+
+        // Assert
+        assertThat(villageLogStore.getRecent(1, LogTypes.COMBAT_LOG))
+                .extracting(entry -> entry.message)
+                .containsExactly("First", "Second");
+    }
+
+    @Test
+    void lines_reach_the_buffer_only_once_the_save_commits() {
+        // Arrange
+        Village village = this.createVillage(1);
+        when(logRepository.findByVillageVillageIdAndTypeOrderByDateDescIdDesc(eq(1L), eq("COMBAT_LOG"), any()))
+                .thenReturn(new ArrayList<>());
+        villageLogStore.getRecent(1, LogTypes.COMBAT_LOG);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            villageLogStore.append(List.of(new CombatLog(START, "Battle", village)));
+
+            // Assert: nothing is shown while the save can still roll back.
+            assertThat(villageLogStore.getRecent(1, LogTypes.COMBAT_LOG)).isEmpty();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(villageLogStore.getRecent(1, LogTypes.COMBAT_LOG))
+                    .extracting(entry -> entry.message)
+                    .containsExactly("Battle");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void lines_of_other_instances_show_up_once_the_buffer_expires() {
+        // Arrange: another instance writes a line after the first view.
+        ReflectionTestUtils.setField(villageLogStore, "recentSeconds", 0L);
+        LogLine written = new CombatLog(START, "Elsewhere", null);
+        when(logRepository.findByVillageVillageIdAndTypeOrderByDateDescIdDesc(eq(1L), eq("COMBAT_LOG"), any()))
+                .thenReturn(new ArrayList<>())
+                .thenReturn(new ArrayList<>(List.of(written)));
+        villageLogStore.getRecent(1, LogTypes.COMBAT_LOG);
+
+        // Act
+        List<LogEntry> recent = villageLogStore.getRecent(1, LogTypes.COMBAT_LOG);
+
+        // Assert
+        assertThat(recent).extracting(entry -> entry.message).containsExactly("Elsewhere");
+    }
+
+    @Test
+    void idle_villages_are_dropped_from_the_buffers() {
+        // Arrange: room for the buffers of one village.
+        ReflectionTestUtils.setField(villageLogStore, "cachedVillages", 1);
+        when(logRepository.findByVillageVillageIdAndTypeOrderByDateDescIdDesc(anyLong(), eq("COMBAT_LOG"), any()))
+                .thenAnswer(invocation -> new ArrayList<>());
+
+        // Act: view the logs of more villages than there is room for, then the first one again.
+        for (long villageId = 1; villageId <= LogTypes.values().length + 1; villageId++) {
+            villageLogStore.getRecent(villageId, LogTypes.COMBAT_LOG);
+        }
+        villageLogStore.getRecent(1, LogTypes.COMBAT_LOG);
+
+        // Assert: the least recently viewed village was read from the table again.
+        verify(logRepository, times(2)).findByVillageVillageIdAndTypeOrderByDateDescIdDesc(eq(1L), eq("COMBAT_LOG"), any());
+    }
+
+    @Test
+    void a_full_page_points_to_the_next_page() {
+        // Arrange: two stored lines on the first page.
+        LogLine newest = new CombatLog(START.plusMinutes(1), "Newest", null);
+        newest.setId(8);
+        LogLine older = new CombatLog(START, "Older", null);
+        older.setId(5);
+        when(logRepository.findByVillageVillageIdAndTypeOrderByDateDescIdDesc(eq(1L), eq("COMBAT_LOG"), any()))
+                .thenReturn(List.of(newest, older));
+
+        // Act: ask for a page of two lines.
+        LogPage page = villageLogStore.getPage(1, LogTypes.COMBAT_LOG, null, 2);
+
+        // Assert: the cursor continues after the last line of the page.
+        assertThat(page.logs).extracting(entry -> entry.id).containsExactly(8L, 5L);
+        assertThat(page.nextCursor).isEqualTo(START + "_5");
+    }
+
+    @Test
+    void an_invalid_cursor_is_a_bad_request() {
+        assertThatThrownBy(() -> villageLogStore.getPage(1, LogTypes.COMBAT_LOG, "yesterday", 20))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    private Village createVillage(long villageId) {
+        Village village = new Village();
+        village.setVillageId(villageId);
+        return village;
+    }
+}
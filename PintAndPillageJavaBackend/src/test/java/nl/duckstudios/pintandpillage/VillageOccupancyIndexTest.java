@@ -0,0 +1,66 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.entity.Coord;
+import nl.duckstudios.pintandpillage.helper.VillageOccupancyIndex;
+import nl.duckstudios.pintandpillage.model.WorldVillage;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VillageOccupancyIndexTest {
+
+    private final VillageOccupancyIndex index = new VillageOccupancyIndex();
+
+    private WorldVillage village(long id, int x, int y) {
+        return new WorldVillage(id, "Derp", new Coord(x, y), "Apal", 1L, 100);
+    }
+
+    @Test
+    void occupied_tiles_are_found_by_value_not_by_coord_identity() {
+        index.put(village(1L, 10, 12));
+
+        assertThat(index.isOccupied(10, 12)).isTrue();
+        assertThat(index.isOccupied(12, 10)).isFalse();
+        assertThat(index.getVillageAt(10, 12).villageId).isEqualTo(1L);
+    }
+
+    @Test
+    void moving_or_removing_a_village_frees_its_previous_tile() {
+        index.put(village(1L, 3, 4));
+        index.put(village(1L, 5, 6));
+
+        assertThat(index.isOccupied(3, 4)).isFalse();
+        assertThat(index.isOccupied(5, 6)).isTrue();
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(1L);
+
+        assertThat(index.isOccupied(5, 6)).isFalse();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void rectangle_query_is_inclusive_for_dense_and_sparse_lookups() {
+        index.put(village(1L, 0, 0));
+        index.put(village(2L, 2, 2));
+        index.put(village(3L, 9, 9));
+
+        // Small rectangle: probes the tiles.
+        assertThat(index.getVillagesInRectangle(0, 0, 0, 0))
+                .extracting(v -> v.villageId).containsExactly(1L);
+        // Large rectangle: scans the villages.
+        assertThat(index.getVillagesInRectangle(0, 0, 5, 5))
+                .extracting(v -> v.villageId).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void radius_query_uses_rounded_up_euclidean_distance() {
+        index.put(village(1L, 13, 14));
+        index.put(village(2L, 14, 14));
+        index.put(village(3L, 10, 10));
+
+        // (13,14) is at distance ceil(sqrt(9 + 16)) = 5, (14,14) at ceil(sqrt(32)) = 6.
+        assertThat(index.getVillagesInRadius(new Coord(10, 10), 5))
+                .extracting(v -> v.villageId).containsExactlyInAnyOrder(1L, 3L);
+    }
+}
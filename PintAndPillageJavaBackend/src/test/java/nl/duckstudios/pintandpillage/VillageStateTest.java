@@ -0,0 +1,146 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.entity.VillageUnit;
+import nl.duckstudios.pintandpillage.entity.buildings.House;
+import nl.duckstudios.pintandpillage.entity.researching.Research;
+import nl.duckstudios.pintandpillage.entity.researching.SpearResearch;
+import nl.duckstudios.pintandpillage.helper.BuildingEffectApplier;
+import nl.duckstudios.pintandpillage.helper.GameCatalog;
+import nl.duckstudios.pintandpillage.helper.UnitFactory;
+import nl.duckstudios.pintandpillage.model.ResearchType;
+import nl.duckstudios.pintandpillage.model.UnitType;
+import nl.duckstudios.pintandpillage.model.VillageEventType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VillageStateTest {
+
+    @Test
+    void unchanged_village_keeps_its_derived_values() {
+        Village village = new Village();
+        BuildingEffectApplier.registerBuiltBuilding(village, new House(), 2);
+        List<Research> availableResearches = village.getAvailableResearches();
+        Map<String, Integer> resourcesPerHour = village.getResourcesPerHour();
+
+        village.updateVillageState();
+
+        assertThat(village.getAvailableResearches()).isSameAs(availableResearches);
+        assertThat(village.getResourcesPerHour()).isSameAs(resourcesPerHour);
+    }
+
+    @Test
+    void building_level_change_recalculates_population() {
+        Village village = new Village();
+        House house = new House();
+        BuildingEffectApplier.registerBuiltBuilding(village, house, 1);
+        int population = village.getPopulation();
+
+        house.setLevel(5);
+        village.updateVillageState();
+
+        assertThat(village.getPopulation()).isGreaterThan(population);
+    }
+
+    @Test
+    void building_level_change_announces_the_new_points() {
+        Village village = new Village();
+        House house = new House();
+        BuildingEffectApplier.registerBuiltBuilding(village, house, 1);
+        village.takePendingEvents();
+
+        house.setLevel(5);
+        village.updateVillageState();
+
+        assertThat(village.takePendingEvents()).singleElement()
+                .satisfies(event -> assertThat(event.type).isEqualTo(VillageEventType.POINTS_CHANGED));
+    }
+
+    @Test
+    void unchanged_points_are_not_announced() {
+        Village village = new Village();
+        BuildingEffectApplier.registerBuiltBuilding(village, new House(), 2);
+        village.takePendingEvents();
+
+        village.updateVillageState();
+
+        assertThat(village.takePendingEvents()).isEmpty();
+    }
+
+    @Test
+    void unit_amount_change_recalculates_defence() {
+        Village village = new Village();
+        village.addUnit(UnitFactory.getUnitStatic(UnitType.Spear.name()), 10);
+        village.updateVillageState();
+        int defence = village.getTotalDefence();
+
+        VillageUnit spears = village.getUnitInVillage(UnitType.Spear);
+        spears.setAmount(20);
+        village.updateVillageState();
+
+        assertThat(defence).isPositive();
+        assertThat(village.getTotalDefence()).isEqualTo(defence * 2);
+    }
+
+    @Test
+    void units_are_looked_up_by_type_after_adding_and_replacing() {
+        Village village = new Village();
+        village.addUnit(UnitFactory.getUnitStatic(UnitType.Spear.name()), 10);
+        village.addUnit(UnitFactory.getUnitStatic(UnitType.Spear.name()), 5);
+        village.addUnit(UnitFactory.getUnitStatic(UnitType.Axe.name()), 3);
+
+        assertThat(village.getUnitsInVillage()).hasSize(2);
+        assertThat(village.getUnitInVillage(UnitType.Spear).getAmount()).isEqualTo(15);
+        assertThat(village.getUnitInVillage(UnitType.Shield)).isNull();
+
+        VillageUnit bows = new VillageUnit(UnitFactory.getUnitStatic(UnitType.Bow.name()), 4);
+        village.setUnitsInVillage(new HashSet<>(Set.of(bows)));
+
+        assertThat(village.getUnitInVillage(UnitType.Spear)).isNull();
+        assertThat(village.getUnitInVillage(UnitType.Bow)).isSameAs(bows);
+
+        village.removeAllUnits();
+
+        assertThat(village.getUnitInVillage(UnitType.Bow)).isNull();
+    }
+
+    @Test
+    void completed_research_updates_available_researches() {
+        Village village = new Village();
+        SpearResearch research = new SpearResearch();
+        research.setResearchLevel(2);
+
+        village.addCompleteResearch(research);
+        village.updateVillageState();
+
+        assertThat(village.getAvailableResearches())
+                .filteredOn(r -> r.getResearchName() == ResearchType.Spear)
+                .singleElement()
+                .satisfies(r -> assertThat(r.getResearchLevel()).isEqualTo(2));
+    }
+
+    @Test
+    void villages_can_not_change_the_game_catalog_of_other_villages() {
+        Village village = new Village();
+        Village otherVillage = new Village();
+        SpearResearch research = new SpearResearch();
+        research.setResearchLevel(3);
+        village.addCompleteResearch(research);
+
+        village.getValidBuildPositions()[0].allowedBuilding = "Wall";
+        village.getBuildingsThatCanBeBuild().get(0).setLevel(5);
+        otherVillage.getAvailableResearches().get(0).setResearchLevel(2);
+
+        assertThat(village.getAvailableResearches().get(0).getResearchLevel()).isEqualTo(3);
+        assertThat(GameCatalog.getResearchTemplates()).allMatch(r -> r.getResearchLevel() == 0);
+        assertThat(GameCatalog.getBuildPositions()[0].allowedBuilding).isNull();
+        assertThat(GameCatalog.getBuildableBuildings().get(0).getLevel()).isZero();
+        assertThat(otherVillage.getValidBuildPositions()[0].allowedBuilding).isNull();
+    }
+}
@@ -0,0 +1,132 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.dao.VillageDataMapper;
+import nl.duckstudios.pintandpillage.entity.Coord;
+import nl.duckstudios.pintandpillage.entity.User;
+import nl.duckstudios.pintandpillage.entity.Village;
+import nl.duckstudios.pintandpillage.entity.WorldMap;
+import nl.duckstudios.pintandpillage.model.WorldChunk;
+import nl.duckstudios.pintandpillage.model.WorldVillage;
+import nl.duckstudios.pintandpillage.service.WorldService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WorldServiceTest {
+
+    @Mock
+    private VillageDataMapper villageDataMapper;
+
+    private WorldService worldService;
+
+    @BeforeEach
+    void setUp() {
+        worldService = new WorldService(villageDataMapper);
+    }
+
+    @Test
+    void world_map_is_generated_once_and_shared() {
+        // Arrange: the database holds a single village.
+        when(villageDataMapper.getWorldVillages()).thenReturn(List.of(
+                new WorldVillage(1L, "Derp", new Coord(20, 15), "Apal", 7L, 100)
+        ));
+
+        // Act: request the world map twice.
+        WorldMap first = worldService.getWorldMap();
+        WorldMap second = worldService.getWorldMap();
+
+        // Assert: the same instance is returned and villages are loaded only once.
+        assertThat(second).isSameAs(first);
+        assertThat(second.getVillages()).hasSize(1);
+        verify(villageDataMapper, times(1)).getWorldVillages();
+    }
+
+    @Test
+    void updated_village_replaces_cached_overlay_entry() {
+        // Arrange: a cached world with one village.
+        when(villageDataMapper.getWorldVillages()).thenReturn(List.of(
+                new WorldVillage(1L, "Derp", new Coord(20, 15), "Apal", 7L, 100)
+        ));
+        worldService.getWorldMap();
+
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("Derp");
+        Village village = new Village();
+        village.setVillageId(1L);
+        village.setUser(user);
+        village.setName("Bekkr");
+        when(villageDataMapper.toWorldVillage(any(Village.class))).thenReturn(
+                new WorldVillage(1L, "Derp", new Coord(20, 15), "Bekkr", 7L, 100)
+        );
+
+        // Act: the village gets renamed.
+        worldService.updateVillage(village);
+
+        // Assert: the overlay is updated in place without reloading the world.
+        assertThat(worldService.getWorldMap().getVillages())
+                .singleElement()
+                .satisfies(v -> assertThat(v.name).isEqualTo("Bekkr"));
+        verify(villageDataMapper, times(1)).getWorldVillages();
+    }
+
+    @Test
+    void chunk_etag_only_changes_when_a_village_in_that_chunk_changes() {
+        // Arrange: one village in chunk (1, 0) and a cached world.
+        when(villageDataMapper.getWorldVillages()).thenReturn(List.of(
+                new WorldVillage(1L, "Derp", new Coord(20, 15), "Apal", 7L, 100)
+        ));
+        String villageChunkETag = worldService.getChunkETag(1, 0);
+        String otherChunkETag = worldService.getChunkETag(0, 0);
+
+        User user = new User();
+        user.setId(7L);
+        Village village = new Village();
+        village.setUser(user);
+
+        // Act: an identical update is ignored, a points change is not.
+        when(villageDataMapper.toWorldVillage(any(Village.class))).thenReturn(
+                new WorldVillage(1L, "Derp", new Coord(20, 15), "Apal", 7L, 100)
+        );
+        worldService.updateVillage(village);
+        String afterIdenticalUpdate = worldService.getChunkETag(1, 0);
+
+        when(villageDataMapper.toWorldVillage(any(Village.class))).thenReturn(
+                new WorldVillage(1L, "Derp", new Coord(20, 15), "Apal", 7L, 150)
+        );
+        worldService.updateVillage(village);
+
+        // Assert: only the chunk holding the village got a new version.
+        assertThat(afterIdenticalUpdate).isEqualTo(villageChunkETag);
+        assertThat(worldService.getChunkETag(1, 0)).isNotEqualTo(villageChunkETag);
+        assertThat(worldService.getChunkETag(0, 0)).isEqualTo(otherChunkETag);
+    }
+
+    @Test
+    void chunk_contains_its_terrain_and_villages() {
+        when(villageDataMapper.getWorldVillages()).thenReturn(List.of(
+                new WorldVillage(1L, "Derp", new Coord(20, 15), "Apal", 7L, 100),
+                new WorldVillage(2L, "Derp", new Coord(40, 40), "Bekkr", 7L, 100)
+        ));
+
+        WorldChunk chunk = worldService.getChunk(1, 0);
+
+        assertThat(chunk.startX).isEqualTo(16);
+        assertThat(chunk.startY).isEqualTo(0);
+        assertThat(Arrays.stream(chunk.runs).sum()).isEqualTo(chunk.width * chunk.height);
+        assertThat(chunk.villages).extracting(v -> v.villageId).containsExactly(1L);
+        assertThat(worldService.getChunkETag(chunk)).isEqualTo(worldService.getChunkETag(1, 0));
+    }
+}
@@ -0,0 +1,77 @@
+package nl.duckstudios.pintandpillage;
+
+import nl.duckstudios.pintandpillage.model.Tile;
+import nl.duckstudios.pintandpillage.model.TileType;
+import nl.duckstudios.pintandpillage.model.WorldTerrain;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorldTerrainTest {
+
+    private WorldTerrain createTerrain() {
+        WorldTerrain terrain = new WorldTerrain(7, 5);
+        terrain.setTileType(0, 0, TileType.Grass);
+        terrain.setTileType(0, 1, TileType.Grass);
+        terrain.setTileType(3, 2, TileType.Grass);
+        terrain.setTileType(6, 4, TileType.Grass);
+        return terrain;
+    }
+
+    @Test
+    void tiles_default_to_water_and_can_be_toggled() {
+        WorldTerrain terrain = createTerrain();
+
+        assertThat(terrain.getTileType(3, 2)).isEqualTo(TileType.Grass);
+        assertThat(terrain.getTileType(2, 3)).isEqualTo(TileType.Water);
+
+        terrain.setTileType(3, 2, TileType.Water);
+
+        assertThat(terrain.isWater(3, 2)).isTrue();
+    }
+
+    @Test
+    void tile_grid_matches_the_packed_terrain() {
+        WorldTerrain terrain = createTerrain();
+
+        Tile[][] tiles = terrain.toTileGrid();
+
+        assertThat(tiles).hasDimensions(7, 5);
+        assertThat(tiles[6][4].tileType).isEqualTo(TileType.Grass);
+        assertThat(tiles[6][4].x).isEqualTo(6);
+        assertThat(tiles[6][4].y).isEqualTo(4);
+        assertThat(tiles[1][1].tileType).isEqualTo(TileType.Water);
+    }
+
+    @Test
+    void base64_encoding_stores_one_bit_per_tile() {
+        WorldTerrain terrain = createTerrain();
+
+        byte[] bytes = Base64.getDecoder().decode(terrain.toBase64());
+
+        assertThat(bytes).hasSize(5);
+        for (int x = 0; x < terrain.getWidth(); x++) {
+            for (int y = 0; y < terrain.getHeight(); y++) {
+                int index = x * terrain.getHeight() + y;
+                boolean isGrass = (bytes[index / 8] & (1 << (index % 8))) != 0;
+                assertThat(isGrass).as("tile %d,%d", x, y).isEqualTo(terrain.isGrass(x, y));
+            }
+        }
+    }
+
+    @Test
+    void run_length_encoding_alternates_starting_with_water() {
+        WorldTerrain terrain = createTerrain();
+
+        int[] runs = terrain.toRunLengths();
+
+        // Index 0 and 1 are grass, so the leading water run is empty.
+        assertThat(runs[0]).isZero();
+        assertThat(runs[1]).isEqualTo(2);
+        assertThat(Arrays.stream(runs).sum()).isEqualTo(35);
+        assertThat(runs[runs.length - 1]).isEqualTo(1);
+    }
+}